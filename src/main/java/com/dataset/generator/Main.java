@@ -1,5 +1,6 @@
 package main.java.com.dataset.generator;
 
+import main.java.com.dataset.generator.batch.RowBatch;
 import main.java.com.dataset.generator.export.*;
 import main.java.com.dataset.generator.generator.DataGenerator;
 import main.java.com.dataset.generator.generator.RandomDataGenerator;
@@ -9,8 +10,10 @@ import main.java.com.dataset.generator.model.DataType;
 import main.java.com.dataset.generator.model.DatasetProject;
 import main.java.com.dataset.generator.model.Entity;
 
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Classe principale démontrant l'utilisation du générateur de dataset.
@@ -52,33 +55,33 @@ public class Main {
         
         // 3. Génération des données
         DataGenerator dataGenerator = new RandomDataGenerator();
-        List<Map<String, Object>> generatedData = dataGenerator.generate(userEntity, 5);
-        
-        // Affichage des données générées dans la console
-        System.out.println("Données générées :");
-        generatedData.forEach(System.out::println);
+        project.setDataGenerator(dataGenerator);
         
         // 4. Export des données dans tous les formats
         try {
-            // Export en CSV
-            Exporter csvExporter = new CSVExporter();
-            csvExporter.export(generatedData, "utilisateurs.csv");
-            System.out.println("\nExport CSV réussi : utilisateurs.csv");
-            
-            // Export en JSON
-            Exporter jsonExporter = new JSONExporter();
-            jsonExporter.export(generatedData, "utilisateurs.json");
-            System.out.println("Export JSON réussi : utilisateurs.json");
+            // Les lignes sont générées une seule fois : chaque lot est affiché puis écrit
+            // simultanément dans les quatre formats, chacun sur son thread
+            Map<String, Exporter> targets = new LinkedHashMap<>();
+            targets.put("utilisateurs.csv", new CSVExporter());
+            targets.put("utilisateurs.json", new JSONExporter());
+            targets.put("utilisateurs.xml", new XMLExporter());
+            targets.put("utilisateurs.sql", new SQLExporter("utilisateurs"));
             
-            // Export en XML
-            Exporter xmlExporter = new XMLExporter();
-            xmlExporter.export(generatedData, "utilisateurs.xml");
-            System.out.println("Export XML réussi : utilisateurs.xml");
+            System.out.println("Données générées :");
+            try (Stream<RowBatch> batches = project.batches(userEntity, 5, RowBatch.DEFAULT_CAPACITY);
+                 FanOutSession session = FanOutSession.open(targets, FanOutSession.DEFAULT_QUEUE_CAPACITY)) {
+                Iterator<RowBatch> iterator = batches.iterator();
+                while (iterator.hasNext()) {
+                    RowBatch batch = iterator.next();
+                    batch.toRows().forEach(System.out::println);
+                    session.accept(batch);
+                }
+            }
             
-            // Export en SQL
-            Exporter sqlExporter = new SQLExporter("utilisateurs");
-            sqlExporter.export(generatedData, "utilisateurs.sql");
-            System.out.println("Export SQL réussi : utilisateurs.sql");
+            System.out.println();
+            for (String path : targets.keySet()) {
+                System.out.println("Export réussi : " + path);
+            }
             
         } catch (Exception e) {
             System.err.println("Erreur lors de l'export : " + e.getMessage());
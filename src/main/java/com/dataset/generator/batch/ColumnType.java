@@ -0,0 +1,27 @@
+package main.java.com.dataset.generator.batch;
+
+/**
+ * Énumération des représentations physiques d'une colonne dans un {@link RowBatch}.
+ */
+public enum ColumnType {
+    /** Entier 32 bits, stocké dans un {@code int[]}. */
+    INT,
+    /** Entier 64 bits, stocké dans un {@code long[]}. */
+    LONG,
+    /** Flottant double précision, stocké dans un {@code double[]}. */
+    DOUBLE,
+    /** Booléen, stocké dans un {@code boolean[]}. */
+    BOOLEAN,
+    /** Date, stockée en nombre de jours depuis l'époque dans un {@code long[]}. */
+    DATE,
+    /** Date et heure locales, stockées en millisecondes depuis 1970-01-01T00:00 dans un {@code long[]}. */
+    DATETIME,
+    /** Heure locale, stockée en millisecondes depuis minuit dans un {@code long[]}. */
+    TIME,
+    /** Chaîne de caractères, stockée par référence. */
+    STRING,
+    /** Valeur quelconque, stockée par référence. */
+    OBJECT,
+    /** Sous-entité, stockée dans un lot imbriqué de même taille. */
+    STRUCT
+}
@@ -0,0 +1,115 @@
+package main.java.com.dataset.generator.batch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Dictionnaire des valeurs d'une colonne STRING de faible cardinalité (valeurs possibles,
+ * énumérations, vocabulaires courts).
+ * <p>
+ * Le générateur d'une telle colonne enregistre, à côté de la chaîne, l'indice de l'entrée tirée
+ * ({@link RowBatch.Column#setDictionaryId}). Un exportateur prépare alors chaque entrée une seule
+ * fois dans sa forme finale — échappée, et encodée en octets s'il écrit des octets — puis
+ * recopie cette forme pour chaque ligne au lieu d'échapper et d'encoder la même chaîne des
+ * millions de fois. Les formes sont conservées par format dans le dictionnaire, qui est immuable
+ * et peut être partagé entre threads.
+ */
+public final class Dictionary {
+    /** Nombre maximal d'entrées d'un dictionnaire construit à partir d'un vocabulaire. */
+    public static final int MAX_SIZE = 4096;
+
+    private final String[] values;
+    private final Map<String, byte[][]> encodedForms = new ConcurrentHashMap<>();
+    private final Map<String, String[]> escapedForms = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur à partir d'une copie des entrées.
+     * @param values Les entrées, non nulles ; un doublon est accepté et garde son propre indice
+     */
+    public Dictionary(String[] values) {
+        this.values = values.clone();
+        for (String value : this.values) {
+            Objects.requireNonNull(value, "Une entrée de dictionnaire ne peut pas être nulle");
+        }
+    }
+
+    /**
+     * Construit un dictionnaire à partir d'une liste, dans son ordre.
+     * @param values Les entrées
+     * @return Le dictionnaire
+     */
+    public static Dictionary of(List<String> values) {
+        return new Dictionary(values.toArray(new String[0]));
+    }
+
+    /**
+     * Retourne le nombre d'entrées.
+     * @return Le nombre d'entrées
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Retourne une entrée.
+     * @param id L'indice de l'entrée
+     * @return La chaîne
+     */
+    public String get(int id) {
+        return values[id];
+    }
+
+    /**
+     * Retourne toutes les entrées encodées en octets pour un format, calculées au premier appel.
+     * @param format La clé du format, qui doit identifier tout ce dont dépend l'encodage
+     *               (par exemple le séparateur d'un CSV)
+     * @param encoder L'encodage d'une entrée, appliqué une seule fois par entrée et par format
+     * @return Les formes encodées, par indice d'entrée ; le tableau ne doit pas être modifié
+     */
+    public byte[][] encoded(String format, Function<String, byte[]> encoder) {
+        return encodedForms.computeIfAbsent(format, key -> {
+            byte[][] encoded = new byte[values.length][];
+            for (int i = 0; i < values.length; i++) {
+                encoded[i] = encoder.apply(values[i]);
+            }
+            return encoded;
+        });
+    }
+
+    /**
+     * Retourne toutes les entrées échappées pour un format texte, calculées au premier appel.
+     * @param format La clé du format
+     * @param escaper L'échappement d'une entrée, appliqué une seule fois par entrée et par format
+     * @return Les formes échappées, par indice d'entrée ; le tableau ne doit pas être modifié
+     */
+    public String[] escaped(String format, Function<String, String> escaper) {
+        return escapedForms.computeIfAbsent(format, key -> {
+            String[] escaped = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                escaped[i] = escaper.apply(values[i]);
+            }
+            return escaped;
+        });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(values, ((Dictionary) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "Dictionary" + Arrays.toString(values);
+    }
+}
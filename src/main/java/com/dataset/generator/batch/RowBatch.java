@@ -0,0 +1,504 @@
+package main.java.com.dataset.generator.batch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lot de lignes stocké en colonnes.
+ * <p>
+ * Le lot partage un {@link RowSchema} et conserve chaque colonne dans un tableau primitif
+ * ({@code int[]}, {@code long[]}, {@code double[]}, {@code boolean[]}) ou de références pour
+ * les chaînes. Générateurs et exportateurs y accèdent par indice, sans boxing ni recherche
+ * par nom de colonne. Une colonne STRING dont le schéma déclare un {@link Dictionary} conserve
+ * en plus l'indice de l'entrée de chaque valeur.
+ */
+public final class RowBatch {
+    /** Nombre de lignes par lot utilisé par défaut. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final RowSchema schema;
+    private final int capacity;
+    private final Column[] columns;
+    private int size;
+
+    /**
+     * Constructeur d'un lot vide.
+     * @param schema Le schéma des colonnes
+     * @param capacity Le nombre maximal de lignes
+     */
+    public RowBatch(RowSchema schema, int capacity) {
+        this.schema = Objects.requireNonNull(schema, "Le schéma ne peut pas être nul");
+        if (capacity < 0) {
+            throw new IllegalArgumentException("La capacité ne peut pas être négative");
+        }
+        this.capacity = capacity;
+        this.columns = new Column[schema.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(schema.field(i), capacity);
+        }
+    }
+
+    /**
+     * Construit un lot à partir de lignes, en déduisant le schéma.
+     * @param rows Les lignes
+     * @return Le lot contenant toutes les lignes
+     */
+    public static RowBatch fromRows(List<Map<String, Object>> rows) {
+        Objects.requireNonNull(rows, "Les données ne peuvent pas être nulles");
+        RowBatch batch = new RowBatch(RowSchema.infer(rows), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            batch.setRow(i, rows.get(i));
+        }
+        batch.setSize(rows.size());
+        return batch;
+    }
+
+    /**
+     * Construit un lot à partir de lignes, selon un schéma donné ; les valeurs sont lues par
+     * nom de colonne, quel que soit l'ordre des clés de chaque ligne.
+     * @param schema Le schéma du lot
+     * @param rows Les lignes
+     * @return Le lot contenant toutes les lignes
+     * @throws IllegalArgumentException Si une ligne a une clé absente du schéma, ou une valeur
+     *         incompatible avec le type de sa colonne
+     */
+    public static RowBatch fromRows(RowSchema schema, List<? extends Map<String, Object>> rows) {
+        Objects.requireNonNull(rows, "Les données ne peuvent pas être nulles");
+        RowBatch batch = new RowBatch(schema, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            checkRow(schema, row);
+            batch.setRow(i, row);
+        }
+        batch.setSize(rows.size());
+        return batch;
+    }
+
+    private static void checkRow(RowSchema schema, Map<?, ?> row) {
+        for (Object key : row.keySet()) {
+            if (!(key instanceof String) || schema.indexOf((String) key) < 0) {
+                throw new IllegalArgumentException("Colonne inconnue du schéma : " + key);
+            }
+        }
+        for (RowSchema.Field field : schema.getFields()) {
+            Object value = row.get(field.getName());
+            if (!accepts(field.getType(), value)) {
+                throw new IllegalArgumentException("Valeur incompatible avec la colonne " + field.getName() +
+                                                   " de type " + field.getType() + " : " + value);
+            }
+            if (field.getType() == ColumnType.STRUCT) {
+                checkRow(field.getChildren(), (Map<?, ?>) value);
+            }
+        }
+    }
+
+    /**
+     * Indique si une valeur peut être écrite par {@link Column#setValue} dans une colonne du type donné.
+     */
+    private static boolean accepts(ColumnType type, Object value) {
+        switch (type) {
+            case INT:
+                return value instanceof Integer;
+            case LONG:
+                return value instanceof Long;
+            case DOUBLE:
+                return value instanceof Double;
+            case BOOLEAN:
+                return value instanceof Boolean;
+            case DATE:
+                return value instanceof LocalDate || value instanceof Date;
+            case DATETIME:
+                return value instanceof LocalDateTime;
+            case TIME:
+                return value instanceof LocalTime;
+            case STRUCT:
+                return value instanceof Map;
+            case STRING:
+                return value == null || value instanceof String;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Regroupe un flux de lignes en lots, sans jamais en conserver plus d'un lot en mémoire.
+     * Le schéma est déduit du premier lot puis imposé aux suivants, dont les lignes sont lues
+     * par nom de colonne : tous les lots d'un export partagent ainsi l'en-tête et les types
+     * écrits à partir du premier.
+     * @param rows Le flux de lignes
+     * @param batchSize Le nombre maximal de lignes par lot
+     * @return Le flux de lots ; la lecture d'un lot lève {@link IllegalArgumentException} si une
+     *         ligne a une clé inconnue du premier lot ou une valeur incompatible avec le type déduit
+     */
+    public static Stream<RowBatch> chunk(Stream<Map<String, Object>> rows, int batchSize) {
+        Objects.requireNonNull(rows, "Les données ne peuvent pas être nulles");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("La taille des lots doit être supérieure à 0");
+        }
+        Iterator<Map<String, Object>> source = rows.iterator();
+        Iterator<RowBatch> batches = new Iterator<RowBatch>() {
+            private RowSchema schema;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public RowBatch next() {
+                List<Map<String, Object>> chunk = new ArrayList<>(batchSize);
+                while (chunk.size() < batchSize && source.hasNext()) {
+                    chunk.add(source.next());
+                }
+                if (schema == null) {
+                    RowBatch first = fromRows(chunk);
+                    schema = first.getSchema();
+                    return first;
+                }
+                return fromRows(schema, chunk);
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(rows::close);
+    }
+
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retourne le nombre de lignes remplies.
+     * @return Le nombre de lignes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Définit le nombre de lignes remplies, y compris dans les sous-entités.
+     * @param size Le nombre de lignes
+     */
+    public void setSize(int size) {
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("Taille invalide : " + size);
+        }
+        this.size = size;
+        for (Column column : columns) {
+            if (column.struct != null) {
+                column.struct.setSize(size);
+            }
+        }
+    }
+
+    /**
+     * Retourne une colonne.
+     * @param index L'indice de la colonne dans le schéma
+     * @return La colonne
+     */
+    public Column column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Reconstruit une ligne sous forme de map (valeurs boxées).
+     * @param row L'indice de la ligne
+     * @return La ligne, colonnes dans l'ordre du schéma
+     */
+    public Map<String, Object> toRow(int row) {
+        Map<String, Object> map = new LinkedHashMap<>((int) (columns.length / 0.75f) + 1);
+        for (int i = 0; i < columns.length; i++) {
+            map.put(columns[i].field.getName(), columns[i].getValue(row));
+        }
+        return map;
+    }
+
+    /**
+     * Reconstruit toutes les lignes sous forme de maps.
+     * @return Les lignes du lot
+     */
+    public List<Map<String, Object>> toRows() {
+        List<Map<String, Object>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(toRow(i));
+        }
+        return rows;
+    }
+
+    /**
+     * Écrit une ligne représentée par une map ; les colonnes absentes valent null.
+     * @param row L'indice de la ligne
+     * @param values Les valeurs de la ligne
+     */
+    public void setRow(int row, Map<String, Object> values) {
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].setValue(row, values.get(columns[i].field.getName()));
+        }
+    }
+
+    /**
+     * Colonne d'un lot. Seul le tableau correspondant au type de la colonne est alloué.
+     */
+    public static final class Column {
+        private final RowSchema.Field field;
+        private final ColumnType type;
+        private final int[] ints;
+        private final long[] longs;
+        private final double[] doubles;
+        private final boolean[] booleans;
+        private final Object[] values;
+        private final int[] ids;
+        private final RowBatch struct;
+
+        private Column(RowSchema.Field field, int capacity) {
+            this.field = field;
+            this.type = field.getType();
+            this.ints = type == ColumnType.INT ? new int[capacity] : null;
+            this.longs = type == ColumnType.LONG || type == ColumnType.DATE ||
+                         type == ColumnType.DATETIME || type == ColumnType.TIME ? new long[capacity] : null;
+            this.doubles = type == ColumnType.DOUBLE ? new double[capacity] : null;
+            this.booleans = type == ColumnType.BOOLEAN ? new boolean[capacity] : null;
+            this.values = type == ColumnType.STRING || type == ColumnType.OBJECT ? new Object[capacity] : null;
+            this.ids = field.getDictionary() != null ? new int[capacity] : null;
+            this.struct = type == ColumnType.STRUCT ? new RowBatch(field.getChildren(), capacity) : null;
+        }
+
+        public RowSchema.Field getField() {
+            return field;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        public int getInt(int row) {
+            return ints[row];
+        }
+
+        public void setInt(int row, int value) {
+            ints[row] = value;
+        }
+
+        /**
+         * Retourne la valeur d'une colonne LONG, ou la valeur brute d'une colonne temporelle
+         * (voir {@link Temporals}).
+         */
+        public long getLong(int row) {
+            return longs[row];
+        }
+
+        public void setLong(int row, long value) {
+            longs[row] = value;
+        }
+
+        public double getDouble(int row) {
+            return doubles[row];
+        }
+
+        public void setDouble(int row, double value) {
+            doubles[row] = value;
+        }
+
+        public boolean getBoolean(int row) {
+            return booleans[row];
+        }
+
+        public void setBoolean(int row, boolean value) {
+            booleans[row] = value;
+        }
+
+        /**
+         * Retourne la valeur d'une colonne STRING ou OBJECT.
+         */
+        public Object getObject(int row) {
+            return values[row];
+        }
+
+        public void setObject(int row, Object value) {
+            values[row] = value;
+            if (ids != null) {
+                ids[row] = -1;
+            }
+        }
+
+        /**
+         * Retourne le dictionnaire des valeurs de la colonne.
+         * @return Le dictionnaire, ou null si la colonne n'en a pas
+         */
+        public Dictionary getDictionary() {
+            return field.getDictionary();
+        }
+
+        /**
+         * Retourne l'indice dans le dictionnaire de la valeur d'une colonne à dictionnaire.
+         * @param row L'indice de la ligne
+         * @return L'indice de l'entrée, ou -1 si la valeur a été écrite par {@link #setObject}
+         */
+        public int getDictionaryId(int row) {
+            return ids[row];
+        }
+
+        /**
+         * Écrit une entrée du dictionnaire : son indice et la chaîne correspondante, partagée.
+         * @param row L'indice de la ligne
+         * @param id L'indice de l'entrée
+         */
+        public void setDictionaryId(int row, int id) {
+            values[row] = field.getDictionary().get(id);
+            ids[row] = id;
+        }
+
+        /**
+         * Retourne le lot imbriqué d'une colonne STRUCT.
+         */
+        public RowBatch getStruct() {
+            return struct;
+        }
+
+        /**
+         * Indique si la valeur est nulle ; seules les colonnes de références peuvent l'être.
+         */
+        public boolean isNull(int row) {
+            return values != null && values[row] == null;
+        }
+
+        /**
+         * Retourne la valeur boxée, comme dans la représentation en map.
+         * @param row L'indice de la ligne
+         * @return La valeur
+         */
+        public Object getValue(int row) {
+            switch (type) {
+                case INT:
+                    return ints[row];
+                case LONG:
+                    return longs[row];
+                case DOUBLE:
+                    return doubles[row];
+                case BOOLEAN:
+                    return booleans[row];
+                case DATE:
+                    return Temporals.toLocalDate(longs[row]);
+                case DATETIME:
+                    return Temporals.toLocalDateTime(longs[row]);
+                case TIME:
+                    return Temporals.toLocalTime(longs[row]);
+                case STRUCT:
+                    return struct.toRow(row);
+                default:
+                    return values[row];
+            }
+        }
+
+        /**
+         * Écrit une valeur boxée dans la colonne.
+         * @param row L'indice de la ligne
+         * @param value La valeur, dont le type doit correspondre à celui de la colonne
+         */
+        @SuppressWarnings("unchecked")
+        public void setValue(int row, Object value) {
+            switch (type) {
+                case INT:
+                    ints[row] = (Integer) value;
+                    break;
+                case LONG:
+                    longs[row] = (Long) value;
+                    break;
+                case DOUBLE:
+                    doubles[row] = (Double) value;
+                    break;
+                case BOOLEAN:
+                    booleans[row] = (Boolean) value;
+                    break;
+                case DATE:
+                    if (value instanceof Date) {
+                        // Représentation historique : minuit dans le fuseau du système
+                        longs[row] = ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+                    } else {
+                        longs[row] = ((LocalDate) value).toEpochDay();
+                    }
+                    break;
+                case DATETIME:
+                    longs[row] = Temporals.fromLocalDateTime((LocalDateTime) value);
+                    break;
+                case TIME:
+                    longs[row] = Temporals.fromLocalTime((LocalTime) value);
+                    break;
+                case STRUCT:
+                    struct.setRow(row, (Map<String, Object>) value);
+                    break;
+                default:
+                    setObject(row, value);
+            }
+        }
+
+        /**
+         * Ajoute la représentation textuelle de la valeur, identique à {@code String.valueOf}
+         * appliqué à la valeur boxée, sans créer d'objet intermédiaire pour les types primitifs.
+         * @param row L'indice de la ligne
+         * @param sb Le tampon de destination
+         */
+        public void appendText(int row, StringBuilder sb) {
+            switch (type) {
+                case INT:
+                    sb.append(ints[row]);
+                    break;
+                case LONG:
+                    sb.append(longs[row]);
+                    break;
+                case DOUBLE:
+                    sb.append(doubles[row]);
+                    break;
+                case BOOLEAN:
+                    sb.append(booleans[row]);
+                    break;
+                case DATE:
+                    Temporals.appendDate(sb, longs[row]);
+                    break;
+                case DATETIME:
+                    Temporals.appendDateTime(sb, longs[row]);
+                    break;
+                case TIME:
+                    Temporals.appendTime(sb, longs[row]);
+                    break;
+                case STRUCT:
+                    struct.appendRowText(row, sb);
+                    break;
+                default:
+                    sb.append(values[row]);
+            }
+        }
+    }
+
+    /**
+     * Représentation textuelle d'une ligne, identique à celle d'une map : {@code {cle=valeur, ...}}.
+     */
+    void appendRowText(int row, StringBuilder sb) {
+        sb.append('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(columns[i].field.getName()).append('=');
+            columns[i].appendText(row, sb);
+        }
+        sb.append('}');
+    }
+}
@@ -0,0 +1,314 @@
+package main.java.com.dataset.generator.batch;
+
+import main.java.com.dataset.generator.model.Attribute;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Schéma des colonnes d'un {@link RowBatch}.
+ * Immuable, il est partagé par tous les lots d'un même export.
+ */
+public final class RowSchema {
+    private final List<Field> fields;
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Constructeur à partir de la liste ordonnée des colonnes.
+     * @param fields Les colonnes du schéma
+     */
+    public RowSchema(List<Field> fields) {
+        Objects.requireNonNull(fields, "Les colonnes ne peuvent pas être nulles");
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.indexes = new LinkedHashMap<>();
+        for (int i = 0; i < this.fields.size(); i++) {
+            if (indexes.put(this.fields.get(i).getName(), i) != null) {
+                throw new IllegalArgumentException("Colonne dupliquée : " + this.fields.get(i).getName());
+            }
+        }
+    }
+
+    /**
+     * Déduit le schéma d'une liste de lignes.
+     * Les colonnes apparaissent dans l'ordre de leur première occurrence ; une colonne
+     * n'est typée que si toutes ses valeurs sont non nulles et de même type. Une colonne de
+     * maps n'est une sous-entité que si toutes ont les mêmes clés dans le même ordre ; sinon
+     * chaque map est conservée telle quelle dans une colonne OBJECT.
+     * @param rows Les lignes
+     * @return Le schéma déduit
+     */
+    public static RowSchema infer(List<? extends Map<?, ?>> rows) {
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+        for (Map<?, ?> row : rows) {
+            for (Object key : row.keySet()) {
+                columns.computeIfAbsent(String.valueOf(key), k -> new ArrayList<>(rows.size()));
+            }
+        }
+
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (Map.Entry<String, List<Object>> column : columns.entrySet()) {
+            List<Object> values = column.getValue();
+            for (Map<?, ?> row : rows) {
+                values.add(row.get(column.getKey()));
+            }
+            fields.add(inferField(column.getKey(), values));
+        }
+        return new RowSchema(fields);
+    }
+
+    private static Field inferField(String name, List<Object> values) {
+        ColumnType type = null;
+        for (Object value : values) {
+            ColumnType valueType = typeOf(value);
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                return new Field(name, ColumnType.OBJECT);
+            }
+        }
+        if (type == ColumnType.STRUCT) {
+            List<Map<?, ?>> maps = new ArrayList<>(values.size());
+            for (Object value : values) {
+                maps.add((Map<?, ?>) value);
+            }
+            return haveSameKeys(maps) ? new Field(name, infer(maps)) : new Field(name, ColumnType.OBJECT);
+        }
+        return new Field(name, type != null ? type : ColumnType.OBJECT);
+    }
+
+    /**
+     * Indique si toutes les lignes ont les mêmes clés, dans le même ordre : un lot construit
+     * avec leur schéma restitue alors chaque ligne à l'identique.
+     * @param rows Les lignes
+     * @return true si les clés de toutes les lignes sont identiques
+     */
+    public static boolean haveSameKeys(List<? extends Map<?, ?>> rows) {
+        if (rows.isEmpty()) {
+            return true;
+        }
+        Map<?, ?> first = rows.get(0);
+        for (int i = 1; i < rows.size(); i++) {
+            Map<?, ?> row = rows.get(i);
+            if (row.size() != first.size()) {
+                return false;
+            }
+            Iterator<?> expected = first.keySet().iterator();
+            for (Object key : row.keySet()) {
+                if (!Objects.equals(key, expected.next())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static ColumnType typeOf(Object value) {
+        if (value instanceof Integer) {
+            return ColumnType.INT;
+        } else if (value instanceof Long) {
+            return ColumnType.LONG;
+        } else if (value instanceof Double) {
+            return ColumnType.DOUBLE;
+        } else if (value instanceof Boolean) {
+            return ColumnType.BOOLEAN;
+        } else if (value instanceof String) {
+            return ColumnType.STRING;
+        } else if (value instanceof LocalDate) {
+            return ColumnType.DATE;
+        } else if (value instanceof LocalDateTime) {
+            return ColumnType.DATETIME;
+        } else if (value instanceof LocalTime) {
+            return ColumnType.TIME;
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            return ColumnType.STRUCT;
+        }
+        return ColumnType.OBJECT;
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retourne le nombre de colonnes.
+     * @return Le nombre de colonnes
+     */
+    public int size() {
+        return fields.size();
+    }
+
+    /**
+     * Retourne une colonne.
+     * @param index L'indice de la colonne
+     * @return La colonne
+     */
+    public Field field(int index) {
+        return fields.get(index);
+    }
+
+    /**
+     * Retourne les colonnes dans l'ordre.
+     * @return Une liste non modifiable des colonnes
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Retourne l'indice d'une colonne.
+     * @param name Le nom de la colonne
+     * @return L'indice, ou -1 si la colonne n'existe pas
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return fields.equals(((RowSchema) o).fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "RowSchema" + fields;
+    }
+
+    /**
+     * Colonne d'un schéma : nom, représentation et, s'ils sont connus, l'attribut d'origine et
+     * le dictionnaire de ses valeurs.
+     */
+    public static final class Field {
+        private final String name;
+        private final ColumnType type;
+        private final Attribute attribute;
+        private final RowSchema children;
+        private final Dictionary dictionary;
+
+        /**
+         * Constructeur d'une colonne simple, sans attribut d'origine.
+         * @param name Le nom de la colonne
+         * @param type La représentation de la colonne
+         */
+        public Field(String name, ColumnType type) {
+            this(name, type, null);
+        }
+
+        /**
+         * Constructeur d'une colonne simple.
+         * @param name Le nom de la colonne
+         * @param type La représentation de la colonne
+         * @param attribute L'attribut dont la colonne est issue, ou null
+         */
+        public Field(String name, ColumnType type, Attribute attribute) {
+            this(name, type, attribute, (Dictionary) null);
+        }
+
+        /**
+         * Constructeur d'une colonne simple dont les valeurs sont tirées d'un dictionnaire.
+         * @param name Le nom de la colonne
+         * @param type La représentation de la colonne
+         * @param attribute L'attribut dont la colonne est issue, ou null
+         * @param dictionary Le dictionnaire des valeurs, ou null ; seulement pour une colonne STRING
+         */
+        public Field(String name, ColumnType type, Attribute attribute, Dictionary dictionary) {
+            this(name, type, attribute, null, dictionary);
+            if (type == ColumnType.STRUCT) {
+                throw new IllegalArgumentException("Une colonne STRUCT doit déclarer son schéma imbriqué");
+            }
+            if (dictionary != null && type != ColumnType.STRING) {
+                throw new IllegalArgumentException("Seule une colonne STRING peut avoir un dictionnaire : " + name);
+            }
+        }
+
+        /**
+         * Constructeur d'une colonne de sous-entité.
+         * @param name Le nom de la colonne
+         * @param children Le schéma de la sous-entité
+         */
+        public Field(String name, RowSchema children) {
+            this(name, ColumnType.STRUCT, null, Objects.requireNonNull(children, "Le schéma imbriqué ne peut pas être nul"), null);
+        }
+
+        private Field(String name, ColumnType type, Attribute attribute, RowSchema children, Dictionary dictionary) {
+            this.name = Objects.requireNonNull(name, "Le nom de la colonne ne peut pas être nul");
+            this.type = Objects.requireNonNull(type, "Le type de la colonne ne peut pas être nul");
+            this.attribute = attribute;
+            this.children = children;
+            this.dictionary = dictionary;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        /**
+         * Retourne l'attribut d'origine.
+         * @return L'attribut, ou null si la colonne a été déduite des données
+         */
+        public Attribute getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * Retourne le schéma d'une colonne STRUCT.
+         * @return Le schéma imbriqué, ou null pour les autres colonnes
+         */
+        public RowSchema getChildren() {
+            return children;
+        }
+
+        /**
+         * Retourne le dictionnaire des valeurs d'une colonne STRING de faible cardinalité.
+         * @return Le dictionnaire, ou null si les valeurs ne sont pas tirées d'un dictionnaire
+         */
+        public Dictionary getDictionary() {
+            return dictionary;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Field that = (Field) o;
+            return name.equals(that.name) && type == that.type &&
+                   Objects.equals(attribute, that.attribute) &&
+                   Objects.equals(children, that.children) &&
+                   Objects.equals(dictionary, that.dictionary);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, type, attribute, children, dictionary);
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + (children != null ? children : type);
+        }
+    }
+}
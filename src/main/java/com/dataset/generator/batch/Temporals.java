@@ -0,0 +1,120 @@
+package main.java.com.dataset.generator.batch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions des colonnes temporelles, stockées en {@code long} sans fuseau :
+ * <ul>
+ *   <li>DATE : nombre de jours depuis le 1970-01-01 ;</li>
+ *   <li>DATETIME : date et heure locales, en millisecondes depuis 1970-01-01T00:00 ;</li>
+ *   <li>TIME : heure locale, en millisecondes depuis minuit.</li>
+ * </ul>
+ * Le fuseau n'intervient qu'à la compilation du plan, pour résoudre les bornes. Le texte produit
+ * est celui de {@code toString()} de {@link LocalDate}, {@link LocalDateTime} et {@link LocalTime},
+ * calculé par arithmétique sur le calendrier civil, sans objet intermédiaire.
+ */
+public final class Temporals {
+    /** Nombre de millisecondes dans un jour. */
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private Temporals() {
+    }
+
+    public static LocalDate toLocalDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static LocalDateTime toLocalDateTime(long localMillis) {
+        long seconds = Math.floorDiv(localMillis, 1000L);
+        int nanos = (int) Math.floorMod(localMillis, 1000L) * 1_000_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    public static LocalTime toLocalTime(long millisOfDay) {
+        return LocalTime.ofNanoOfDay(millisOfDay * 1_000_000L);
+    }
+
+    public static long fromLocalDateTime(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000L + dateTime.getNano() / 1_000_000;
+    }
+
+    public static long fromLocalTime(LocalTime time) {
+        return time.toNanoOfDay() / 1_000_000L;
+    }
+
+    /**
+     * Ajoute une date au format {@code yyyy-MM-dd}.
+     * @param sb Le tampon de destination
+     * @param epochDay Le jour depuis l'époque
+     */
+    public static void appendDate(StringBuilder sb, long epochDay) {
+        // Algorithme « civil from days » de H. Hinnant, ères de 400 ans commençant un 1er mars
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            sb.append(LocalDate.ofEpochDay(epochDay)); // Signe et années longues : format de LocalDate
+            return;
+        }
+        appendPadded(sb, (int) year, 4);
+        sb.append('-');
+        appendPadded(sb, month, 2);
+        sb.append('-');
+        appendPadded(sb, day, 2);
+    }
+
+    /**
+     * Ajoute une heure au format de {@link LocalTime#toString()} : {@code HH:mm}, suivi des
+     * secondes et des millisecondes seulement si elles ne sont pas nulles.
+     * @param sb Le tampon de destination
+     * @param millisOfDay L'heure en millisecondes depuis minuit
+     */
+    public static void appendTime(StringBuilder sb, long millisOfDay) {
+        int millis = (int) millisOfDay;
+        int hour = millis / 3_600_000;
+        int minute = millis / 60_000 % 60;
+        int second = millis / 1000 % 60;
+        int fraction = millis % 1000;
+        appendPadded(sb, hour, 2);
+        sb.append(':');
+        appendPadded(sb, minute, 2);
+        if (second > 0 || fraction > 0) {
+            sb.append(':');
+            appendPadded(sb, second, 2);
+            if (fraction > 0) {
+                sb.append('.');
+                appendPadded(sb, fraction, 3);
+            }
+        }
+    }
+
+    /**
+     * Ajoute une date et heure au format de {@link LocalDateTime#toString()}.
+     * @param sb Le tampon de destination
+     * @param localMillis La date et heure locales en millisecondes depuis 1970-01-01T00:00
+     */
+    public static void appendDateTime(StringBuilder sb, long localMillis) {
+        appendDate(sb, Math.floorDiv(localMillis, MILLIS_PER_DAY));
+        sb.append('T');
+        appendTime(sb, Math.floorMod(localMillis, MILLIS_PER_DAY));
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) {
+                sb.append('0');
+            }
+        }
+        sb.append(value);
+    }
+}
@@ -0,0 +1,52 @@
+package main.java.com.dataset.generator.datasource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Vocabulaire adossé à un tableau.
+ */
+final class ArrayVocabulary implements Vocabulary {
+    /** Nombre de tirages utilisés pour reconstituer un vocabulaire à partir des listes. */
+    static final int SNAPSHOT_DRAWS = 4096;
+
+    private final String[] values;
+
+    ArrayVocabulary(String[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Reconstitue un vocabulaire à partir de tirages : les valeurs non vides sont dédoublonnées
+     * puis triées, si bien que le résultat ne dépend pas de l'ordre des tirages.
+     * @param draws Les tirages, éventuellement nuls
+     * @return Le vocabulaire, vide si aucun tirage n'est exploitable
+     */
+    static Vocabulary fromDraws(List<String> draws) {
+        TreeSet<String> distinct = new TreeSet<>();
+        if (draws != null) {
+            for (String value : draws) {
+                if (value != null && !value.isEmpty()) {
+                    distinct.add(value);
+                }
+            }
+        }
+        return new ArrayVocabulary(distinct.toArray(new String[0]));
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
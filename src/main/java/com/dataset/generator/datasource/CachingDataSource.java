@@ -0,0 +1,407 @@
+package main.java.com.dataset.generator.datasource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Décorateur de {@link DataSource} pour les sources lentes (service HTTP, table JDBC...).
+ * <p>
+ * Deux caches évitent d'interroger la source à chaque ligne :
+ * <ul>
+ *   <li>les vocabulaires ({@link #getVocabulary}) sont conservés dans un cache LRU borné par le
+ *       nombre total de valeurs qu'ils contiennent ; les plus anciens sont évincés au-delà ;</li>
+ *   <li>les méthodes de liste puisent dans une réserve par méthode, remplie par lots de
+ *       {@code batchSize} valeurs. Dès que la réserve passe sous un lot, le lot suivant est
+ *       demandé en arrière-plan, si bien qu'en régime établi l'appelant n'attend jamais la source.</li>
+ * </ul>
+ * Un appel servi entièrement par le cache compte comme un succès ; sinon, il compte comme un
+ * échec et les valeurs manquantes sont demandées à la source de façon synchrone, ce qui fait aussi
+ * remonter ses erreurs ; l'erreur d'un préchargement est levée par l'appel suivant de la même
+ * méthode, qui relancera le préchargement au prochain appel. Les valeurs d'une réserve étant des tirages aléatoires indépendants, les
+ * servir dans l'ordre de la réserve ne change pas leur distribution.
+ * <p>
+ * Les instances sont utilisables par plusieurs threads ; la source décorée doit accepter d'être
+ * appelée depuis le thread de préchargement en même temps que depuis l'appelant.
+ * {@link #close()} arrête le thread de préchargement ; il est démon, si bien qu'une instance non
+ * fermée ne bloque pas l'arrêt de la JVM.
+ */
+public class CachingDataSource implements DataSource, AutoCloseable {
+    /** Taille par défaut des lots demandés à la source. */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    /** Nombre maximal par défaut de valeurs conservées dans le cache des vocabulaires. */
+    public static final long DEFAULT_MAX_VOCABULARY_WEIGHT = 1_000_000L;
+
+    /**
+     * Méthodes de liste de la source, chacune avec sa réserve.
+     */
+    private enum Kind {
+        FIRST_NAMES, LAST_NAMES, CITIES, PROFESSIONS, EMAILS, PHONE_NUMBERS, PRODUCT_NAMES, COMPANY_NAMES
+    }
+
+    private final DataSource delegate;
+    private final int batchSize;
+    private final long maxVocabularyWeight;
+    private final ExecutorService prefetcher;
+    private final Map<Kind, Reserve> reserves = new EnumMap<>(Kind.class);
+    /** Vocabulaires en cache, du moins au plus récemment utilisé ; sert aussi de verrou au cache. */
+    private final LinkedHashMap<Vocabulary.Category, Vocabulary> vocabularies = new LinkedHashMap<>(16, 0.75f, true);
+    /** Demandes de vocabulaire en cours, par catégorie. */
+    private final Map<Vocabulary.Category, CompletableFuture<Vocabulary>> loading = new ConcurrentHashMap<>();
+    private long vocabularyWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructeur avec la taille de lot et la borne du cache par défaut.
+     * @param delegate La source de données décorée
+     */
+    public CachingDataSource(DataSource delegate) {
+        this(delegate, DEFAULT_BATCH_SIZE, DEFAULT_MAX_VOCABULARY_WEIGHT);
+    }
+
+    /**
+     * Constructeur.
+     * @param delegate La source de données décorée
+     * @param batchSize Le nombre de valeurs demandées à la source par lot ; une réserve en
+     *                  contient au plus deux lots
+     * @param maxVocabularyWeight Le nombre maximal de valeurs conservées dans le cache des
+     *                            vocabulaires ; un vocabulaire plus grand n'est pas conservé
+     */
+    public CachingDataSource(DataSource delegate, int batchSize, long maxVocabularyWeight) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("La source de données décorée ne peut pas être nulle");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être au moins 1 : " + batchSize);
+        }
+        if (maxVocabularyWeight < 0) {
+            throw new IllegalArgumentException("La borne du cache ne peut pas être négative : " + maxVocabularyWeight);
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxVocabularyWeight = maxVocabularyWeight;
+        this.prefetcher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "datasource-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Kind kind : Kind.values()) {
+            reserves.put(kind, new Reserve(kind));
+        }
+    }
+
+    @Override
+    public List<String> getFirstNames(int count) {
+        return reserves.get(Kind.FIRST_NAMES).take(count);
+    }
+
+    @Override
+    public List<String> getLastNames(int count) {
+        return reserves.get(Kind.LAST_NAMES).take(count);
+    }
+
+    @Override
+    public List<String> getCities(int count) {
+        return reserves.get(Kind.CITIES).take(count);
+    }
+
+    @Override
+    public List<String> getProfessions(int count) {
+        return reserves.get(Kind.PROFESSIONS).take(count);
+    }
+
+    @Override
+    public List<String> getEmails(int count) {
+        return reserves.get(Kind.EMAILS).take(count);
+    }
+
+    @Override
+    public List<String> getPhoneNumbers(int count) {
+        return reserves.get(Kind.PHONE_NUMBERS).take(count);
+    }
+
+    @Override
+    public List<String> getProductNames(int count) {
+        return reserves.get(Kind.PRODUCT_NAMES).take(count);
+    }
+
+    @Override
+    public List<String> getCompanyNames(int count) {
+        return reserves.get(Kind.COMPANY_NAMES).take(count);
+    }
+
+    /**
+     * Retourne le vocabulaire en cache ou le demande à la source, puis évince les vocabulaires
+     * les moins récemment utilisés tant que le cache dépasse sa borne.
+     * <p>
+     * La source est interrogée hors du verrou du cache : pendant une demande, seuls les threads
+     * qui attendent la même catégorie sont bloqués, et ils partagent son résultat.
+     */
+    @Override
+    public Vocabulary getVocabulary(Vocabulary.Category category) {
+        Vocabulary vocabulary = cached(category);
+        if (vocabulary != null) {
+            hits.incrementAndGet();
+            return vocabulary;
+        }
+        misses.incrementAndGet();
+        CompletableFuture<Vocabulary> request = new CompletableFuture<>();
+        CompletableFuture<Vocabulary> pending = loading.putIfAbsent(category, request);
+        if (pending != null) {
+            return await(pending);
+        }
+        try {
+            // Une demande concurrente a pu se terminer depuis la première lecture du cache
+            vocabulary = cached(category);
+            if (vocabulary == null) {
+                fetches.incrementAndGet();
+                vocabulary = delegate.getVocabulary(category);
+                store(category, vocabulary);
+            }
+            request.complete(vocabulary);
+            return vocabulary;
+        } catch (RuntimeException | Error e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(category, request);
+        }
+    }
+
+    /**
+     * Retourne le nombre d'appels servis entièrement par le cache.
+     * @return Le nombre de succès
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Retourne le nombre d'appels qui ont dû attendre la source.
+     * @return Le nombre d'échecs
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Retourne la part des appels servis entièrement par le cache.
+     * @return Le taux de succès, entre 0 et 1 ; 0 si aucun appel n'a eu lieu
+     */
+    public double getHitRate() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * Retourne le nombre de demandes adressées à la source, synchrones ou en arrière-plan.
+     * @return Le nombre de demandes
+     */
+    public long getFetchCount() {
+        return fetches.get();
+    }
+
+    /**
+     * Retourne le nombre de vocabulaires évincés du cache.
+     * @return Le nombre d'évictions
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Retourne la source de données décorée.
+     * @return La source décorée
+     */
+    public DataSource getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Arrête le thread de préchargement ; les valeurs déjà en réserve restent disponibles et les
+     * appels suivants interrogent la source de façon synchrone.
+     */
+    @Override
+    public void close() {
+        prefetcher.shutdownNow();
+    }
+
+    private Vocabulary cached(Vocabulary.Category category) {
+        synchronized (vocabularies) {
+            return vocabularies.get(category);
+        }
+    }
+
+    private void store(Vocabulary.Category category, Vocabulary vocabulary) {
+        if (vocabulary == null || vocabulary.size() > maxVocabularyWeight) {
+            return;
+        }
+        synchronized (vocabularies) {
+            Vocabulary previous = vocabularies.put(category, vocabulary);
+            vocabularyWeight += vocabulary.size() - (previous != null ? previous.size() : 0);
+            Iterator<Vocabulary> eldest = vocabularies.values().iterator();
+            while (vocabularyWeight > maxVocabularyWeight) {
+                vocabularyWeight -= eldest.next().size();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Attend la demande d'un autre thread et lève son erreur telle quelle.
+     */
+    private static Vocabulary await(CompletableFuture<Vocabulary> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<String> fetch(Kind kind, int count) {
+        fetches.incrementAndGet();
+        switch (kind) {
+            case FIRST_NAMES:
+                return delegate.getFirstNames(count);
+            case LAST_NAMES:
+                return delegate.getLastNames(count);
+            case CITIES:
+                return delegate.getCities(count);
+            case PROFESSIONS:
+                return delegate.getProfessions(count);
+            case EMAILS:
+                return delegate.getEmails(count);
+            case PHONE_NUMBERS:
+                return delegate.getPhoneNumbers(count);
+            case PRODUCT_NAMES:
+                return delegate.getProductNames(count);
+            case COMPANY_NAMES:
+                return delegate.getCompanyNames(count);
+            default:
+                throw new IllegalArgumentException("Méthode de source inconnue : " + kind);
+        }
+    }
+
+    /**
+     * Réserve de valeurs d'une méthode de liste, rechargée par lots en arrière-plan.
+     */
+    private final class Reserve {
+        private final Kind kind;
+        private final ArrayDeque<String> values = new ArrayDeque<>();
+        private boolean refilling;
+        /** Échec du dernier préchargement, signalé à la demande suivante. */
+        private Throwable failure;
+
+        Reserve(Kind kind) {
+            this.kind = kind;
+        }
+
+        List<String> take(int count) {
+            List<String> result = new ArrayList<>(count);
+            synchronized (this) {
+                reportFailure();
+                while (result.size() < count && !values.isEmpty()) {
+                    result.add(values.poll());
+                }
+                scheduleRefill();
+            }
+            if (result.size() == count) {
+                hits.incrementAndGet();
+                return result;
+            }
+            misses.incrementAndGet();
+            // Demande synchrone, hors verrou : le préchargement peut remplir la réserve en parallèle
+            int missing = count - result.size();
+            List<String> fetched = fetch(kind, Math.max(missing, batchSize));
+            int used = Math.min(missing, fetched.size());
+            result.addAll(fetched.subList(0, used));
+            offer(fetched.subList(used, fetched.size()));
+            return result;
+        }
+
+        /**
+         * Demande le lot suivant si la réserve est passée sous un lot et qu'aucun n'est en cours.
+         */
+        private void scheduleRefill() {
+            if (refilling || values.size() >= batchSize || prefetcher.isShutdown()) {
+                return;
+            }
+            refilling = true;
+            try {
+                prefetcher.execute(this::refill);
+            } catch (RejectedExecutionException e) {
+                refilling = false;
+            }
+        }
+
+        private void refill() {
+            List<String> fetched = List.of();
+            try {
+                fetched = fetch(kind, batchSize);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    failure = e;
+                }
+            } finally {
+                synchronized (this) {
+                    refilling = false;
+                    addBounded(fetched);
+                }
+            }
+        }
+
+        /**
+         * Lève l'erreur du dernier préchargement, une seule fois ; le suivant sera tenté
+         * normalement.
+         */
+        private void reportFailure() {
+            Throwable error = failure;
+            if (error == null) {
+                return;
+            }
+            failure = null;
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw (RuntimeException) error;
+        }
+
+        private synchronized void offer(List<String> surplus) {
+            addBounded(surplus);
+        }
+
+        private void addBounded(List<String> fetched) {
+            int capacity = 2 * batchSize;
+            for (int i = 0; i < fetched.size() && values.size() < capacity; i++) {
+                String value = fetched.get(i);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+    }
+}
@@ -63,4 +63,36 @@ public interface DataSource {
      * @return Liste de noms d'entreprises
      */
     List<String> getCompanyNames(int count);
+
+    /**
+     * Obtient le vocabulaire d'une catégorie, interrogeable par indice sans allocation.
+     * L'implémentation par défaut le reconstitue à partir d'un grand nombre de tirages de la
+     * méthode correspondante, dédoublonnés puis triés ; les sources qui disposent de leurs
+     * valeurs la redéfinissent pour les exposer directement.
+     * <p>
+     * L'ordre des valeurs doit être déterministe : les générateurs tirent un indice dans le
+     * vocabulaire, si bien que deux ordres différents donnent des données différentes pour une
+     * même graine. Une valeur peut apparaître plusieurs fois pour être tirée plus souvent.
+     * @param category La catégorie de valeurs
+     * @return Le vocabulaire, éventuellement vide
+     */
+    default Vocabulary getVocabulary(Vocabulary.Category category) {
+        int draws = ArrayVocabulary.SNAPSHOT_DRAWS;
+        switch (category) {
+            case FIRST_NAMES:
+                return ArrayVocabulary.fromDraws(getFirstNames(draws));
+            case LAST_NAMES:
+                return ArrayVocabulary.fromDraws(getLastNames(draws));
+            case CITIES:
+                return ArrayVocabulary.fromDraws(getCities(draws));
+            case PROFESSIONS:
+                return ArrayVocabulary.fromDraws(getProfessions(draws));
+            case PRODUCT_NAMES:
+                return ArrayVocabulary.fromDraws(getProductNames(draws));
+            case COMPANY_NAMES:
+                return ArrayVocabulary.fromDraws(getCompanyNames(draws));
+            default:
+                throw new IllegalArgumentException("Catégorie de vocabulaire inconnue : " + category);
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package main.java.com.dataset.generator.datasource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Source de données lisant ses vocabulaires dans des fichiers texte UTF-8, une valeur par ligne.
+ * <p>
+ * Les fichiers sont projetés en mémoire à l'ouverture, sans être lus : ouvrir un dictionnaire de
+ * plusieurs centaines de Mo ne coûte que quelques millisecondes. L'index des lignes d'une catégorie
+ * est construit au premier appel de {@link #getVocabulary} et les valeurs ne sont décodées qu'au
+ * tirage. Le contenu reste dans le cache de pages du système, partagé entre les processus qui
+ * lisent les mêmes fichiers, plutôt que sur le tas de chaque JVM.
+ * <p>
+ * Une catégorie sans fichier a un vocabulaire vide. Les numéros de téléphone, qui ne viennent
+ * pas d'un vocabulaire, sont fournis par une {@link StaticDataSource}.
+ */
+public class MappedFileDataSource implements DataSource {
+    /** Extension des fichiers recherchés par {@link #fromDirectory(String)}. */
+    public static final String FILE_EXTENSION = ".txt";
+
+    private final Random random = new Random();
+    private final StaticDataSource phoneNumbers = new StaticDataSource();
+    private final Map<Vocabulary.Category, Path> paths = new EnumMap<>(Vocabulary.Category.class);
+    private final Map<Vocabulary.Category, ByteBuffer> contents = new EnumMap<>(Vocabulary.Category.class);
+    private final Map<Vocabulary.Category, Vocabulary> vocabularies = new EnumMap<>(Vocabulary.Category.class);
+
+    /**
+     * Projette en mémoire un fichier par catégorie.
+     * @param files Les chemins des fichiers, par catégorie ; les catégories absentes restent vides
+     * @throws IOException Si un fichier ne peut pas être ouvert ou dépasse 2 Go
+     */
+    public MappedFileDataSource(Map<Vocabulary.Category, String> files) throws IOException {
+        for (Map.Entry<Vocabulary.Category, String> file : files.entrySet()) {
+            Path path = Paths.get(file.getValue());
+            paths.put(file.getKey(), path);
+            contents.put(file.getKey(), MappedVocabulary.map(path));
+        }
+    }
+
+    /**
+     * Ouvre les fichiers d'un répertoire nommés d'après les catégories, en minuscules :
+     * {@code first_names.txt}, {@code last_names.txt}, {@code cities.txt}, etc.
+     * @param directory Le répertoire
+     * @return La source de données
+     * @throws IOException Si le répertoire n'existe pas ou si un fichier ne peut pas être ouvert
+     */
+    public static MappedFileDataSource fromDirectory(String directory) throws IOException {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Le répertoire de vocabulaires n'existe pas : " + directory);
+        }
+        Map<Vocabulary.Category, String> files = new EnumMap<>(Vocabulary.Category.class);
+        for (Vocabulary.Category category : Vocabulary.Category.values()) {
+            Path file = root.resolve(category.name().toLowerCase(Locale.ROOT) + FILE_EXTENSION);
+            if (Files.isRegularFile(file)) {
+                files.put(category, file.toString());
+            }
+        }
+        return new MappedFileDataSource(files);
+    }
+
+    /**
+     * Indexe le fichier de la catégorie au premier appel, puis retourne toujours le même
+     * vocabulaire, dans l'ordre des lignes du fichier.
+     */
+    @Override
+    public synchronized Vocabulary getVocabulary(Vocabulary.Category category) {
+        Vocabulary vocabulary = vocabularies.get(category);
+        if (vocabulary == null) {
+            ByteBuffer content = contents.get(category);
+            vocabulary = content == null ? Vocabulary.of(List.of())
+                                         : new MappedVocabulary(paths.get(category), content);
+            vocabularies.put(category, vocabulary);
+        }
+        return vocabulary;
+    }
+
+    @Override
+    public List<String> getFirstNames(int count) {
+        return sample(Vocabulary.Category.FIRST_NAMES, count);
+    }
+
+    @Override
+    public List<String> getLastNames(int count) {
+        return sample(Vocabulary.Category.LAST_NAMES, count);
+    }
+
+    @Override
+    public List<String> getCities(int count) {
+        return sample(Vocabulary.Category.CITIES, count);
+    }
+
+    @Override
+    public List<String> getProfessions(int count) {
+        return sample(Vocabulary.Category.PROFESSIONS, count);
+    }
+
+    @Override
+    public List<String> getEmails(int count) {
+        List<String> emails = sample(Vocabulary.Category.FIRST_NAMES, count);
+        emails.replaceAll(name -> name.toLowerCase() + "@example.com");
+        return emails;
+    }
+
+    @Override
+    public List<String> getPhoneNumbers(int count) {
+        return phoneNumbers.getPhoneNumbers(count);
+    }
+
+    @Override
+    public List<String> getProductNames(int count) {
+        return sample(Vocabulary.Category.PRODUCT_NAMES, count);
+    }
+
+    @Override
+    public List<String> getCompanyNames(int count) {
+        return sample(Vocabulary.Category.COMPANY_NAMES, count);
+    }
+
+    /**
+     * Tire des valeurs d'une catégorie ; la liste est vide si la catégorie n'a pas de fichier.
+     */
+    private List<String> sample(Vocabulary.Category category, int count) {
+        Vocabulary vocabulary = getVocabulary(category);
+        List<String> items = new ArrayList<>(count);
+        if (vocabulary.size() == 0) {
+            return items;
+        }
+        for (int i = 0; i < count; i++) {
+            items.add(vocabulary.sample(random));
+        }
+        return items;
+    }
+}
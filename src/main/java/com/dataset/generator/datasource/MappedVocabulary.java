@@ -0,0 +1,135 @@
+package main.java.com.dataset.generator.datasource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Vocabulaire adossé à un fichier texte UTF-8 projeté en mémoire, à raison d'une valeur par ligne.
+ * <p>
+ * Le fichier est parcouru une seule fois pour construire l'index des débuts de ligne, un
+ * {@code int[]} de quatre octets par valeur ; les valeurs ne sont décodées qu'au moment où elles
+ * sont tirées. Les octets restent dans le cache de pages du système, partagé entre les JVM qui
+ * projettent le même fichier, et non sur le tas. Les lignes vides sont ignorées, un BOM initial et
+ * les fins de ligne {@code \r\n} sont acceptés ; les doublons sont conservés et pèsent donc
+ * dans les tirages.
+ */
+final class MappedVocabulary implements Vocabulary {
+    private static final int SCAN_CHUNK = 64 * 1024;
+
+    private final Path path;
+    private final ByteBuffer data;
+    /** Début de chaque valeur dans le fichier ; sa fin est la fin de ligne suivante. */
+    private final int[] starts;
+    private final int size;
+
+    /**
+     * Indexe les lignes d'un fichier déjà projeté en mémoire.
+     * @param path Le chemin du fichier, pour les messages
+     * @param data Le contenu projeté du fichier
+     */
+    MappedVocabulary(Path path, ByteBuffer data) {
+        this.path = path;
+        this.data = data;
+        this.starts = index(data);
+        this.size = starts.length;
+    }
+
+    /**
+     * Projette un fichier en lecture seule, sans le lire.
+     * @param path Le chemin du fichier
+     * @return Le contenu projeté
+     * @throws IOException Si le fichier ne peut pas être ouvert ou dépasse 2 Go
+     */
+    static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Le fichier de vocabulaire dépasse 2 Go : " + path);
+            }
+            // La projection reste valide après la fermeture du canal
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Parcourt le fichier par blocs et relève le début de chaque ligne non vide.
+     */
+    private static int[] index(ByteBuffer data) {
+        int limit = data.limit();
+        int start = hasBom(data) ? 3 : 0;
+        int[] starts = new int[1024];
+        int count = 0;
+        byte[] chunk = new byte[SCAN_CHUNK];
+        ByteBuffer view = data.duplicate();
+        view.position(start);
+        int lineStart = start;
+        for (int offset = start; offset < limit; offset += SCAN_CHUNK) {
+            int length = Math.min(SCAN_CHUNK, limit - offset);
+            view.get(chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] == '\n') {
+                    int lineEnd = offset + i;
+                    if (!isBlank(data, lineStart, lineEnd)) {
+                        if (count == starts.length) {
+                            starts = Arrays.copyOf(starts, count * 2);
+                        }
+                        starts[count++] = lineStart;
+                    }
+                    lineStart = lineEnd + 1;
+                }
+            }
+        }
+        if (!isBlank(data, lineStart, limit)) {
+            starts = Arrays.copyOf(starts, count + 1);
+            starts[count++] = lineStart;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static boolean isBlank(ByteBuffer data, int start, int end) {
+        return end == start || (end == start + 1 && data.get(start) == '\r');
+    }
+
+    private static boolean hasBom(ByteBuffer data) {
+        return data.limit() >= 3 && (data.get(0) & 0xFF) == 0xEF &&
+               (data.get(1) & 0xFF) == 0xBB && (data.get(2) & 0xFF) == 0xBF;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Indice " + index + " hors du vocabulaire de " + size + " valeurs");
+        }
+        int start = starts[index];
+        int end = start;
+        int limit = data.limit();
+        while (end < limit && data.get(end) != '\n') {
+            end++;
+        }
+        if (data.get(end - 1) == '\r') {
+            end--;
+        }
+        int length = end - start;
+        // Vue propre à l'appel : la position du tampon partagé n'est jamais modifiée entre threads
+        ByteBuffer view = data.duplicate();
+        view.position(start);
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + size + " valeurs)";
+    }
+}
@@ -1,8 +1,12 @@
 package main.java.com.dataset.generator.datasource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -57,6 +61,25 @@ public class StaticDataSource implements DataSource {
         "PrimeSoft", "AlphaTech", "BetaSystems", "GammaCorp", "DeltaSoft",
         "EpsilonTech", "ZetaSystems", "EtaCorp", "ThetaSoft", "IotaTech"
     );
+    
+    private static final List<String> PRODUCT_ADJECTIVES = Arrays.asList(
+        "Super", "Ultra", "Mega", "Pro", "Premium", "Elite", "Smart", "Advanced"
+    );
+    
+    private static final List<String> PRODUCTS = Arrays.asList(
+        "Widget", "Gadget", "Tool", "Device", "System", "Solution", "Platform", "Service"
+    );
+    
+    private static final Map<Vocabulary.Category, Vocabulary> VOCABULARIES = new EnumMap<>(Vocabulary.Category.class);
+    
+    static {
+        VOCABULARIES.put(Vocabulary.Category.FIRST_NAMES, Vocabulary.of(sorted(FIRST_NAMES)));
+        VOCABULARIES.put(Vocabulary.Category.LAST_NAMES, Vocabulary.of(sorted(LAST_NAMES)));
+        VOCABULARIES.put(Vocabulary.Category.CITIES, Vocabulary.of(sorted(CITIES)));
+        VOCABULARIES.put(Vocabulary.Category.PROFESSIONS, Vocabulary.of(sorted(PROFESSIONS)));
+        VOCABULARIES.put(Vocabulary.Category.PRODUCT_NAMES, Vocabulary.of(sorted(productNames())));
+        VOCABULARIES.put(Vocabulary.Category.COMPANY_NAMES, Vocabulary.of(sorted(COMPANY_NAMES)));
+    }
 
     @Override
     public List<String> getFirstNames(int count) {
@@ -88,22 +111,34 @@ public class StaticDataSource implements DataSource {
     @Override
     public List<String> getPhoneNumbers(int count) {
         return random.ints(count, 100000000, 999999999)
-                .mapToObj(num -> "0" + String.valueOf(num).substring(0, 1) + " " +
-                         String.valueOf(num).substring(1, 3) + " " +
-                         String.valueOf(num).substring(3, 5) + " " +
-                         String.valueOf(num).substring(5, 7) + " " +
-                         String.valueOf(num).substring(7))
+                .mapToObj(StaticDataSource::formatPhoneNumber)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Formate un nombre à neuf chiffres en 0X XX XX XX XX, directement dans un tableau de
+     * caractères.
+     */
+    private static String formatPhoneNumber(int number) {
+        char[] buffer = new char[14];
+        buffer[0] = '0';
+        for (int position = buffer.length - 1; position > 1; position--) {
+            if (position % 3 == 2) {
+                buffer[position] = ' ';
+            } else {
+                buffer[position] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+        }
+        buffer[1] = (char) ('0' + number);
+        return new String(buffer);
+    }
+
     @Override
     public List<String> getProductNames(int count) {
-        List<String> adjectives = Arrays.asList("Super", "Ultra", "Mega", "Pro", "Premium", "Elite", "Smart", "Advanced");
-        List<String> products = Arrays.asList("Widget", "Gadget", "Tool", "Device", "System", "Solution", "Platform", "Service");
-        
         return random.ints(count)
-                .mapToObj(i -> adjectives.get(Math.abs(i) % adjectives.size()) + " " +
-                              products.get(Math.abs(i / 10) % products.size()))
+                .mapToObj(i -> PRODUCT_ADJECTIVES.get(Math.abs(i) % PRODUCT_ADJECTIVES.size()) + " " +
+                              PRODUCTS.get(Math.abs(i / 10) % PRODUCTS.size()))
                 .collect(Collectors.toList());
     }
 
@@ -112,12 +147,37 @@ public class StaticDataSource implements DataSource {
         return getRandomItems(COMPANY_NAMES, count);
     }
     
+    /**
+     * Expose directement les listes prédéfinies, dédoublonnées et triées ; les noms de produits
+     * sont toutes les combinaisons d'un adjectif et d'un produit.
+     */
+    @Override
+    public Vocabulary getVocabulary(Vocabulary.Category category) {
+        return VOCABULARIES.get(category);
+    }
+    
     /**
      * Sélectionne aléatoirement des éléments d'une liste.
      */
     private List<String> getRandomItems(List<String> source, int count) {
-        return random.ints(count, 0, source.size())
-                .mapToObj(source::get)
-                .collect(Collectors.toList());
+        List<String> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(source.get(random.nextInt(source.size())));
+        }
+        return items;
+    }
+    
+    private static List<String> sorted(List<String> values) {
+        return new ArrayList<>(new TreeSet<>(values));
+    }
+    
+    private static List<String> productNames() {
+        List<String> names = new ArrayList<>(PRODUCT_ADJECTIVES.size() * PRODUCTS.size());
+        for (String adjective : PRODUCT_ADJECTIVES) {
+            for (String product : PRODUCTS) {
+                names.add(adjective + " " + product);
+            }
+        }
+        return names;
     }
 }
@@ -0,0 +1,69 @@
+package main.java.com.dataset.generator.datasource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Vocabulaire d'une catégorie de valeurs d'une {@link DataSource}, accessible par indice.
+ * <p>
+ * Contrairement aux méthodes de la DataSource, qui construisent une liste à chaque appel,
+ * un vocabulaire s'interroge sans allocation : {@link #sample(SplittableRandom)} tire une
+ * valeur avec le générateur aléatoire de l'appelant, si bien que plusieurs threads peuvent
+ * tirer en parallèle sans se disputer un {@link Random} partagé. Les implémentations sont
+ * immuables et peuvent être partagées entre threads.
+ */
+public interface Vocabulary {
+
+    /**
+     * Catégories de vocabulaires d'une source de données.
+     */
+    enum Category {
+        FIRST_NAMES,
+        LAST_NAMES,
+        CITIES,
+        PROFESSIONS,
+        PRODUCT_NAMES,
+        COMPANY_NAMES
+    }
+
+    /**
+     * Retourne le nombre de valeurs.
+     * @return Le nombre de valeurs, éventuellement nul
+     */
+    int size();
+
+    /**
+     * Retourne une valeur.
+     * @param index L'indice de la valeur, de 0 à {@link #size()} exclu
+     * @return La valeur
+     */
+    String get(int index);
+
+    /**
+     * Tire une valeur uniformément.
+     * @param random Le générateur aléatoire de l'appelant
+     * @return La valeur tirée
+     */
+    default String sample(SplittableRandom random) {
+        return get(random.nextInt(size()));
+    }
+
+    /**
+     * Tire une valeur uniformément.
+     * @param random Le générateur aléatoire de l'appelant
+     * @return La valeur tirée
+     */
+    default String sample(Random random) {
+        return get(random.nextInt(size()));
+    }
+
+    /**
+     * Construit un vocabulaire à partir d'une copie des valeurs, dans leur ordre.
+     * @param values Les valeurs
+     * @return Le vocabulaire
+     */
+    static Vocabulary of(List<String> values) {
+        return new ArrayVocabulary(values.toArray(new String[0]));
+    }
+}
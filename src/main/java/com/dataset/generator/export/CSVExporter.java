@@ -1,14 +1,22 @@
 package main.java.com.dataset.generator.export;
 
-import java.io.FileWriter;
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.StringJoiner;
 
 /**
  * Exporte les données au format CSV.
+ * Le fichier est encodé en UTF-8 dans un tampon d'octets réutilisé et écrit par blocs
+ * au travers d'un {@link java.nio.channels.FileChannel}.
  */
 public class CSVExporter implements Exporter {
     
@@ -16,6 +24,8 @@ public class CSVExporter implements Exporter {
     private static final String NEW_LINE = "\n";
     
     private final String separator;
+    private int parallelism = 1;
+    private GzipOptions compression;
     
     public CSVExporter() {
         this(DEFAULT_SEPARATOR);
@@ -25,48 +35,264 @@ public class CSVExporter implements Exporter {
         this.separator = separator != null ? separator : DEFAULT_SEPARATOR;
     }
 
+    /**
+     * Exporte une liste de lignes. L'en-tête reprend les clés de la première ligne ; les
+     * cellules des clés absentes d'une ligne sont vides, les clés qu'elle seule possède
+     * sont ignorées.
+     */
     @Override
     public void export(List<Map<String, Object>> data, String path) throws IOException {
         if (data == null || data.isEmpty()) {
             return;
         }
+        RowBatch batch = firstRowBatch(data);
+        if (parallelism > 1) {
+            try (ParallelCSVSession session = new ParallelCSVSession(path, parallelism, compression)) {
+                session.accept(batch);
+            }
+            return;
+        }
+        try (CSVSession session = new CSVSession(path, compression)) {
+            session.accept(batch);
+        }
+    }
 
-        try (FileWriter writer = new FileWriter(path)) {
-            // Écrire l'en-tête
-            Set<String> headers = data.get(0).keySet();
-            String headerLine = String.join(separator, headers) + NEW_LINE;
-            writer.write(headerLine);
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception, en lisant directement les colonnes.
+     * Le fichier et son en-tête sont créés avec le premier lot non vide : sans ligne, aucun
+     * fichier n'est écrit. Avec un parallélisme supérieur à 1, les lignes sont encodées par
+     * morceaux sur plusieurs threads ; le fichier obtenu est identique.
+     */
+    @Override
+    public ExportSession open(String path) {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        if (parallelism > 1) {
+            return new ParallelCSVSession(path, parallelism, compression);
+        }
+        return new CSVSession(path, compression);
+    }
 
-            // Écrire les données
-            for (Map<String, Object> row : data) {
-                String line = headers.stream()
-                    .map(header -> formatValue(row.get(header)))
-                    .map(this::escapeCsv)
-                    .collect(Collectors.joining(separator)) + NEW_LINE;
-                writer.write(line);
+    /**
+     * Retourne le nombre de threads d'encodage.
+     * @return Le nombre de threads, 1 par défaut
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Définit le nombre de threads d'encodage des sessions ouvertes ensuite.
+     * @param parallelism Le nombre de threads, par exemple {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = ParallelExportSession.checkParallelism(parallelism);
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres, par blocs
+     * compressés en parallèle.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Construit le lot des lignes réduites aux colonnes de la première : celles-ci ouvrent
+     * le schéma déduit, qui suit l'ordre de première occurrence des clés.
+     */
+    private static RowBatch firstRowBatch(List<Map<String, Object>> data) {
+        RowSchema inferred = RowSchema.infer(data);
+        RowSchema schema = new RowSchema(inferred.getFields().subList(0, data.get(0).size()));
+        RowBatch batch = new RowBatch(schema, data.size());
+        for (int i = 0; i < data.size(); i++) {
+            batch.setRow(i, data.get(i));
+        }
+        batch.setSize(data.size());
+        return batch;
+    }
+
+    private String headerLine(RowSchema schema) {
+        StringJoiner header = new StringJoiner(separator, "", NEW_LINE);
+        for (RowSchema.Field field : schema.getFields()) {
+            header.add(field.getName());
+        }
+        return header.toString();
+    }
+
+    /**
+     * Écrit les lignes [from, to) d'un lot ; chaque cellule est copiée dans un tableau de caractères,
+     * analysée en une passe puis encodée directement dans le tampon de sortie. Les cellules des
+     * colonnes à dictionnaire sont recopiées depuis leur forme encodée une fois par entrée.
+     */
+    private void writeRows(Utf8Output out, RowBatch batch, int from, int to, StringBuilder cell) throws IOException {
+        char[] separatorChars = separator.toCharArray();
+        int columnCount = batch.getSchema().size();
+        byte[][][] encodedCells = new byte[columnCount][][];
+        for (int i = 0; i < columnCount; i++) {
+            Dictionary dictionary = batch.column(i).getDictionary();
+            if (dictionary != null) {
+                encodedCells[i] = dictionary.encoded("csv:" + separator,
+                        value -> encodeCell(value, separatorChars));
+            }
+        }
+        for (int row = from; row < to; row++) {
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    out.write(separatorChars, 0, separatorChars.length);
+                }
+                RowBatch.Column column = batch.column(i);
+                if (column.isNull(row)) {
+                    continue;
+                }
+                if (encodedCells[i] != null && column.getDictionaryId(row) >= 0) {
+                    out.write(encodedCells[i][column.getDictionaryId(row)]);
+                    continue;
+                }
+                int length;
+                char[] chars;
+                if (column.getType() == ColumnType.STRING) {
+                    String value = (String) column.getObject(row);
+                    length = value.length();
+                    chars = out.scratch(length);
+                    value.getChars(0, length, chars, 0);
+                } else {
+                    cell.setLength(0);
+                    column.appendText(row, cell);
+                    length = cell.length();
+                    chars = out.scratch(length);
+                    cell.getChars(0, length, chars, 0);
+                }
+                if (needsQuoting(chars, length, separatorChars)) {
+                    out.writeQuoted(chars, 0, length, '"');
+                } else {
+                    out.write(chars, 0, length);
+                }
             }
+            out.writeAscii('\n');
         }
     }
-    
-    private String formatValue(Object value) {
-        if (value == null) {
-            return "";
+
+    /**
+     * Encode une cellule texte telle que {@link #writeRows} l'écrirait.
+     */
+    private static byte[] encodeCell(String value, char[] separator) {
+        char[] chars = value.toCharArray();
+        if (needsQuoting(chars, chars.length, separator)) {
+            return ('"' + value.replace("\"", "\"\"") + '"').getBytes(StandardCharsets.UTF_8);
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Indique si la cellule contient le séparateur, des guillemets ou des sauts de ligne,
+     * auquel cas elle est entourée de guillemets.
+     */
+    private static boolean needsQuoting(char[] chars, int length, char[] separator) {
+        if (separator.length == 0) {
+            return true;
+        }
+        char first = separator[0];
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '"' || c == '\n' || c == '\r' || (c == first && startsWith(chars, i, length, separator))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(char[] chars, int offset, int length, char[] separator) {
+        if (offset + separator.length > length) {
+            return false;
+        }
+        for (int i = 1; i < separator.length; i++) {
+            if (chars[offset + i] != separator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class CSVSession implements ExportSession {
+        private final String path;
+        private final GzipOptions compression;
+        private final StringBuilder cell = new StringBuilder();
+        private Utf8Output out;
+        private boolean closed;
+
+        CSVSession(String path, GzipOptions compression) {
+            this.path = path;
+            this.compression = compression;
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            if (batch.size() == 0) {
+                return;
+            }
+            if (out == null) {
+                out = Utf8Output.toFile(path, compression);
+
+                // Écrire l'en-tête
+                out.write(headerLine(batch.getSchema()));
+            }
+
+            // Écrire les données
+            writeRows(out, batch, 0, batch.size(), cell);
         }
-        // Si c'est un objet complexe, on le convertit en JSON
-        if (value instanceof Map || value instanceof List) {
-            return value.toString(); // Pourrait être amélioré avec une sérialisation JSON
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (out != null) {
+                Utf8Output toClose = out;
+                out = null;
+                toClose.close();
+            }
         }
-        return value.toString();
     }
 
-    private String escapeCsv(String input) {
-        if (input == null) {
-            return "";
+    private final class ParallelCSVSession extends ParallelExportSession {
+        private final String path;
+        private final GzipOptions compression;
+
+        ParallelCSVSession(String path, int parallelism, GzipOptions compression) {
+            super(parallelism);
+            this.path = path;
+            this.compression = compression;
         }
-        // Si la chaîne contient le séparateur, des guillemets ou des sauts de ligne, on l'entoure de guillemets
-        if (input.contains(separator) || input.contains("\"") || input.contains("\n") || input.contains("\r")) {
-            return "\"" + input.replace("\"", "\"\"") + "\"";
+
+        @Override
+        protected WritableByteChannel openChannel() throws IOException {
+            return OutputFiles.newChannel(path, compression);
+        }
+
+        @Override
+        protected byte[] header(RowSchema schema) {
+            return headerLine(schema).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected byte[] encode(RowBatch batch, int from, int to, long firstRow) throws IOException {
+            StringBuilder cell = new StringBuilder();
+            return Utf8Output.toBytes(out -> writeRows(out, batch, from, to, cell));
+        }
+
+        @Override
+        protected byte[] footer(long rowCount) {
+            return null;
         }
-        return input;
     }
 }
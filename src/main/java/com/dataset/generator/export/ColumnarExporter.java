@@ -0,0 +1,654 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static main.java.com.dataset.generator.export.ColumnarFormat.varLongSize;
+import static main.java.com.dataset.generator.export.ColumnarFormat.writeSignedVarLong;
+import static main.java.com.dataset.generator.export.ColumnarFormat.writeString;
+import static main.java.com.dataset.generator.export.ColumnarFormat.writeVarLong;
+
+/**
+ * Exportateur vers un format binaire colonnaire, relu par {@link ColumnarReader}.
+ * <p>
+ * Les lignes sont regroupées en groupes de lignes ; dans chaque groupe, chaque colonne
+ * (sous-entités aplaties) est écrite d'un bloc, avec ses statistiques min/max et le nombre
+ * de valeurs nulles. L'encodage de chaque bloc est choisi d'après le schéma de l'entité :
+ * <ul>
+ *   <li>dictionnaire pour les attributs à {@code possibleValues} et les types tirés d'un
+ *       vocabulaire (prénoms, villes, professions...), indices compactés en bits ou en plages ;
+ *       les colonnes texte sans attribut l'essaient et y renoncent au-delà d'une valeur
+ *       distincte sur quatre ;</li>
+ *   <li>plages de valeurs répétées (RLE) pour les nombres, dates et booléens quand elles
+ *       sont plus compactes que l'écriture simple ;</li>
+ *   <li>booléens et masques de nulls à raison de huit par octet.</li>
+ * </ul>
+ * Les valeurs des colonnes OBJECT sont écrites sous forme de texte. Seul le groupe en cours
+ * est gardé en mémoire.
+ */
+public class ColumnarExporter implements Exporter {
+    /** Nombre de lignes par groupe utilisé par défaut. */
+    public static final int DEFAULT_ROW_GROUP_SIZE = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Encodage des valeurs d'un bloc de colonne.
+     */
+    public enum Encoding {
+        /** Valeurs écrites une à une. */
+        PLAIN,
+        /** Plages de valeurs identiques : longueur puis valeur. */
+        RLE,
+        /** Valeurs distinctes écrites une fois, suivies des indices de chaque ligne. */
+        DICTIONARY,
+        /** Valeurs compactées sur un nombre fixe de bits. */
+        BIT_PACKED
+    }
+
+    private int rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+    private GzipOptions compression;
+
+    @Override
+    public void export(List<Map<String, Object>> data, String path) throws Exception {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("Les données ne peuvent pas être vides");
+        }
+        exportBatches(Stream.of(RowBatch.fromRows(data)), path);
+    }
+
+    /**
+     * Ouvre une session qui accumule les lots jusqu'à remplir un groupe de lignes, puis l'écrit.
+     * Le fichier est créé avec le premier lot non vide, dont le schéma devient celui du fichier :
+     * sans ligne, aucun fichier n'est écrit.
+     */
+    @Override
+    public ExportSession open(String path) {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        return new ColumnarSession(path, rowGroupSize, compression);
+    }
+
+    public int getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    /**
+     * Définit le nombre de lignes par groupe. Des groupes plus grands compressent mieux,
+     * des groupes plus petits consomment moins de mémoire à l'écriture comme à la lecture.
+     * @param rowGroupSize Le nombre de lignes, strictement positif
+     */
+    public void setRowGroupSize(int rowGroupSize) {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException("La taille des groupes de lignes doit être supérieure à 0");
+        }
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres ;
+     * {@link ColumnarReader} les décompresse sans réglage particulier.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
+
+    private static final class ColumnarSession implements ExportSession {
+        private final String path;
+        private final int rowGroupSize;
+        private final GzipOptions compression;
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        private final DataOutputStream chunkOut = new DataOutputStream(chunk);
+        private RowSchema schema;
+        private int[][] paths;
+        private ColumnBuffer[] buffers;
+        private DataOutputStream out;
+        private int buffered;
+        private boolean closed;
+
+        ColumnarSession(String path, int rowGroupSize, GzipOptions compression) {
+            this.path = path;
+            this.rowGroupSize = rowGroupSize;
+            this.compression = compression;
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            if (batch.size() == 0) {
+                return;
+            }
+            if (schema != null && batch.getSchema() != schema && !batch.getSchema().equals(schema)) {
+                throw new IllegalArgumentException("Le schéma du lot ne correspond pas à celui du fichier : " +
+                        batch.getSchema());
+            }
+            try {
+                if (out == null) {
+                    start(batch.getSchema());
+                }
+                RowBatch.Column[] columns = new RowBatch.Column[paths.length];
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = leaf(batch, paths[c]);
+                }
+                int row = 0;
+                while (row < batch.size()) {
+                    int count = Math.min(batch.size() - row, rowGroupSize - buffered);
+                    for (int c = 0; c < columns.length; c++) {
+                        buffers[c].append(columns[c], row, count);
+                    }
+                    buffered += count;
+                    row += count;
+                    if (buffered == rowGroupSize) {
+                        writeRowGroup();
+                    }
+                }
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier colonnaire : " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (out == null) {
+                return;
+            }
+            try (DataOutputStream toClose = out) {
+                if (buffered > 0) {
+                    writeRowGroup();
+                }
+                writeVarLong(toClose, 0);
+            } catch (IOException e) {
+                throw new IOException("Erreur lors de l'écriture du fichier colonnaire : " + e.getMessage(), e);
+            }
+        }
+
+        private void start(RowSchema batchSchema) throws IOException {
+            schema = batchSchema;
+            List<int[]> leafPaths = new ArrayList<>();
+            List<ColumnBuffer> leafBuffers = new ArrayList<>();
+            collectLeaves(schema, new int[0], leafPaths, leafBuffers);
+            paths = leafPaths.toArray(new int[0][]);
+            buffers = leafBuffers.toArray(new ColumnBuffer[0]);
+
+            out = new DataOutputStream(new BufferedOutputStream(
+                    OutputFiles.newOutputStream(path, compression), BUFFER_SIZE));
+            out.write(ColumnarFormat.MAGIC);
+            out.writeByte(ColumnarFormat.VERSION);
+            writeSchema(schema);
+        }
+
+        private void collectLeaves(RowSchema fields, int[] parent, List<int[]> leafPaths, List<ColumnBuffer> leafBuffers) {
+            for (int i = 0; i < fields.size(); i++) {
+                int[] path = Arrays.copyOf(parent, parent.length + 1);
+                path[parent.length] = i;
+                RowSchema.Field field = fields.field(i);
+                if (field.getType() == ColumnType.STRUCT) {
+                    collectLeaves(field.getChildren(), path, leafPaths, leafBuffers);
+                } else {
+                    leafPaths.add(path);
+                    leafBuffers.add(new ColumnBuffer(field.getType(), dictionaryPolicy(field.getAttribute()), rowGroupSize));
+                }
+            }
+        }
+
+        private void writeSchema(RowSchema fields) throws IOException {
+            writeVarLong(out, fields.size());
+            for (int i = 0; i < fields.size(); i++) {
+                RowSchema.Field field = fields.field(i);
+                Attribute attribute = field.getAttribute();
+                writeString(out, field.getName());
+                writeString(out, field.getType().name());
+                writeString(out, attribute != null && attribute.getType() != null ? attribute.getType().name() : "");
+                if (field.getType() == ColumnType.STRUCT) {
+                    writeSchema(field.getChildren());
+                }
+            }
+        }
+
+        private static RowBatch.Column leaf(RowBatch batch, int[] path) {
+            RowBatch current = batch;
+            for (int depth = 0; depth < path.length - 1; depth++) {
+                current = current.column(path[depth]).getStruct();
+            }
+            return current.column(path[path.length - 1]);
+        }
+
+        private void writeRowGroup() throws IOException {
+            writeVarLong(out, buffered);
+            for (ColumnBuffer buffer : buffers) {
+                chunk.reset();
+                Encoding encoding = buffer.encode(chunkOut);
+                out.writeByte(encoding.ordinal());
+                writeVarLong(out, chunk.size());
+                chunk.writeTo(out);
+                buffer.clear();
+            }
+            buffered = 0;
+        }
+    }
+
+    /**
+     * Usage du dictionnaire pour une colonne texte.
+     */
+    private enum DictionaryPolicy {
+        ALWAYS,
+        TRIAL,
+        NEVER
+    }
+
+    /**
+     * Déduit l'usage du dictionnaire de l'attribut d'origine : valeurs possibles et
+     * vocabulaires sont de faible cardinalité, les autres types textuels rarement.
+     */
+    private static DictionaryPolicy dictionaryPolicy(Attribute attribute) {
+        if (attribute == null || attribute.getType() == null) {
+            return DictionaryPolicy.TRIAL;
+        }
+        Constraints constraints = attribute.getConstraints();
+        if (constraints != null && constraints.getPossibleValues() != null && !constraints.getPossibleValues().isEmpty()) {
+            return DictionaryPolicy.ALWAYS;
+        }
+        switch (attribute.getType()) {
+            case ENUM:
+            case FIRST_NAME:
+            case LAST_NAME:
+            case CITY:
+            case COUNTRY:
+            case PROFESSION:
+            case COMPANY_NAME:
+            case PRODUCT_NAME:
+            case CURRENCY:
+                return DictionaryPolicy.ALWAYS;
+            default:
+                return DictionaryPolicy.NEVER;
+        }
+    }
+
+    /**
+     * Valeurs d'une colonne feuille pour le groupe de lignes en cours.
+     * Les entiers et les dates sont conservés en long, les colonnes OBJECT en texte.
+     */
+    private static final class ColumnBuffer {
+        private final ColumnType type;
+        private final DictionaryPolicy policy;
+        private final int maxCapacity;
+        private long[] longs;
+        private double[] doubles;
+        private boolean[] booleans;
+        private String[] strings;
+        private int[] indices;
+        private int size;
+
+        ColumnBuffer(ColumnType type, DictionaryPolicy policy, int maxCapacity) {
+            this.type = type;
+            this.policy = policy;
+            this.maxCapacity = maxCapacity;
+        }
+
+        void append(RowBatch.Column column, int from, int count) {
+            ensureCapacity(size + count);
+            switch (type) {
+                case INT:
+                    for (int i = 0; i < count; i++) {
+                        longs[size + i] = column.getInt(from + i);
+                    }
+                    break;
+                case DOUBLE:
+                    for (int i = 0; i < count; i++) {
+                        doubles[size + i] = column.getDouble(from + i);
+                    }
+                    break;
+                case BOOLEAN:
+                    for (int i = 0; i < count; i++) {
+                        booleans[size + i] = column.getBoolean(from + i);
+                    }
+                    break;
+                case STRING:
+                case OBJECT:
+                    for (int i = 0; i < count; i++) {
+                        Object value = column.getObject(from + i);
+                        strings[size + i] = value != null ? value.toString() : null;
+                    }
+                    break;
+                default:
+                    // LONG, DATE, DATETIME, TIME
+                    for (int i = 0; i < count; i++) {
+                        longs[size + i] = column.getLong(from + i);
+                    }
+            }
+            size += count;
+        }
+
+        void clear() {
+            if (strings != null) {
+                Arrays.fill(strings, 0, size, null);
+            }
+            size = 0;
+        }
+
+        private void ensureCapacity(int needed) {
+            int capacity = capacity();
+            if (needed <= capacity) {
+                return;
+            }
+            int grown = Math.max(needed, Math.min(Math.max(capacity * 2, RowBatch.DEFAULT_CAPACITY), maxCapacity));
+            switch (type) {
+                case DOUBLE:
+                    doubles = doubles == null ? new double[grown] : Arrays.copyOf(doubles, grown);
+                    break;
+                case BOOLEAN:
+                    booleans = booleans == null ? new boolean[grown] : Arrays.copyOf(booleans, grown);
+                    break;
+                case STRING:
+                case OBJECT:
+                    strings = strings == null ? new String[grown] : Arrays.copyOf(strings, grown);
+                    break;
+                default:
+                    longs = longs == null ? new long[grown] : Arrays.copyOf(longs, grown);
+            }
+        }
+
+        private int capacity() {
+            switch (type) {
+                case DOUBLE:
+                    return doubles == null ? 0 : doubles.length;
+                case BOOLEAN:
+                    return booleans == null ? 0 : booleans.length;
+                case STRING:
+                case OBJECT:
+                    return strings == null ? 0 : strings.length;
+                default:
+                    return longs == null ? 0 : longs.length;
+            }
+        }
+
+        /**
+         * Écrit le bloc : nulls, statistiques puis valeurs non nulles.
+         * @return L'encodage retenu pour les valeurs
+         */
+        Encoding encode(DataOutputStream out) throws IOException {
+            switch (type) {
+                case DOUBLE:
+                    writeVarLong(out, 0);
+                    return encodeDoubles(out);
+                case BOOLEAN:
+                    writeVarLong(out, 0);
+                    return encodeBooleans(out);
+                case STRING:
+                case OBJECT:
+                    return encodeStrings(out);
+                default:
+                    writeVarLong(out, 0);
+                    return encodeLongs(out);
+            }
+        }
+
+        private Encoding encodeLongs(DataOutputStream out) throws IOException {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long plainSize = 0;
+            long rleSize = 0;
+            int runStart = 0;
+            for (int i = 0; i < size; i++) {
+                long value = longs[i];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                int zigzag = varLongSize((value << 1) ^ (value >> 63));
+                plainSize += zigzag;
+                if (i == 0 || value != longs[i - 1]) {
+                    if (i > 0) {
+                        rleSize += varLongSize(i - runStart);
+                    }
+                    rleSize += zigzag;
+                    runStart = i;
+                }
+            }
+            rleSize += varLongSize(size - runStart);
+
+            out.writeBoolean(true);
+            writeSignedVarLong(out, min);
+            writeSignedVarLong(out, max);
+            if (rleSize < plainSize) {
+                for (int start = 0; start < size; ) {
+                    int end = start + 1;
+                    while (end < size && longs[end] == longs[start]) {
+                        end++;
+                    }
+                    writeVarLong(out, end - start);
+                    writeSignedVarLong(out, longs[start]);
+                    start = end;
+                }
+                return Encoding.RLE;
+            }
+            for (int i = 0; i < size; i++) {
+                writeSignedVarLong(out, longs[i]);
+            }
+            return Encoding.PLAIN;
+        }
+
+        private Encoding encodeDoubles(DataOutputStream out) throws IOException {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            boolean hasStats = false;
+            long rleSize = 0;
+            int runStart = 0;
+            for (int i = 0; i < size; i++) {
+                double value = doubles[i];
+                if (!Double.isNaN(value)) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    hasStats = true;
+                }
+                if (i > 0 && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(doubles[i - 1])) {
+                    rleSize += varLongSize(i - runStart) + Double.BYTES;
+                    runStart = i;
+                }
+            }
+            rleSize += varLongSize(size - runStart) + Double.BYTES;
+
+            out.writeBoolean(hasStats);
+            if (hasStats) {
+                out.writeDouble(min);
+                out.writeDouble(max);
+            }
+            if (rleSize < (long) size * Double.BYTES) {
+                for (int start = 0; start < size; ) {
+                    long bits = Double.doubleToRawLongBits(doubles[start]);
+                    int end = start + 1;
+                    while (end < size && Double.doubleToRawLongBits(doubles[end]) == bits) {
+                        end++;
+                    }
+                    writeVarLong(out, end - start);
+                    out.writeDouble(doubles[start]);
+                    start = end;
+                }
+                return Encoding.RLE;
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeDouble(doubles[i]);
+            }
+            return Encoding.PLAIN;
+        }
+
+        private Encoding encodeBooleans(DataOutputStream out) throws IOException {
+            int trues = 0;
+            long rleSize = 1;
+            int runStart = 0;
+            for (int i = 0; i < size; i++) {
+                if (booleans[i]) {
+                    trues++;
+                }
+                if (i > 0 && booleans[i] != booleans[i - 1]) {
+                    rleSize += varLongSize(i - runStart);
+                    runStart = i;
+                }
+            }
+            rleSize += varLongSize(size - runStart);
+
+            out.writeBoolean(true);
+            out.writeBoolean(trues == size);
+            out.writeBoolean(trues > 0);
+            if (rleSize < (size + 7) / 8) {
+                // Première valeur, puis longueurs des plages : les valeurs alternent
+                out.writeBoolean(booleans[0]);
+                for (int start = 0; start < size; ) {
+                    int end = start + 1;
+                    while (end < size && booleans[end] == booleans[start]) {
+                        end++;
+                    }
+                    writeVarLong(out, end - start);
+                    start = end;
+                }
+                return Encoding.RLE;
+            }
+            ColumnarFormat.writeBits(out, booleans, size);
+            return Encoding.BIT_PACKED;
+        }
+
+        private Encoding encodeStrings(DataOutputStream out) throws IOException {
+            int nullCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (strings[i] == null) {
+                    nullCount++;
+                }
+            }
+            writeVarLong(out, nullCount);
+            if (nullCount > 0) {
+                boolean[] nulls = new boolean[size];
+                for (int i = 0; i < size; i++) {
+                    nulls[i] = strings[i] == null;
+                }
+                ColumnarFormat.writeBits(out, nulls, size);
+            }
+            int present = size - nullCount;
+            if (present == 0) {
+                out.writeBoolean(false);
+                return Encoding.PLAIN;
+            }
+
+            Map<String, Integer> dictionary = policy != DictionaryPolicy.NEVER ? buildDictionary(present) : null;
+            if (dictionary != null) {
+                writeStringStats(out, dictionary.keySet());
+                writeVarLong(out, dictionary.size());
+                for (String value : dictionary.keySet()) {
+                    writeString(out, value);
+                }
+                writeIndices(out, present, dictionary.size());
+                return Encoding.DICTIONARY;
+            }
+            writeStringStats(out, Arrays.asList(strings).subList(0, size));
+            for (int i = 0; i < size; i++) {
+                if (strings[i] != null) {
+                    writeString(out, strings[i]);
+                }
+            }
+            return Encoding.PLAIN;
+        }
+
+        /**
+         * Construit le dictionnaire des valeurs non nulles et leurs indices, dans l'ordre
+         * d'apparition, ou retourne {@code null} si la colonne s'avère trop variée.
+         */
+        private Map<String, Integer> buildDictionary(int present) {
+            int limit = policy == DictionaryPolicy.ALWAYS ? Integer.MAX_VALUE : Math.max(1, present / 4);
+            if (indices == null || indices.length < present) {
+                indices = new int[Math.max(present, capacity())];
+            }
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                String value = strings[i];
+                if (value == null) {
+                    continue;
+                }
+                Integer index = dictionary.get(value);
+                if (index == null) {
+                    if (dictionary.size() == limit) {
+                        return null;
+                    }
+                    index = dictionary.size();
+                    dictionary.put(value, index);
+                }
+                indices[count++] = index;
+            }
+            return dictionary;
+        }
+
+        private void writeIndices(DataOutputStream out, int count, int dictionarySize) throws IOException {
+            int bitWidth = ColumnarFormat.bitWidth(dictionarySize);
+            long packedSize = 1 + ((long) count * bitWidth + 7) / 8;
+            long rleSize = 0;
+            int runStart = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i == count || indices[i] != indices[i - 1]) {
+                    rleSize += varLongSize(i - runStart) + varLongSize(indices[runStart]);
+                    runStart = i;
+                }
+            }
+            if (rleSize < packedSize) {
+                out.writeByte(Encoding.RLE.ordinal());
+                for (int start = 0; start < count; ) {
+                    int end = start + 1;
+                    while (end < count && indices[end] == indices[start]) {
+                        end++;
+                    }
+                    writeVarLong(out, end - start);
+                    writeVarLong(out, indices[start]);
+                    start = end;
+                }
+            } else {
+                out.writeByte(Encoding.BIT_PACKED.ordinal());
+                out.writeByte(bitWidth);
+                ColumnarFormat.writePacked(out, indices, count, bitWidth);
+            }
+        }
+
+        private static void writeStringStats(DataOutputStream out, Iterable<String> values) throws IOException {
+            String min = null;
+            String max = null;
+            for (String value : values) {
+                if (value == null) {
+                    continue;
+                }
+                if (min == null || value.compareTo(min) < 0) {
+                    min = value;
+                }
+                if (max == null || value.compareTo(max) > 0) {
+                    max = value;
+                }
+            }
+            out.writeBoolean(true);
+            writeString(out, min);
+            writeString(out, max);
+        }
+    }
+}
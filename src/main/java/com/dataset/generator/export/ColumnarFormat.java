@@ -0,0 +1,161 @@
+package main.java.com.dataset.generator.export;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constantes et primitives d'encodage du format colonnaire, partagées par
+ * {@link ColumnarExporter} et {@link ColumnarReader}.
+ * <p>
+ * Disposition du fichier :
+ * <pre>
+ * "DSGC" version
+ * schéma     : nombre de champs, puis par champ nom, type de colonne, DataType ("" si inconnu)
+ *              et, pour une structure, son propre schéma
+ * groupes    : nombre de lignes (&gt; 0), puis un bloc par colonne feuille (structures aplaties)
+ * fin        : 0
+ * bloc       : encodage, longueur, nombre de nulls, masque des nulls, statistiques, valeurs
+ * </pre>
+ * Les entiers sont écrits en varint (LEB128), les entiers signés après un zigzag.
+ */
+final class ColumnarFormat {
+    static final byte[] MAGIC = {'D', 'S', 'G', 'C'};
+    static final int VERSION = 1;
+
+    private ColumnarFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Fichier colonnaire corrompu : entier trop long");
+    }
+
+    static long readSignedVarLong(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Lit un entier positif destiné à dimensionner un tableau.
+     */
+    static int readCount(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Fichier colonnaire corrompu : taille invalide " + value);
+        }
+        return (int) value;
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readCount(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Écrit des booléens à raison de huit par octet, bit de poids faible en premier.
+     */
+    static void writeBits(DataOutput out, boolean[] bits, int count) throws IOException {
+        int current = 0;
+        for (int i = 0; i < count; i++) {
+            if (bits[i]) {
+                current |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7) {
+                out.writeByte(current);
+                current = 0;
+            }
+        }
+        if ((count & 7) != 0) {
+            out.writeByte(current);
+        }
+    }
+
+    static void readBits(DataInput in, boolean[] bits, int count) throws IOException {
+        int current = 0;
+        for (int i = 0; i < count; i++) {
+            if ((i & 7) == 0) {
+                current = in.readUnsignedByte();
+            }
+            bits[i] = (current & (1 << (i & 7))) != 0;
+        }
+    }
+
+    /**
+     * Écrit des entiers positifs sur {@code bitWidth} bits chacun, bit de poids faible en premier.
+     */
+    static void writePacked(DataOutput out, int[] values, int count, int bitWidth) throws IOException {
+        long buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            buffer |= (long) values[i] << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                out.writeByte((int) buffer);
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.writeByte((int) buffer);
+        }
+    }
+
+    static void readPacked(DataInput in, int[] values, int count, int bitWidth) throws IOException {
+        long mask = (1L << bitWidth) - 1;
+        long buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            while (bits < bitWidth) {
+                buffer |= (long) in.readUnsignedByte() << bits;
+                bits += 8;
+            }
+            values[i] = (int) (buffer & mask);
+            buffer >>>= bitWidth;
+            bits -= bitWidth;
+        }
+    }
+
+    /**
+     * Nombre de bits nécessaires pour représenter les indices {@code 0..size - 1}.
+     */
+    static int bitWidth(int size) {
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
@@ -0,0 +1,412 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.batch.Temporals;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.DataType;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static main.java.com.dataset.generator.export.ColumnarFormat.readCount;
+import static main.java.com.dataset.generator.export.ColumnarFormat.readSignedVarLong;
+import static main.java.com.dataset.generator.export.ColumnarFormat.readString;
+
+/**
+ * Lecteur des fichiers écrits par {@link ColumnarExporter}, compressés en gzip ou non.
+ * <p>
+ * Le fichier est lu groupe de lignes par groupe de lignes ; chaque groupe est restitué sous
+ * forme d'un {@link RowBatch} accompagné des statistiques de ses colonnes. Les champs du
+ * schéma portent un attribut avec le {@link DataType} d'origine quand il était connu.
+ * Une instance n'est pas partagée entre threads.
+ */
+public class ColumnarReader implements Closeable {
+    private static final ColumnarExporter.Encoding[] ENCODINGS = ColumnarExporter.Encoding.values();
+
+    private final DataInputStream in;
+    private final RowSchema schema;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<int[]> paths = new ArrayList<>();
+    private boolean finished;
+
+    /**
+     * Ouvre un fichier et lit son schéma.
+     * @param path Le chemin du fichier
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas un fichier colonnaire
+     */
+    public ColumnarReader(String path) throws IOException {
+        InputStream file = new BufferedInputStream(Files.newInputStream(Paths.get(path)), 1 << 16);
+        try {
+            file.mark(2);
+            boolean gzip = file.read() == 0x1f && file.read() == 0x8b;
+            file.reset();
+            in = new DataInputStream(gzip ? new BufferedInputStream(new GZIPInputStream(file), 1 << 16) : file);
+
+            byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException("Fichier colonnaire invalide : signature absente");
+            }
+            int version = in.readUnsignedByte();
+            if (version != ColumnarFormat.VERSION) {
+                throw new IOException("Version de fichier colonnaire non prise en charge : " + version);
+            }
+            schema = readSchema("", new int[0]);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retourne le schéma du fichier.
+     * @return Le schéma
+     */
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Lit le groupe de lignes suivant.
+     * @return Le groupe, ou {@code null} à la fin du fichier
+     * @throws IOException Si le fichier ne peut pas être lu ou est corrompu
+     */
+    public RowGroup nextRowGroup() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rowCount = readCount(in);
+        if (rowCount == 0) {
+            finished = true;
+            return null;
+        }
+        RowBatch batch = new RowBatch(schema, rowCount);
+        batch.setSize(rowCount);
+        Map<String, ColumnStatistics> statistics = new LinkedHashMap<>();
+        for (int c = 0; c < paths.size(); c++) {
+            int code = in.readUnsignedByte();
+            if (code >= ENCODINGS.length) {
+                throw new IOException("Fichier colonnaire corrompu : encodage inconnu " + code);
+            }
+            byte[] chunk = new byte[readCount(in)];
+            in.readFully(chunk);
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(chunk));
+            statistics.put(columnNames.get(c), readChunk(data, ENCODINGS[code], leaf(batch, paths.get(c)), rowCount));
+        }
+        return new RowGroup(batch, statistics);
+    }
+
+    /**
+     * Lit toutes les lignes restantes.
+     * @return Les lignes, sous forme de maps
+     * @throws IOException Si le fichier ne peut pas être lu ou est corrompu
+     */
+    public List<Map<String, Object>> readAll() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (RowGroup group = nextRowGroup(); group != null; group = nextRowGroup()) {
+            rows.addAll(group.getBatch().toRows());
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private RowSchema readSchema(String prefix, int[] parent) throws IOException {
+        int count = readCount(in);
+        List<RowSchema.Field> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            ColumnType type = valueOf(ColumnType.class, readString(in));
+            String dataType = readString(in);
+            int[] path = Arrays.copyOf(parent, parent.length + 1);
+            path[parent.length] = i;
+            if (type == ColumnType.STRUCT) {
+                fields.add(new RowSchema.Field(name, readSchema(prefix + name + ".", path)));
+            } else {
+                Attribute attribute = dataType.isEmpty() ? null : new Attribute(name, valueOf(DataType.class, dataType));
+                fields.add(new RowSchema.Field(name, type, attribute));
+                columnNames.add(prefix + name);
+                paths.add(path);
+            }
+        }
+        return new RowSchema(fields);
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) throws IOException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Fichier colonnaire corrompu : valeur inconnue " + name, e);
+        }
+    }
+
+    private static RowBatch.Column leaf(RowBatch batch, int[] path) {
+        RowBatch current = batch;
+        for (int depth = 0; depth < path.length - 1; depth++) {
+            current = current.column(path[depth]).getStruct();
+        }
+        return current.column(path[path.length - 1]);
+    }
+
+    private static ColumnStatistics readChunk(DataInputStream in, ColumnarExporter.Encoding encoding,
+                                              RowBatch.Column column, int rowCount) throws IOException {
+        ColumnType type = column.getType();
+        int nullCount = readCount(in);
+        boolean[] nulls = null;
+        if (nullCount > 0) {
+            nulls = new boolean[rowCount];
+            ColumnarFormat.readBits(in, nulls, rowCount);
+        }
+        Object min = null;
+        Object max = null;
+        if (in.readBoolean()) {
+            min = readStatistic(in, type);
+            max = readStatistic(in, type);
+        }
+
+        switch (type) {
+            case INT:
+            case LONG:
+            case DATE:
+            case DATETIME:
+            case TIME:
+                readLongs(in, encoding, column, rowCount);
+                break;
+            case DOUBLE:
+                readDoubles(in, encoding, column, rowCount);
+                break;
+            case BOOLEAN:
+                readBooleans(in, encoding, column, rowCount);
+                break;
+            default:
+                readStrings(in, encoding, column, rowCount, nulls);
+        }
+        return new ColumnStatistics(encoding, nullCount, min, max);
+    }
+
+    private static Object readStatistic(DataInputStream in, ColumnType type) throws IOException {
+        switch (type) {
+            case INT:
+                return (int) readSignedVarLong(in);
+            case LONG:
+                return readSignedVarLong(in);
+            case DATE:
+                return Temporals.toLocalDate(readSignedVarLong(in));
+            case DATETIME:
+                return Temporals.toLocalDateTime(readSignedVarLong(in));
+            case TIME:
+                return Temporals.toLocalTime(readSignedVarLong(in));
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            default:
+                return readString(in);
+        }
+    }
+
+    private static void readLongs(DataInputStream in, ColumnarExporter.Encoding encoding,
+                                  RowBatch.Column column, int rowCount) throws IOException {
+        boolean ints = column.getType() == ColumnType.INT;
+        int row = 0;
+        while (row < rowCount) {
+            int run = encoding == ColumnarExporter.Encoding.RLE ? runLength(in, row, rowCount) : 1;
+            long value = readSignedVarLong(in);
+            for (int end = row + run; row < end; row++) {
+                if (ints) {
+                    column.setInt(row, (int) value);
+                } else {
+                    column.setLong(row, value);
+                }
+            }
+        }
+    }
+
+    private static void readDoubles(DataInputStream in, ColumnarExporter.Encoding encoding,
+                                    RowBatch.Column column, int rowCount) throws IOException {
+        int row = 0;
+        while (row < rowCount) {
+            int run = encoding == ColumnarExporter.Encoding.RLE ? runLength(in, row, rowCount) : 1;
+            double value = in.readDouble();
+            for (int end = row + run; row < end; row++) {
+                column.setDouble(row, value);
+            }
+        }
+    }
+
+    private static void readBooleans(DataInputStream in, ColumnarExporter.Encoding encoding,
+                                     RowBatch.Column column, int rowCount) throws IOException {
+        if (encoding == ColumnarExporter.Encoding.RLE) {
+            boolean value = in.readBoolean();
+            int row = 0;
+            while (row < rowCount) {
+                int run = runLength(in, row, rowCount);
+                for (int end = row + run; row < end; row++) {
+                    column.setBoolean(row, value);
+                }
+                value = !value;
+            }
+            return;
+        }
+        boolean[] values = new boolean[rowCount];
+        ColumnarFormat.readBits(in, values, rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            column.setBoolean(row, values[row]);
+        }
+    }
+
+    private static void readStrings(DataInputStream in, ColumnarExporter.Encoding encoding,
+                                    RowBatch.Column column, int rowCount, boolean[] nulls) throws IOException {
+        int present = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (nulls == null || !nulls[row]) {
+                present++;
+            }
+        }
+        String[] values = new String[present];
+        if (encoding == ColumnarExporter.Encoding.DICTIONARY && present > 0) {
+            String[] dictionary = new String[readCount(in)];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(in);
+            }
+            int[] indices = readIndices(in, present);
+            for (int i = 0; i < present; i++) {
+                if (indices[i] >= dictionary.length) {
+                    throw new IOException("Fichier colonnaire corrompu : indice de dictionnaire " + indices[i]);
+                }
+                values[i] = dictionary[indices[i]];
+            }
+        } else {
+            for (int i = 0; i < present; i++) {
+                values[i] = readString(in);
+            }
+        }
+        int next = 0;
+        for (int row = 0; row < rowCount; row++) {
+            column.setObject(row, nulls != null && nulls[row] ? null : values[next++]);
+        }
+    }
+
+    private static int[] readIndices(DataInputStream in, int count) throws IOException {
+        int[] indices = new int[count];
+        int code = in.readUnsignedByte();
+        if (code == ColumnarExporter.Encoding.RLE.ordinal()) {
+            int position = 0;
+            while (position < count) {
+                int run = runLength(in, position, count);
+                int index = readCount(in);
+                Arrays.fill(indices, position, position + run, index);
+                position += run;
+            }
+        } else if (code == ColumnarExporter.Encoding.BIT_PACKED.ordinal()) {
+            int bitWidth = in.readUnsignedByte();
+            if (bitWidth > 31) {
+                throw new IOException("Fichier colonnaire corrompu : largeur de " + bitWidth + " bits");
+            }
+            ColumnarFormat.readPacked(in, indices, count, bitWidth);
+        } else {
+            throw new IOException("Fichier colonnaire corrompu : encodage d'indices inconnu " + code);
+        }
+        return indices;
+    }
+
+    private static int runLength(DataInputStream in, int position, int count) throws IOException {
+        int run = readCount(in);
+        if (run == 0 || run > count - position) {
+            throw new IOException("Fichier colonnaire corrompu : plage de " + run + " valeurs");
+        }
+        return run;
+    }
+
+    /**
+     * Groupe de lignes lu : ses valeurs et les statistiques de ses colonnes.
+     */
+    public static final class RowGroup {
+        private final RowBatch batch;
+        private final Map<String, ColumnStatistics> statistics;
+
+        RowGroup(RowBatch batch, Map<String, ColumnStatistics> statistics) {
+            this.batch = batch;
+            this.statistics = Collections.unmodifiableMap(statistics);
+        }
+
+        public RowBatch getBatch() {
+            return batch;
+        }
+
+        public int getRowCount() {
+            return batch.size();
+        }
+
+        /**
+         * Retourne les statistiques des colonnes feuilles, dans l'ordre du schéma ; les colonnes
+         * des sous-entités sont nommées {@code parent.enfant}.
+         * @return Les statistiques par nom de colonne
+         */
+        public Map<String, ColumnStatistics> getStatistics() {
+            return statistics;
+        }
+
+        public ColumnStatistics getStatistics(String column) {
+            return statistics.get(column);
+        }
+    }
+
+    /**
+     * Statistiques d'une colonne dans un groupe de lignes. Les bornes sont des valeurs boxées
+     * comme dans la représentation en map (texte pour les colonnes OBJECT) ; elles sont nulles
+     * si la colonne ne contient aucune valeur comparable.
+     */
+    public static final class ColumnStatistics {
+        private final ColumnarExporter.Encoding encoding;
+        private final int nullCount;
+        private final Object min;
+        private final Object max;
+
+        ColumnStatistics(ColumnarExporter.Encoding encoding, int nullCount, Object min, Object max) {
+            this.encoding = encoding;
+            this.nullCount = nullCount;
+            this.min = min;
+            this.max = max;
+        }
+
+        public ColumnarExporter.Encoding getEncoding() {
+            return encoding;
+        }
+
+        public int getNullCount() {
+            return nullCount;
+        }
+
+        public Object getMin() {
+            return min;
+        }
+
+        public Object getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return encoding + " [" + min + ", " + max + "]" + (nullCount > 0 ? " nulls=" + nullCount : "");
+        }
+    }
+}
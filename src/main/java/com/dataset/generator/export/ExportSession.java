@@ -0,0 +1,29 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+
+import java.io.IOException;
+
+/**
+ * Session d'export incrémental, ouverte par {@link Exporter#open(String)}.
+ * <p>
+ * Les lots sont confiés un à un à {@link #accept(RowBatch)} et écrits au fur et à mesure ;
+ * {@link #close()} termine le fichier (pied de document, vidage des tampons). La mémoire
+ * consommée ne dépend donc pas du nombre de lignes exportées. Une session n'est pas
+ * partagée entre threads.
+ */
+public interface ExportSession extends AutoCloseable {
+    /**
+     * Écrit un lot. Les lots vides sont ignorés.
+     * @param batch Le lot à écrire
+     * @throws Exception Si une erreur survient lors de l'écriture
+     */
+    void accept(RowBatch batch) throws Exception;
+
+    /**
+     * Termine le fichier et libère les ressources. Sans effet si la session est déjà fermée.
+     * @throws IOException Si une erreur survient lors de l'écriture
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -1,7 +1,14 @@
 package main.java.com.dataset.generator.export;
 
+import main.java.com.dataset.generator.batch.RowBatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Interface pour l'exportation de données dans différents formats.
@@ -15,4 +22,70 @@ public interface Exporter {
      * @throws Exception Si une erreur survient lors de l'export
      */
     void export(List<Map<String, Object>> data, String path) throws Exception;
+
+    /**
+     * Ouvre une session d'export incrémental vers un fichier.
+     * L'implémentation par défaut accumule les lignes et les confie à
+     * {@link #export(List, String)} à la fermeture ; les exportateurs la redéfinissent
+     * pour écrire chaque lot dès sa réception, à mémoire constante.
+     *
+     * @param path Le chemin du fichier de sortie
+     * @return La session, à fermer une fois tous les lots écrits
+     * @throws Exception Si le fichier ne peut pas être ouvert
+     */
+    default ExportSession open(String path) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        return new ExportSession() {
+            private boolean closed;
+
+            @Override
+            public void accept(RowBatch batch) {
+                rows.addAll(batch.toRows());
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    try {
+                        export(rows, path);
+                    } catch (IOException | RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IOException("Erreur lors de l'export : " + e.getMessage(), e);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Exporte un flux de lignes vers un fichier, regroupées en lots au fil de l'eau.
+     *
+     * @param rows Le flux de lignes à exporter
+     * @param path Le chemin du fichier de sortie
+     * @throws Exception Si une erreur survient lors de l'export
+     */
+    default void exportStream(Stream<Map<String, Object>> rows, String path) throws Exception {
+        Objects.requireNonNull(rows, "Les données ne peuvent pas être nulles");
+        exportBatches(RowBatch.chunk(rows, RowBatch.DEFAULT_CAPACITY), path);
+    }
+
+    /**
+     * Exporte un flux de lots colonnes vers un fichier, au travers d'une session
+     * ouverte par {@link #open(String)}.
+     *
+     * @param batches Le flux de lots à exporter
+     * @param path Le chemin du fichier de sortie
+     * @throws Exception Si une erreur survient lors de l'export
+     */
+    default void exportBatches(Stream<RowBatch> batches, String path) throws Exception {
+        Objects.requireNonNull(batches, "Les données ne peuvent pas être nulles");
+        try (ExportSession session = open(path)) {
+            Iterator<RowBatch> iterator = batches.iterator();
+            while (iterator.hasNext()) {
+                session.accept(iterator.next());
+            }
+        }
+    }
 }
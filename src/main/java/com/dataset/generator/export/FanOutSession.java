@@ -0,0 +1,234 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Session qui transmet chaque lot à plusieurs sessions d'export, chacune écrite sur son
+ * propre thread.
+ * <p>
+ * Chaque session reçoit les lots par une file bornée : un format plus lent que les autres
+ * ralentit le producteur au lieu d'accumuler des lots en mémoire. Les lots sont partagés,
+ * sans copie, entre toutes les sessions ; ils ne doivent donc plus être modifiés après
+ * {@link #accept(RowBatch)}, ce que respectent les lots produits par un générateur.
+ * <p>
+ * Dès qu'une session échoue, {@link #accept(RowBatch)} lève son erreur ; les autres sessions
+ * sont tout de même terminées par {@link #close()}.
+ */
+public class FanOutSession implements ExportSession {
+    /** Nombre de lots en attente par session utilisé par défaut. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private static final RowBatch END = new RowBatch(new RowSchema(Collections.emptyList()), 0);
+
+    private final List<Sink> sinks;
+    private final ExecutorService executor;
+    private final List<Future<?>> workers;
+    private Exception reported;
+    private boolean closed;
+
+    /**
+     * Constructeur à partir de sessions déjà ouvertes, fermées par celle-ci.
+     * @param sessions Les sessions destinataires
+     * @param queueCapacity Le nombre maximal de lots en attente par session
+     */
+    public FanOutSession(List<? extends ExportSession> sessions, int queueCapacity) {
+        Objects.requireNonNull(sessions, "Les sessions ne peuvent pas être nulles");
+        if (sessions.isEmpty()) {
+            throw new IllegalArgumentException("Aucune session d'export n'a été fournie");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("La capacité des files doit être supérieure à 0");
+        }
+        this.sinks = new ArrayList<>(sessions.size());
+        for (ExportSession session : sessions) {
+            sinks.add(new Sink(Objects.requireNonNull(session, "La session ne peut pas être nulle"), queueCapacity));
+        }
+        this.executor = Executors.newFixedThreadPool(sinks.size());
+        this.workers = new ArrayList<>(sinks.size());
+        for (Sink sink : sinks) {
+            workers.add(executor.submit(sink::run));
+        }
+    }
+
+    /**
+     * Ouvre une session par exportateur, puis les regroupe.
+     * @param targets Les exportateurs, par chemin du fichier de sortie
+     * @param queueCapacity Le nombre maximal de lots en attente par session
+     * @return La session regroupant toutes les autres
+     * @throws Exception Si un fichier ne peut pas être ouvert ; les sessions déjà ouvertes sont fermées
+     */
+    public static FanOutSession open(Map<String, ? extends Exporter> targets, int queueCapacity) throws Exception {
+        Objects.requireNonNull(targets, "Les exportateurs ne peuvent pas être nuls");
+        List<ExportSession> sessions = new ArrayList<>(targets.size());
+        try {
+            for (Map.Entry<String, ? extends Exporter> target : targets.entrySet()) {
+                if (target.getKey() == null || target.getKey().trim().isEmpty()) {
+                    throw new IllegalArgumentException("Le chemin de destination ne peut pas être vide");
+                }
+                Exporter exporter = Objects.requireNonNull(target.getValue(), "L'exportateur ne peut pas être nul");
+                sessions.add(exporter.open(target.getKey()));
+            }
+            return new FanOutSession(sessions, queueCapacity);
+        } catch (Exception | Error e) {
+            for (ExportSession session : sessions) {
+                try {
+                    session.close();
+                } catch (Exception suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void accept(RowBatch batch) throws Exception {
+        if (closed) {
+            throw new IllegalStateException("La session d'export est fermée");
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+        for (Sink sink : sinks) {
+            Exception failure = sink.failure;
+            if (failure != null) {
+                reported = failure;
+                throw failure;
+            }
+            put(sink, batch);
+        }
+    }
+
+    /**
+     * Signale la fin des lots, attend que chaque session ait terminé son fichier et lève la
+     * première erreur rencontrée, les suivantes y étant attachées.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (Sink sink : sinks) {
+                put(sink, END);
+            }
+            for (Future<?> worker : workers) {
+                await(worker);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Exception first = null;
+        for (Sink sink : sinks) {
+            Exception failure = sink.failure;
+            // Une erreur déjà levée par accept n'est pas levée une seconde fois
+            if (failure == null || failure == reported) {
+                continue;
+            }
+            if (first == null) {
+                first = failure;
+            } else {
+                first.addSuppressed(failure);
+            }
+        }
+        if (first instanceof IOException) {
+            throw (IOException) first;
+        }
+        if (first instanceof RuntimeException) {
+            throw (RuntimeException) first;
+        }
+        if (first != null) {
+            throw new IOException("Erreur lors de l'export : " + first.getMessage(), first);
+        }
+    }
+
+    private static void put(Sink sink, RowBatch batch) {
+        try {
+            sink.queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrompu", e);
+        }
+    }
+
+    private static void await(Future<?> worker) {
+        try {
+            worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrompu", e);
+        } catch (ExecutionException e) {
+            // Les erreurs des sessions sont conservées par leur Sink
+            Throwable cause = e.getCause();
+            throw new IllegalStateException("Erreur lors de l'export : " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Une session destinataire, sa file et son éventuelle erreur.
+     */
+    private static final class Sink {
+        private final ExportSession session;
+        private final BlockingQueue<RowBatch> queue;
+        private volatile Exception failure;
+
+        Sink(ExportSession session, int queueCapacity) {
+            this.session = session;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        /**
+         * Écrit les lots jusqu'au marqueur de fin puis ferme la session. Après une erreur, y
+         * compris une {@link Error}, les lots restants sont ignorés afin que le producteur ne
+         * reste pas bloqué sur une file pleine.
+         */
+        void run() {
+            try {
+                for (RowBatch batch = queue.take(); batch != END; batch = queue.take()) {
+                    if (failure == null) {
+                        try {
+                            session.accept(batch);
+                        } catch (Throwable e) {
+                            failure = wrap(e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Export interrompu", e);
+            }
+            try {
+                session.close();
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = wrap(e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        private static Exception wrap(Throwable e) {
+            if (e instanceof Exception) {
+                return (Exception) e;
+            }
+            return new IllegalStateException("Erreur lors de l'export : " + e, e);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.generator.RandomDataGenerator;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+import main.java.com.dataset.generator.model.Entity;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Exportateur vers des enregistrements à largeur fixe, un par ligne.
+ * <p>
+ * La largeur de chaque colonne (sous-entités aplaties) est déduite de l'attribut d'origine
+ * (voir {@link Layout}) : le schéma fixe la longueur des enregistrements. Le texte est
+ * aligné à gauche et tronqué s'il dépasse sa colonne ; les nombres, booléens, dates et heures
+ * sont alignés à droite et une valeur trop longue est refusée. Les caractères sont écrits en
+ * ISO-8859-1, un octet par caractère ({@code ?} hors de ce jeu) ; chaque enregistrement se
+ * termine par {@code \n}.
+ * <p>
+ * {@link #export(RandomDataGenerator, Entity, long, String)} connaît la taille du fichier
+ * d'avance : il le préalloue et le découpe en plages de lignes, chacune générée et écrite par
+ * son thread dans ses propres régions projetées en mémoire, sans verrou.
+ */
+public class FixedWidthExporter implements Exporter {
+    private static final int REGION_SIZE = 64 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private int parallelism = 1;
+
+    @Override
+    public void export(List<Map<String, Object>> data, String path) throws Exception {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("Les données ne peuvent pas être vides");
+        }
+        exportBatches(Stream.of(RowBatch.fromRows(data)), path);
+    }
+
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception. Le fichier est créé avec le
+     * premier lot non vide, dont le schéma fixe la disposition : sans ligne, aucun fichier
+     * n'est écrit.
+     */
+    @Override
+    public ExportSession open(String path) {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        return new FixedWidthSession(path);
+    }
+
+    /**
+     * Génère et exporte les lignes d'une entité dans un fichier préalloué, projeté en mémoire
+     * par régions : chaque thread génère une plage contiguë de lignes et l'écrit directement à
+     * sa place. Le fichier est identique à celui d'un export séquentiel des mêmes lignes.
+     * @param generator Le générateur, reproductible par plage de lignes
+     * @param entity L'entité pour laquelle générer les données
+     * @param size Le nombre de lignes
+     * @param path Le chemin du fichier de sortie
+     * @throws Exception Si une erreur survient lors de la génération ou de l'écriture
+     */
+    public void export(RandomDataGenerator generator, Entity entity, long size, String path) throws Exception {
+        Objects.requireNonNull(generator, "Le générateur de données ne peut pas être nul");
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
+        }
+
+        RowSchema schema;
+        try (Stream<RowBatch> first = generator.batches(entity, 0, 1, 1)) {
+            schema = first.iterator().next().getSchema();
+        }
+        Layout layout = layout(schema);
+        int threads = (int) Math.min(parallelism, size);
+        long rowsPerThread = (size + threads - 1) / threads;
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(Math.multiplyExact(size, (long) layout.getRecordLength()));
+            FileChannel channel = file.getChannel();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> ranges = new ArrayList<>(threads);
+                for (long from = 0; from < size; from += rowsPerThread) {
+                    long start = from;
+                    long end = Math.min(size, from + rowsPerThread);
+                    ranges.add(executor.submit(() -> {
+                        try (Stream<RowBatch> batches = generator.batches(entity, start, end, RowBatch.DEFAULT_CAPACITY)) {
+                            writeRange(channel, layout, batches.iterator(), start, end);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> range : ranges) {
+                    await(range);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        } catch (IOException e) {
+            throw new Exception("Erreur lors de l'écriture du fichier à largeur fixe : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Écrit les lignes [from, to) dans des régions projetées successives du fichier.
+     */
+    private static void writeRange(FileChannel channel, Layout layout, Iterator<RowBatch> batches,
+                                   long from, long to) throws IOException {
+        int recordLength = layout.getRecordLength();
+        long rowsPerRegion = Math.max(1, REGION_SIZE / recordLength);
+        byte[] record = new byte[recordLength];
+        StringBuilder text = new StringBuilder();
+        MappedByteBuffer region = null;
+        long regionEnd = from;
+        long row = from;
+        while (batches.hasNext()) {
+            RowBatch batch = batches.next();
+            RowBatch.Column[] columns = layout.columns(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                if (row == regionEnd) {
+                    long count = Math.min(rowsPerRegion, to - row);
+                    region = channel.map(FileChannel.MapMode.READ_WRITE, row * recordLength, count * recordLength);
+                    regionEnd = row + count;
+                }
+                layout.encode(columns, i, record, text);
+                region.put(record);
+                row++;
+            }
+        }
+        if (row != to) {
+            throw new IllegalStateException("Le générateur a produit " + (row - from) +
+                                            " lignes au lieu de " + (to - from));
+        }
+    }
+
+    private static void await(Future<?> range) throws IOException {
+        try {
+            range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrompu", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Erreur lors de l'export : " + cause.getMessage(), cause);
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Définit le nombre de threads de {@link #export(RandomDataGenerator, Entity, long, String)}.
+     * @param parallelism Le nombre de threads, strictement positif
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = ParallelExportSession.checkParallelism(parallelism);
+    }
+
+    /**
+     * Calcule la disposition des enregistrements d'un schéma.
+     * @param schema Le schéma des lots
+     * @return La disposition
+     */
+    public static Layout layout(RowSchema schema) {
+        Objects.requireNonNull(schema, "Le schéma ne peut pas être nul");
+        List<String> names = new ArrayList<>();
+        List<int[]> paths = new ArrayList<>();
+        List<RowSchema.Field> fields = new ArrayList<>();
+        collectLeaves(schema, "", new int[0], names, paths, fields);
+        return new Layout(names, paths, fields);
+    }
+
+    private static void collectLeaves(RowSchema schema, String prefix, int[] parent, List<String> names,
+                                      List<int[]> paths, List<RowSchema.Field> fields) {
+        for (int i = 0; i < schema.size(); i++) {
+            RowSchema.Field field = schema.field(i);
+            int[] path = Arrays.copyOf(parent, parent.length + 1);
+            path[parent.length] = i;
+            if (field.getType() == ColumnType.STRUCT) {
+                collectLeaves(field.getChildren(), prefix + field.getName() + ".", path, names, paths, fields);
+            } else {
+                names.add(prefix + field.getName());
+                paths.add(path);
+                fields.add(field);
+            }
+        }
+    }
+
+    /**
+     * Largeur d'une colonne : valeurs possibles, longueur maximale ou bornes des contraintes,
+     * à défaut largeur usuelle du type de données puis du type de colonne.
+     */
+    private static int widthOf(RowSchema.Field field) {
+        Attribute attribute = field.getAttribute();
+        Constraints constraints = attribute != null ? attribute.getConstraints() : null;
+        DataType dataType = attribute != null ? attribute.getType() : null;
+        switch (field.getType()) {
+            case INT:
+            case LONG:
+                Double min = constraints != null ? constraints.getMin() : null;
+                Double max = constraints != null ? constraints.getMax() : null;
+                if (min != null && max != null) {
+                    return Math.max(lengthOf(Math.floor(min)), lengthOf(Math.ceil(max)));
+                }
+                if (dataType == DataType.AGE || dataType == DataType.YEAR) {
+                    // La borne absente est celle du générateur : 0 à 100 ans, 1970 à l'année en cours
+                    int width = dataType == DataType.AGE ? 3 : 4;
+                    if (min != null) {
+                        width = Math.max(width, lengthOf(Math.floor(min)));
+                    }
+                    if (max != null) {
+                        width = Math.max(width, lengthOf(Math.ceil(max)));
+                    }
+                    return width;
+                }
+                return field.getType() == ColumnType.INT ? 11 : 20;
+            case DOUBLE:
+                return 24;  // Double.toString, notation scientifique comprise
+            case BOOLEAN:
+                return 5;
+            case DATE:
+                return 10;
+            case DATETIME:
+                return 23;
+            case TIME:
+                return 12;
+            default:
+                return textWidth(dataType, constraints);
+        }
+    }
+
+    private static int lengthOf(double bound) {
+        return Long.toString((long) bound).length();
+    }
+
+    private static int textWidth(DataType dataType, Constraints constraints) {
+        if (constraints != null) {
+            if (constraints.getPossibleValues() != null && !constraints.getPossibleValues().isEmpty()) {
+                int width = 1;
+                for (String value : constraints.getPossibleValues()) {
+                    width = Math.max(width, value != null ? value.length() : 4);
+                }
+                return width;
+            }
+            // Pour une chaîne aléatoire, min et max bornent la longueur
+            if (dataType == DataType.STRING && constraints.getPattern() == null && constraints.getMax() != null) {
+                return Math.max(1, constraints.getMax().intValue());
+            }
+            if (constraints.getLongueurMax() != null) {
+                return Math.max(1, constraints.getLongueurMax());
+            }
+            if (constraints.getPattern() != null) {
+                return 64;
+            }
+        }
+        if (dataType == null) {
+            return 255;
+        }
+        switch (dataType) {
+            case STRING:
+                return 10;
+            case UUID:
+                return 36;
+            case MAC_ADDRESS:
+                return 17;
+            case IP_ADDRESS:
+                return 15;
+            case PHONE_NUMBER:
+                return 14;
+            case POSTAL_CODE:
+                return 5;
+            case CURRENCY:
+                return 3;
+            case ENUM:
+                return 16;
+            case FIRST_NAME:
+            case LAST_NAME:
+            case COUNTRY:
+            case PASSWORD:
+                return 32;
+            case EMAIL:
+            case FULL_NAME:
+            case CITY:
+            case PROFESSION:
+            case COMPANY_NAME:
+            case PRODUCT_NAME:
+                return 64;
+            case URL:
+            case ADDRESS:
+            case TITLE:
+            case SLUG:
+                return 100;
+            case TEXT:
+                return 1000;
+            default:
+                return 255;
+        }
+    }
+
+    /**
+     * Disposition des enregistrements : nom, position et largeur de chaque colonne feuille.
+     * Les colonnes des sous-entités sont nommées {@code parent.enfant}.
+     */
+    public static final class Layout {
+        private final List<String> names;
+        private final int[][] paths;
+        private final ColumnType[] types;
+        private final int[] offsets;
+        private final int[] widths;
+        private final int recordLength;
+
+        private Layout(List<String> names, List<int[]> paths, List<RowSchema.Field> fields) {
+            this.names = Collections.unmodifiableList(new ArrayList<>(names));
+            this.paths = paths.toArray(new int[0][]);
+            this.types = new ColumnType[fields.size()];
+            this.offsets = new int[fields.size()];
+            this.widths = new int[fields.size()];
+            int offset = 0;
+            for (int i = 0; i < widths.length; i++) {
+                types[i] = fields.get(i).getType();
+                widths[i] = widthOf(fields.get(i));
+                offsets[i] = offset;
+                offset = Math.addExact(offset, widths[i]);
+            }
+            this.recordLength = Math.addExact(offset, 1);
+        }
+
+        public List<String> getColumnNames() {
+            return names;
+        }
+
+        public int getOffset(int column) {
+            return offsets[column];
+        }
+
+        public int getWidth(int column) {
+            return widths[column];
+        }
+
+        /**
+         * Retourne la longueur d'un enregistrement, saut de ligne compris.
+         * @return La longueur en octets
+         */
+        public int getRecordLength() {
+            return recordLength;
+        }
+
+        RowBatch.Column[] columns(RowBatch batch) {
+            RowBatch.Column[] columns = new RowBatch.Column[paths.length];
+            for (int c = 0; c < columns.length; c++) {
+                RowBatch current = batch;
+                int[] path = paths[c];
+                for (int depth = 0; depth < path.length - 1; depth++) {
+                    current = current.column(path[depth]).getStruct();
+                }
+                columns[c] = current.column(path[path.length - 1]);
+            }
+            return columns;
+        }
+
+        /**
+         * Encode une ligne dans {@code record}, de longueur {@link #getRecordLength()}.
+         */
+        void encode(RowBatch.Column[] columns, int row, byte[] record, StringBuilder text) {
+            for (int c = 0; c < columns.length; c++) {
+                RowBatch.Column column = columns[c];
+                int width = widths[c];
+                int offset = offsets[c];
+                text.setLength(0);
+                if (!column.isNull(row)) {
+                    column.appendText(row, text);
+                }
+                int length = text.length();
+                boolean textual = types[c] == ColumnType.STRING || types[c] == ColumnType.OBJECT;
+                if (length > width) {
+                    if (!textual) {
+                        throw new IllegalArgumentException("La valeur " + text + " dépasse la largeur de la colonne " +
+                                                           names.get(c) + " (" + width + ")");
+                    }
+                    length = width;
+                }
+                int start = textual ? offset : offset + width - length;
+                Arrays.fill(record, offset, offset + width, (byte) ' ');
+                for (int i = 0; i < length; i++) {
+                    char ch = text.charAt(i);
+                    record[start + i] = ch <= 0xFF ? (byte) ch : (byte) '?';
+                }
+            }
+            record[recordLength - 1] = '\n';
+        }
+    }
+
+    private static final class FixedWidthSession implements ExportSession {
+        private final String path;
+        private final StringBuilder text = new StringBuilder();
+        private WritableByteChannel channel;
+        private ByteBuffer buffer;
+        private RowSchema schema;
+        private Layout layout;
+        private byte[] record;
+        private boolean closed;
+
+        FixedWidthSession(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            if (batch.size() == 0) {
+                return;
+            }
+            if (schema != null && batch.getSchema() != schema && !batch.getSchema().equals(schema)) {
+                throw new IllegalArgumentException("Le schéma du lot ne correspond pas à celui du fichier : " +
+                        batch.getSchema());
+            }
+            try {
+                if (channel == null) {
+                    schema = batch.getSchema();
+                    layout = layout(schema);
+                    record = new byte[layout.getRecordLength()];
+                    buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, record.length));
+                    channel = OutputFiles.newChannel(path, null);
+                }
+                RowBatch.Column[] columns = layout.columns(batch);
+                for (int row = 0; row < batch.size(); row++) {
+                    layout.encode(columns, row, record, text);
+                    if (buffer.remaining() < record.length) {
+                        drain();
+                    }
+                    buffer.put(record);
+                }
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier à largeur fixe : " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (channel == null) {
+                return;
+            }
+            try {
+                try {
+                    drain();
+                } finally {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                throw new IOException("Erreur lors de l'écriture du fichier à largeur fixe : " + e.getMessage(), e);
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
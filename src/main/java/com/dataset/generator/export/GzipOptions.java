@@ -0,0 +1,71 @@
+package main.java.com.dataset.generator.export;
+
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Réglages de la compression gzip des fichiers exportés, par blocs compressés en parallèle
+ * (voir {@link ParallelGzipOutputStream}). Les instances sont immuables.
+ */
+public final class GzipOptions {
+    private final int blockSize;
+    private final int level;
+    private final int threads;
+
+    /**
+     * Constructeur avec les réglages par défaut : blocs de 1 Mio, niveau par défaut de
+     * {@link Deflater}, un thread par processeur.
+     */
+    public GzipOptions() {
+        this(ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructeur.
+     * @param blockSize La taille des blocs non compressés, en octets ; des blocs plus grands
+     *                  compressent un peu mieux, des blocs plus petits répartissent mieux le travail
+     * @param level Le niveau de compression, de 0 à 9, ou {@link Deflater#DEFAULT_COMPRESSION}
+     * @param threads Le nombre de threads de compression
+     */
+    public GzipOptions(int blockSize, int level, int threads) {
+        this.blockSize = checkBlockSize(blockSize);
+        this.level = checkLevel(level);
+        this.threads = ParallelExportSession.checkParallelism(threads);
+    }
+
+    static int checkBlockSize(int blockSize) {
+        if (blockSize < 1024) {
+            throw new IllegalArgumentException("La taille des blocs doit être d'au moins 1024 octets");
+        }
+        return blockSize;
+    }
+
+    static int checkLevel(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Le niveau de compression doit être compris entre 0 et 9");
+        }
+        return level;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Enveloppe un flux dans un flux compressé selon ces réglages.
+     * @param out Le flux de destination
+     * @return Le flux compressé, qui ferme {@code out} à sa fermeture
+     */
+    public OutputStream wrap(OutputStream out) {
+        return new ParallelGzipOutputStream(out, blockSize, level, threads);
+    }
+}
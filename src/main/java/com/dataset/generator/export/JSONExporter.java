@@ -1,8 +1,20 @@
 package main.java.com.dataset.generator.export;
 
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -13,10 +25,112 @@ import java.util.Objects;
 public class JSONExporter implements Exporter {
     
     private static final String INDENT = "  ";
+    private static final String[] INDENTS = new String[16];
+    
+    private int parallelism = 1;
+    private GzipOptions compression;
+
+    static {
+        for (int level = 0; level < INDENTS.length; level++) {
+            INDENTS[level] = INDENT.repeat(level);
+        }
+    }
     
+    /**
+     * Exporte une liste de lignes. Chaque objet contient exactement les entrées de sa ligne,
+     * dans leur ordre : si les lignes n'ont pas toutes les mêmes clés, elles sont écrites une
+     * à une, sur un seul thread, plutôt que par colonnes.
+     */
     @Override
     public void export(List<Map<String, Object>> data, String path) throws IOException {
-        String json = toJsonString(data);
+        Objects.requireNonNull(data, "Les données ne peuvent pas être nulles");
+        if (!RowSchema.haveSameKeys(data)) {
+            try (JSONSession session = newSession(path)) {
+                session.acceptRows(data);
+            }
+            return;
+        }
+        RowBatch batch = RowBatch.fromRows(data);
+        if (parallelism > 1) {
+            try (ParallelJSONSession session = newParallelSession(path)) {
+                session.accept(batch);
+            }
+            return;
+        }
+        try (JSONSession session = newSession(path)) {
+            session.accept(batch);
+        }
+    }
+
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception, en lisant directement les colonnes.
+     * Sans ligne, le fichier contient un tableau vide. Avec un parallélisme supérieur à 1,
+     * les lignes sont encodées par morceaux sur plusieurs threads ; le fichier obtenu est identique.
+     */
+    @Override
+    public ExportSession open(String path) throws IOException {
+        return parallelism > 1 ? newParallelSession(path) : newSession(path);
+    }
+    
+    /**
+     * Retourne le nombre de threads d'encodage.
+     * @return Le nombre de threads, 1 par défaut
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Définit le nombre de threads d'encodage des sessions ouvertes ensuite.
+     * @param parallelism Le nombre de threads, par exemple {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = ParallelExportSession.checkParallelism(parallelism);
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+    
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres, par blocs
+     * compressés en parallèle.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
+    
+    public String toJsonString(List<Map<String, Object>> data) {
+        Objects.requireNonNull(data, "Les données ne peuvent pas être nulles");
+        StringWriter writer = new StringWriter();
+        try (JSONSession session = new JSONSession(writer)) {
+            if (RowSchema.haveSameKeys(data)) {
+                session.accept(RowBatch.fromRows(data));
+            } else {
+                session.acceptRows(data);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+    
+    private JSONSession newSession(String path) throws IOException {
+        String file = outputFile(path).getPath();
+        return new JSONSession(new BufferedWriter(new OutputStreamWriter(OutputFiles.newOutputStream(file, compression))));
+    }
+    
+    private ParallelJSONSession newParallelSession(String path) throws IOException {
+        return new ParallelJSONSession(outputFile(path).getPath(), parallelism, compression);
+    }
+    
+    private File outputFile(String path) throws IOException {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
         
         // Création du fichier et écriture des données
         File outputFile = new File(path);
@@ -28,38 +142,180 @@ public class JSONExporter implements Exporter {
                 throw new IOException("Impossible de créer le répertoire de destination: " + parentDir.getAbsolutePath());
             }
         }
-        
-        // Écriture des données dans le fichier
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            writer.write(json);
-        }
+        return outputFile;
     }
     
-    public String toJsonString(List<Map<String, Object>> data) {
-        Objects.requireNonNull(data, "Les données ne peuvent pas être nulles");
-        return convertToJson(data, 0);
+    private final class JSONSession implements ExportSession {
+        private final Writer writer;
+        private final StringBuilder scratch = new StringBuilder();
+        private final Map<RowSchema, String[]> keys = new IdentityHashMap<>();
+        private boolean first = true;
+        private boolean closed;
+        
+        JSONSession(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void accept(RowBatch batch) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            for (int row = 0; row < batch.size(); row++) {
+                writer.write(first ? "[\n" : ",\n");
+                writer.write(INDENT);
+                writeObject(writer, batch, keys, row, 1, scratch);
+                first = false;
+            }
+        }
+        
+        /**
+         * Écrit des lignes une à une, avec les seules entrées de chacune.
+         */
+        void acceptRows(List<Map<String, Object>> rows) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            for (Map<String, Object> row : rows) {
+                writer.write(first ? "[\n" : ",\n");
+                writer.write(INDENT);
+                writer.write(convertMapToJson(row, 1));
+                first = false;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (Writer toClose = writer) {
+                toClose.write(first ? "[]" : "\n]");
+            }
+        }
     }
     
-    private String convertToJson(List<Map<String, Object>> data, int indentLevel) {
-        if (data == null || data.isEmpty()) {
-            return "[]";
+    /**
+     * Encode chaque morceau dans le jeu de caractères de la plateforme, comme la session séquentielle.
+     */
+    private final class ParallelJSONSession extends ParallelExportSession {
+        private final String path;
+        private final GzipOptions compression;
+        
+        ParallelJSONSession(String path, int parallelism, GzipOptions compression) {
+            super(parallelism);
+            this.path = path;
+            this.compression = compression;
         }
         
-        StringBuilder sb = new StringBuilder("[\n");
-        String currentIndent = "  ".repeat(indentLevel);
-        String itemIndent = currentIndent + "  ";
+        @Override
+        protected WritableByteChannel openChannel() throws IOException {
+            return OutputFiles.newChannel(path, compression);
+        }
         
-        boolean first = true;
-        for (Map<String, Object> item : data) {
-            if (!first) {
-                sb.append(",\n");
+        @Override
+        protected byte[] header(RowSchema schema) {
+            return new byte[0];
+        }
+        
+        @Override
+        protected byte[] encode(RowBatch batch, int from, int to, long firstRow) throws IOException {
+            Map<RowSchema, String[]> keys = new IdentityHashMap<>();
+            StringBuilder scratch = new StringBuilder();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(bytes)) {
+                for (int row = from; row < to; row++) {
+                    writer.write(firstRow + row - from == 0 ? "[\n" : ",\n");
+                    writer.write(INDENT);
+                    writeObject(writer, batch, keys, row, 1, scratch);
+                }
             }
-            sb.append(itemIndent).append(convertMapToJson(item, indentLevel + 1));
-            first = false;
+            return bytes.toByteArray();
         }
         
-        sb.append("\n").append(currentIndent).append("]");
-        return sb.toString();
+        @Override
+        protected byte[] footer(long rowCount) {
+            return (rowCount == 0 ? "[]" : "\n]").getBytes(Charset.defaultCharset());
+        }
+    }
+    
+    /**
+     * Écrit une ligne d'un lot ; les clés sont échappées une fois par schéma, lots imbriqués compris.
+     */
+    private void writeObject(Writer writer, RowBatch batch, Map<RowSchema, String[]> escapedKeys, int row,
+                             int indentLevel, StringBuilder scratch) throws IOException {
+        String[] keys = escapedKeys.computeIfAbsent(batch.getSchema(), this::escapedKeys);
+        if (keys.length == 0) {
+            writer.write("{}");
+            return;
+        }
+        
+        writer.write("{\n");
+        String itemIndent = indent(indentLevel + 1);
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                writer.write(",\n");
+            }
+            writer.write(itemIndent);
+            writer.write(keys[i]);
+            writeValue(writer, batch.column(i), escapedKeys, row, indentLevel + 1, scratch);
+        }
+        writer.write("\n");
+        writer.write(indent(indentLevel));
+        writer.write("}");
+    }
+    
+    private void writeValue(Writer writer, RowBatch.Column column, Map<RowSchema, String[]> escapedKeys, int row,
+                            int indentLevel, StringBuilder scratch) throws IOException {
+        switch (column.getType()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case BOOLEAN:
+                scratch.setLength(0);
+                column.appendText(row, scratch);
+                writer.append(scratch);
+                break;
+            case DATE:
+            case DATETIME:
+            case TIME:
+                scratch.setLength(0);
+                column.appendText(row, scratch);
+                writer.write("\"" + escapeJson(scratch.toString()) + "\"");
+                break;
+            case STRUCT:
+                RowBatch struct = column.getStruct();
+                writeObject(writer, struct, escapedKeys, row, indentLevel, scratch);
+                break;
+            default:
+                Dictionary dictionary = column.getDictionary();
+                if (dictionary != null && column.getDictionaryId(row) >= 0) {
+                    // Entrée échappée une fois pour toutes
+                    writer.write(dictionary.escaped("json", this::quotedJson)[column.getDictionaryId(row)]);
+                    break;
+                }
+                writer.write(convertValueToJson(column.getObject(row), indentLevel));
+        }
+    }
+    
+    private String quotedJson(String value) {
+        return "\"" + escapeJson(value) + "\"";
+    }
+    
+    /**
+     * Prépare, pour chaque colonne, le préfixe {@code "cle": } déjà échappé.
+     */
+    private String[] escapedKeys(RowSchema schema) {
+        String[] keys = new String[schema.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = '"' + escapeJson(schema.field(i).getName()) + "\": ";
+        }
+        return keys;
+    }
+    
+    private static String indent(int level) {
+        return level < INDENTS.length ? INDENTS[level] : INDENT.repeat(level);
     }
     
     @SuppressWarnings("unchecked")
@@ -69,7 +325,7 @@ public class JSONExporter implements Exporter {
         }
         
         StringBuilder sb = new StringBuilder("{\n");
-        String currentIndent = "  ".repeat(indentLevel);
+        String currentIndent = indent(indentLevel);
         String itemIndent = currentIndent + "  ";
         
         boolean first = true;
@@ -94,7 +350,7 @@ public class JSONExporter implements Exporter {
         if (value == null) {
             return "null";
         } else if (value instanceof String) {
-            return "\"" + escapeJson((String) value) + "\"";
+            return quotedJson((String) value);
         } else if (value instanceof Number || value instanceof Boolean) {
             return value.toString();
         } else if (value instanceof Map) {
@@ -112,7 +368,7 @@ public class JSONExporter implements Exporter {
         }
         
         StringBuilder sb = new StringBuilder("[\n");
-        String currentIndent = "  ".repeat(indentLevel);
+        String currentIndent = indent(indentLevel);
         String itemIndent = currentIndent + "  ";
         
         boolean first = true;
@@ -0,0 +1,271 @@
+package main.java.com.dataset.generator.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Exporte les données en JSON compact au moyen du {@link JsonGenerator} de Jackson, qui
+ * encode directement en UTF-8 dans le flux du fichier.
+ * <p>
+ * Deux dispositions sont proposées :
+ * <ul>
+ *   <li>{@link Layout#LINES} : JSON Lines (NDJSON), un objet par ligne terminé par {@code \n} ;</li>
+ *   <li>{@link Layout#ARRAY} : un unique tableau d'objets, sans indentation.</li>
+ * </ul>
+ * Les sous-entités sont écrites comme des objets imbriqués, les nombres et booléens sans
+ * guillemets, les dates et heures au format ISO-8601.
+ */
+public class JSONStreamExporter implements Exporter {
+
+    /**
+     * Disposition des objets dans le fichier.
+     */
+    public enum Layout {
+        /** Un objet JSON par ligne. */
+        LINES,
+        /** Un tableau JSON compact. */
+        ARRAY
+    }
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Layout layout;
+    private GzipOptions compression;
+
+    /**
+     * Constructeur produisant du JSON Lines.
+     */
+    public JSONStreamExporter() {
+        this(Layout.LINES);
+    }
+
+    /**
+     * Constructeur.
+     * @param layout La disposition des objets
+     */
+    public JSONStreamExporter(Layout layout) {
+        this.layout = Objects.requireNonNull(layout, "La disposition ne peut pas être nulle");
+    }
+
+    @Override
+    public void export(List<Map<String, Object>> data, String path) throws IOException {
+        Objects.requireNonNull(data, "Les données ne peuvent pas être nulles");
+        try (JSONStreamSession session = newSession(path)) {
+            session.accept(RowBatch.fromRows(data));
+        }
+    }
+
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception. Sans ligne, le fichier est vide
+     * en JSON Lines et contient un tableau vide sinon.
+     */
+    @Override
+    public ExportSession open(String path) throws IOException {
+        return newSession(path);
+    }
+
+    private JSONStreamSession newSession(String path) throws IOException {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        OutputStream out = OutputFiles.newOutputStream(path, compression);
+        try {
+            return new JSONStreamSession(out);
+        } catch (IOException | RuntimeException | Error e) {
+            // Le flux, et ses threads de compression éventuels, ne sont confiés à aucune session
+            try {
+                out.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retourne la disposition des objets.
+     * @return La disposition
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres, par blocs
+     * compressés en parallèle.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
+
+    private final class JSONStreamSession implements ExportSession {
+        private final JsonGenerator generator;
+        private final StringBuilder text = new StringBuilder();
+        private final Map<RowSchema, SerializedString[]> structNames = new IdentityHashMap<>();
+        private char[] chars = new char[64];
+        private RowSchema schema;
+        private SerializedString[] names;
+        private boolean closed;
+
+        JSONStreamSession(OutputStream out) throws IOException {
+            this.generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            if (layout == Layout.ARRAY) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            // Noms de champs encodés une fois par schéma
+            if (batch.getSchema() != schema) {
+                schema = batch.getSchema();
+                names = fieldNames(schema);
+            }
+            for (int row = 0; row < batch.size(); row++) {
+                writeObject(batch, names, row);
+                if (layout == Layout.LINES) {
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (JsonGenerator toClose = generator) {
+                if (layout == Layout.ARRAY) {
+                    toClose.writeEndArray();
+                }
+            }
+        }
+
+        private void writeObject(RowBatch batch, SerializedString[] fieldNames, int row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fieldNames.length; i++) {
+                generator.writeFieldName(fieldNames[i]);
+                writeValue(batch.column(i), row);
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeValue(RowBatch.Column column, int row) throws IOException {
+            switch (column.getType()) {
+                case INT:
+                    generator.writeNumber(column.getInt(row));
+                    break;
+                case LONG:
+                    generator.writeNumber(column.getLong(row));
+                    break;
+                case DOUBLE:
+                    generator.writeNumber(column.getDouble(row));
+                    break;
+                case BOOLEAN:
+                    generator.writeBoolean(column.getBoolean(row));
+                    break;
+                case DATE:
+                case DATETIME:
+                case TIME:
+                    text.setLength(0);
+                    column.appendText(row, text);
+                    writeText(text);
+                    break;
+                case STRUCT:
+                    RowBatch struct = column.getStruct();
+                    SerializedString[] childNames =
+                            structNames.computeIfAbsent(struct.getSchema(), JSONStreamExporter::fieldNames);
+                    writeObject(struct, childNames, row);
+                    break;
+                default:
+                    writeAny(column.getObject(row));
+            }
+        }
+
+        /**
+         * Écrit une valeur quelconque d'une colonne STRING ou OBJECT.
+         */
+        private void writeAny(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String) {
+                generator.writeString((String) value);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                generator.writeNumber(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                generator.writeNumber((Long) value);
+            } else if (value instanceof Double) {
+                generator.writeNumber((Double) value);
+            } else if (value instanceof Float) {
+                generator.writeNumber((Float) value);
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else if (value instanceof BigInteger) {
+                generator.writeNumber((BigInteger) value);
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else if (value instanceof Map) {
+                generator.writeStartObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    generator.writeFieldName(String.valueOf(entry.getKey()));
+                    writeAny(entry.getValue());
+                }
+                generator.writeEndObject();
+            } else if (value instanceof List) {
+                generator.writeStartArray();
+                for (Object item : (List<?>) value) {
+                    writeAny(item);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        private void writeText(StringBuilder value) throws IOException {
+            int length = value.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            value.getChars(0, length, chars, 0);
+            generator.writeString(chars, 0, length);
+        }
+    }
+
+    /**
+     * Prépare les noms de champs, dont Jackson met en cache la forme encodée.
+     */
+    private static SerializedString[] fieldNames(RowSchema schema) {
+        SerializedString[] names = new SerializedString[schema.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new SerializedString(schema.field(i).getName());
+        }
+        return names;
+    }
+}
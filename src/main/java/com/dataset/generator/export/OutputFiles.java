@@ -0,0 +1,46 @@
+package main.java.com.dataset.generator.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ouverture des fichiers de destination des exportateurs, compressés ou non.
+ */
+final class OutputFiles {
+
+    private OutputFiles() {
+    }
+
+    /**
+     * Ouvre un canal d'écriture sur un fichier, en le créant ou en le tronquant.
+     * @param path Le chemin du fichier
+     * @param gzip Les réglages de compression, ou {@code null} pour un fichier non compressé
+     * @return Le canal
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    static WritableByteChannel newChannel(String path, GzipOptions gzip) throws IOException {
+        if (gzip == null) {
+            return FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        return Channels.newChannel(newOutputStream(path, gzip));
+    }
+
+    /**
+     * Ouvre un flux d'écriture sur un fichier, en le créant ou en le tronquant.
+     * @param path Le chemin du fichier
+     * @param gzip Les réglages de compression, ou {@code null} pour un fichier non compressé
+     * @return Le flux
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    static OutputStream newOutputStream(String path, GzipOptions gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(Paths.get(path));
+        return gzip == null ? out : gzip.wrap(out);
+    }
+}
@@ -0,0 +1,173 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Session d'export qui encode des morceaux contigus de lignes en parallèle, chacun dans son
+ * propre tableau d'octets, puis les écrit dans l'ordre des lignes.
+ * <p>
+ * Les lots reçus sont découpés en morceaux d'au plus {@value #CHUNK_ROWS} lignes, confiés à un
+ * pool de threads. Le thread appelant écrit les morceaux terminés dans l'ordre de soumission ;
+ * au plus deux morceaux par thread sont en cours à la fois, la mémoire reste donc bornée.
+ * Le fichier produit est identique à celui de l'export séquentiel, à condition que
+ * {@link #encode(RowBatch, int, int, long)} ne dépende que de ses arguments.
+ * <p>
+ * Un lot confié à {@link #accept(RowBatch)} peut être lu après le retour de la méthode :
+ * il ne doit plus être modifié.
+ */
+abstract class ParallelExportSession implements ExportSession {
+    /** Nombre maximal de lignes encodées par tâche. */
+    static final int CHUNK_ROWS = 4096;
+
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private WritableByteChannel channel;
+    private long rowCount;
+    private boolean failed;
+    private boolean closed;
+
+    /**
+     * Constructeur.
+     * @param parallelism Le nombre de threads d'encodage
+     */
+    ParallelExportSession(int parallelism) {
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.maxPending = 2 * parallelism;
+    }
+
+    /**
+     * Vérifie un nombre de threads d'export.
+     * @param parallelism Le nombre de threads
+     * @return Le nombre de threads
+     */
+    static int checkParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Le parallélisme doit être supérieur à 0");
+        }
+        return parallelism;
+    }
+
+    /**
+     * Ouvre le fichier de destination, au premier lot non vide ou à la fermeture.
+     */
+    protected abstract WritableByteChannel openChannel() throws IOException;
+
+    /**
+     * Retourne les octets écrits avant les lignes, d'après le schéma du premier lot non vide.
+     */
+    protected abstract byte[] header(RowSchema schema) throws IOException;
+
+    /**
+     * Encode les lignes [from, to) d'un lot. Appelée en parallèle depuis les threads du pool.
+     * @param batch Le lot, en lecture seule
+     * @param from La première ligne du lot, incluse
+     * @param to La dernière ligne du lot, exclue
+     * @param firstRow L'indice de la ligne {@code from} dans l'ensemble de l'export
+     * @return Les octets encodés
+     */
+    protected abstract byte[] encode(RowBatch batch, int from, int to, long firstRow) throws IOException;
+
+    /**
+     * Retourne les octets écrits après les lignes, ou {@code null} s'il n'y en a pas.
+     * Sans ligne et avec un pied non nul, le fichier est tout de même créé.
+     * @param rowCount Le nombre de lignes exportées
+     */
+    protected abstract byte[] footer(long rowCount) throws IOException;
+
+    @Override
+    public void accept(RowBatch batch) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("La session d'export est fermée");
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                channel = openChannel();
+                write(header(batch.getSchema()));
+            }
+            for (int from = 0; from < batch.size(); from += CHUNK_ROWS) {
+                int start = from;
+                int end = Math.min(from + CHUNK_ROWS, batch.size());
+                long firstRow = rowCount;
+                rowCount += end - start;
+                if (pending.size() >= maxPending) {
+                    writeNext();
+                }
+                pending.add(executor.submit(() -> encode(batch, start, end, firstRow)));
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (failed) {
+                return;
+            }
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+            byte[] footer = footer(rowCount);
+            if (footer != null) {
+                if (channel == null) {
+                    channel = openChannel();
+                }
+                write(footer);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Attend le plus ancien morceau en cours et l'écrit.
+     */
+    private void writeNext() throws IOException {
+        Future<byte[]> chunk = pending.poll();
+        try {
+            write(chunk.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrompu", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Erreur lors de l'export : " + cause.getMessage(), cause);
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package main.java.com.dataset.generator.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Flux de sortie compressé en gzip par blocs indépendants, compressés en parallèle.
+ * <p>
+ * Les octets sont découpés en blocs de taille fixe ; chaque bloc est compressé sur un pool de
+ * threads, avec son propre {@link Deflater}, en un membre gzip complet (en-tête, données,
+ * CRC-32 et taille). Les membres sont écrits dans l'ordre : le fichier est un gzip
+ * multi-membres, lisible par {@code gunzip}, {@link java.util.zip.GZIPInputStream} et tout
+ * décompresseur conforme à la RFC 1952. Au plus deux blocs par thread sont en cours, la
+ * mémoire reste donc bornée.
+ * <p>
+ * {@link #flush()} écrit les blocs déjà complets sans clore le bloc en cours, afin de ne pas
+ * multiplier les petits membres. Une instance n'est pas partagée entre threads.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    /** Taille des blocs utilisée par défaut (1 Mio). */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private static final byte[] HEADER = {
+        0x1f, (byte) 0x8b, // Signature gzip
+        Deflater.DEFLATED, // Méthode de compression
+        0,                 // Drapeaux : aucun champ optionnel
+        0, 0, 0, 0,        // Date de modification inconnue
+        0,                 // Drapeaux supplémentaires
+        (byte) 255         // Système d'exploitation inconnu
+    };
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int level;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block;
+    private int count;
+    private boolean written;
+    private boolean closed;
+
+    /**
+     * Constructeur.
+     * @param out Le flux de destination, fermé avec celui-ci
+     * @param blockSize La taille des blocs non compressés, en octets
+     * @param level Le niveau de compression, de 0 à 9, ou {@link Deflater#DEFAULT_COMPRESSION}
+     * @param threads Le nombre de threads de compression
+     */
+    public ParallelGzipOutputStream(OutputStream out, int blockSize, int level, int threads) {
+        GzipOptions.checkBlockSize(blockSize);
+        GzipOptions.checkLevel(level);
+        this.out = out;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.executor = Executors.newFixedThreadPool(ParallelExportSession.checkParallelism(threads));
+        this.maxPending = 2 * threads;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == blockSize) {
+            submitBlock();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (count == blockSize) {
+                submitBlock();
+            }
+            int copied = Math.min(length, blockSize - count);
+            System.arraycopy(bytes, offset, block, count, copied);
+            count += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    /**
+     * Écrit les blocs déjà soumis, dans l'ordre, puis vide le flux de destination.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        out.flush();
+    }
+
+    /**
+     * Compresse le dernier bloc, écrit tous les membres puis ferme le flux de destination.
+     * Un flux sans aucun octet produit un membre vide, afin que le fichier reste un gzip valide.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0 || !written) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        } finally {
+            executor.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Le flux compressé est fermé");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (pending.size() >= maxPending) {
+            writeNext();
+        }
+        byte[] data = block;
+        int length = count;
+        pending.add(executor.submit(() -> compress(data, length, level)));
+        written = true;
+        block = new byte[blockSize];
+        count = 0;
+    }
+
+    /**
+     * Attend le plus ancien membre en cours et l'écrit.
+     */
+    private void writeNext() throws IOException {
+        Future<byte[]> member = pending.poll();
+        try {
+            out.write(member.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compression interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors de la compression : " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Compresse un bloc en un membre gzip complet.
+     */
+    private static byte[] compress(byte[] data, int length, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+            member.write(HEADER, 0, HEADER.length);
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int produced = deflater.deflate(buffer);
+                member.write(buffer, 0, produced);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            writeIntLE(member, (int) crc.getValue());
+            writeIntLE(member, length);
+            return member.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
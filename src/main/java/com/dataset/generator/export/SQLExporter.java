@@ -1,27 +1,70 @@
 package main.java.com.dataset.generator.export;
 
-import java.io.FileWriter;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Exportateur pour le format SQL.
  * Génère des instructions INSERT SQL à partir des données.
+ * <p>
+ * Trois formats sont proposés (voir {@link Format}) : une instruction INSERT par ligne
+ * (par défaut), des INSERT de plusieurs lignes destinés au chargement en masse, et la
+ * commande {@code COPY ... FROM stdin} de PostgreSQL. Les deux derniers déclarent des
+ * colonnes typées d'après le type des attributs.
  */
 public class SQLExporter implements Exporter {
-    
+
+    /**
+     * Forme des instructions produites.
+     */
+    public enum Format {
+        /** Une instruction INSERT par ligne, valeurs entre apostrophes, colonnes VARCHAR(255). */
+        INSERT,
+        /** Instructions INSERT de plusieurs lignes, colonnes typées, NULL et nombres sans apostrophes. */
+        BULK_INSERT,
+        /** Colonnes typées puis commande COPY ... FROM stdin de PostgreSQL, au format texte. */
+        COPY
+    }
+
+    private static final Pattern INVALID_COLUMN_CHARS = Pattern.compile("[^a-zA-Z0-9_]");
+    /** Clés des formes préparées des entrées de dictionnaire : littéral entre apostrophes et texte de COPY. */
+    private static final String QUOTED_FORM = "sql";
+    private static final String COPY_FORM = "sql-copy";
+    private static final int DEFAULT_ROWS_PER_INSERT = 1000;
+    /** Taille au-delà de laquelle les lignes accumulées sont confiées au Writer. */
+    private static final int FLUSH_THRESHOLD = 8192;
+
     private String tableName;
-    
+    private int parallelism = 1;
+    private Format format = Format.INSERT;
+    private int rowsPerInsert = DEFAULT_ROWS_PER_INSERT;
+    private GzipOptions compression;
+
     /**
      * Constructeur avec nom de table par défaut.
      */
     public SQLExporter() {
         this("generated_data");
     }
-    
+
     /**
      * Constructeur avec nom de table personnalisé.
      * @param tableName Le nom de la table SQL
@@ -35,106 +78,484 @@ public class SQLExporter implements Exporter {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("Les données ne peuvent pas être vides");
         }
-        
-        try (FileWriter writer = new FileWriter(path)) {
-            // Récupérer toutes les colonnes
-            Set<String> columns = extractColumns(data);
-            
+        exportBatches(Stream.of(RowBatch.fromRows(data)), path);
+    }
+
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception, en lisant directement les colonnes.
+     * Le fichier est créé avec le premier lot non vide, dont les colonnes forment la table :
+     * sans ligne, aucun fichier n'est écrit. Avec un parallélisme supérieur à 1, les
+     * lignes sont encodées par morceaux sur plusieurs threads ; le fichier obtenu est identique.
+     */
+    @Override
+    public ExportSession open(String path) {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        if (parallelism > 1) {
+            return new ParallelSQLSession(path, parallelism, format, rowsPerInsert, compression);
+        }
+        return new SQLSession(path, format, rowsPerInsert, compression);
+    }
+
+    private final class SQLSession implements ExportSession {
+        private final String path;
+        private final Format format;
+        private final int rowsPerInsert;
+        private final GzipOptions compression;
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder value = new StringBuilder();
+        private Writer writer;
+        private Statements statements;
+        private long rowCount;
+        private boolean closed;
+
+        SQLSession(String path, Format format, int rowsPerInsert, GzipOptions compression) {
+            this.path = path;
+            this.format = format;
+            this.rowsPerInsert = rowsPerInsert;
+            this.compression = compression;
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            if (batch.size() == 0) {
+                return;
+            }
+            try {
+                if (writer == null) {
+                    writer = new BufferedWriter(new OutputStreamWriter(OutputFiles.newOutputStream(path, compression)));
+                    statements = new Statements(batch.getSchema(), format, rowsPerInsert);
+                    writer.write(statements.header());
+                }
+                statements.writeRows(writer, batch, 0, batch.size(), rowCount, line, value);
+                rowCount += batch.size();
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier SQL : " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (writer == null) {
+                return;
+            }
+            try (Writer toClose = writer) {
+                toClose.write(statements.footer(rowCount));
+            } catch (IOException e) {
+                throw new IOException("Erreur lors de l'écriture du fichier SQL : " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Encode chaque morceau dans le jeu de caractères de la plateforme, comme la session séquentielle.
+     */
+    private final class ParallelSQLSession implements ExportSession {
+        private final ParallelExportSession encoder;
+        private Statements statements;
+
+        ParallelSQLSession(String path, int parallelism, Format format, int rowsPerInsert,
+                           GzipOptions compression) {
+            this.encoder = new ParallelExportSession(parallelism) {
+                @Override
+                protected WritableByteChannel openChannel() throws IOException {
+                    return OutputFiles.newChannel(path, compression);
+                }
+
+                @Override
+                protected byte[] header(RowSchema schema) {
+                    statements = new Statements(schema, format, rowsPerInsert);
+                    return statements.header().getBytes(Charset.defaultCharset());
+                }
+
+                @Override
+                protected byte[] encode(RowBatch batch, int from, int to, long firstRow) throws IOException {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try (Writer writer = new OutputStreamWriter(bytes)) {
+                        statements.writeRows(writer, batch, from, to, firstRow, new StringBuilder(), new StringBuilder());
+                    }
+                    return bytes.toByteArray();
+                }
+
+                @Override
+                protected byte[] footer(long rowCount) {
+                    if (rowCount == 0) {
+                        return null;
+                    }
+                    return statements.footer(rowCount).getBytes(Charset.defaultCharset());
+                }
+            };
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws Exception {
+            try {
+                encoder.accept(batch);
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier SQL : " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                encoder.close();
+            } catch (IOException e) {
+                throw new IOException("Erreur lors de l'écriture du fichier SQL : " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Instructions d'une session, préparées au premier lot : noms de colonnes nettoyés une
+     * seule fois, types et préfixes d'instructions. Le texte d'une ligne ne dépend que de la
+     * ligne et de son indice dans l'export, ce qui permet d'encoder les lignes par morceaux.
+     */
+    private final class Statements {
+        private final Format format;
+        private final int rowsPerInsert;
+        private final String header;
+        private final String insertPrefix;
+
+        Statements(RowSchema schema, Format format, int rowsPerInsert) {
+            this.format = format;
+            this.rowsPerInsert = rowsPerInsert;
+
+            // Récupérer toutes les colonnes, nettoyées une seule fois
+            List<String> columns = sanitizedColumns(schema);
+            String columnList = String.join(", ", columns);
+
             // Générer la structure CREATE TABLE
-            generateCreateTable(writer, columns);
-            writer.write("\n");
-            
-            // Générer les instructions INSERT
-            generateInserts(writer, data, columns);
-            
-        } catch (IOException e) {
-            throw new Exception("Erreur lors de l'écriture du fichier SQL : " + e.getMessage(), e);
+            StringBuilder sb = new StringBuilder();
+            generateCreateTable(sb, schema, columns, format != Format.INSERT);
+            sb.append("\n");
+
+            // Préparer les instructions INSERT ou la commande COPY
+            switch (format) {
+                case COPY:
+                    sb.append("\n-- Chargement des données\n");
+                    sb.append("COPY ").append(tableName).append(" (").append(columnList).append(") FROM stdin;\n");
+                    insertPrefix = null;
+                    break;
+                case BULK_INSERT:
+                    sb.append("\n-- Insertion des données\n");
+                    insertPrefix = "INSERT INTO " + tableName + " (" + columnList + ") VALUES\n";
+                    break;
+                default:
+                    sb.append("\n-- Insertion des données\n");
+                    insertPrefix = "INSERT INTO " + tableName + " (" + columnList + ") VALUES (";
+            }
+            this.header = sb.toString();
+        }
+
+        String header() {
+            return header;
+        }
+
+        /**
+         * Écrit les lignes [from, to) d'un lot.
+         * @param firstRow L'indice de la ligne {@code from} dans l'ensemble de l'export
+         */
+        void writeRows(Writer writer, RowBatch batch, int from, int to, long firstRow,
+                       StringBuilder line, StringBuilder value) throws IOException {
+            int columnCount = batch.getSchema().size();
+            line.setLength(0);
+            for (int row = from; row < to; row++) {
+                switch (format) {
+                    case COPY:
+                        appendCopyRow(line, batch, row, columnCount, value);
+                        break;
+                    case BULK_INSERT:
+                        int position = (int) ((firstRow + row - from) % rowsPerInsert);
+                        line.append(position == 0 ? insertPrefix : ",\n");
+                        line.append('(');
+                        appendLiteralRow(line, batch, row, columnCount, value);
+                        line.append(')');
+                        if (position == rowsPerInsert - 1) {
+                            line.append(";\n");
+                        }
+                        break;
+                    default:
+                        line.append(insertPrefix);
+                        appendQuotedRow(line, batch, row, columnCount, value);
+                        line.append(");\n");
+                }
+                if (line.length() >= FLUSH_THRESHOLD) {
+                    writer.append(line);
+                    line.setLength(0);
+                }
+            }
+            writer.append(line);
+        }
+
+        /**
+         * Retourne la fin du fichier : fin du dernier INSERT multi-lignes ou fin des données COPY.
+         */
+        String footer(long rowCount) {
+            switch (format) {
+                case COPY:
+                    return "\\.\n";
+                case BULK_INSERT:
+                    return rowCount % rowsPerInsert != 0 ? ";\n" : "";
+                default:
+                    return "";
+            }
         }
     }
-    
+
     /**
-     * Extrait toutes les colonnes uniques des données.
+     * Extrait les noms de colonnes nettoyés du schéma.
      */
-    private Set<String> extractColumns(List<Map<String, Object>> data) {
-        Set<String> columns = new LinkedHashSet<>();
-        for (Map<String, Object> row : data) {
-            columns.addAll(row.keySet());
+    private List<String> sanitizedColumns(RowSchema schema) {
+        List<String> columns = new ArrayList<>(schema.size());
+        for (RowSchema.Field field : schema.getFields()) {
+            columns.add(sanitizeColumnName(field.getName()));
         }
         return columns;
     }
-    
+
     /**
      * Génère l'instruction CREATE TABLE.
      */
-    private void generateCreateTable(FileWriter writer, Set<String> columns) throws IOException {
-        writer.write("-- Table de données générées\n");
-        writer.write("CREATE TABLE IF NOT EXISTS " + tableName + " (\n");
-        
-        boolean first = true;
-        for (String column : columns) {
-            if (!first) {
-                writer.write(",\n");
-            }
-            writer.write("    " + sanitizeColumnName(column) + " VARCHAR(255)");
-            first = false;
-        }
-        
-        writer.write("\n);\n");
-    }
-    
-    /**
-     * Génère les instructions INSERT.
-     */
-    private void generateInserts(FileWriter writer, List<Map<String, Object>> data, Set<String> columns) throws IOException {
-        writer.write("\n-- Insertion des données\n");
-        
-        for (Map<String, Object> row : data) {
-            writer.write("INSERT INTO " + tableName + " (");
-            
-            // Colonnes
-            boolean first = true;
-            for (String column : columns) {
-                if (!first) {
-                    writer.write(", ");
-                }
-                writer.write(sanitizeColumnName(column));
-                first = false;
-            }
-            
-            writer.write(") VALUES (");
-            
-            // Valeurs
-            first = true;
-            for (String column : columns) {
-                if (!first) {
-                    writer.write(", ");
-                }
-                Object value = row.get(column);
-                writer.write("'" + escapeSqlValue(String.valueOf(value)) + "'");
-                first = false;
+    private void generateCreateTable(StringBuilder sb, RowSchema schema, List<String> columns, boolean typed) {
+        sb.append("-- Table de données générées\n");
+        sb.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (\n");
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(",\n");
             }
-            
-            writer.write(");\n");
+            sb.append("    ").append(columns.get(i)).append(' ')
+              .append(typed ? sqlType(schema.field(i)) : "VARCHAR(255)");
         }
+
+        sb.append("\n);\n");
     }
-    
+
     /**
-     * Nettoie le nom de colonne pour SQL.
+     * Déduit le type SQL d'une colonne : de sa représentation pour les nombres, booléens,
+     * dates et heures, du type de l'attribut pour le texte.
      */
-    private String sanitizeColumnName(String columnName) {
-        return columnName.replaceAll("[^a-zA-Z0-9_]", "_");
+    private static String sqlType(RowSchema.Field field) {
+        switch (field.getType()) {
+            case INT:
+                return "INTEGER";
+            case LONG:
+                return "BIGINT";
+            case DOUBLE:
+                return "DOUBLE PRECISION";
+            case BOOLEAN:
+                return "BOOLEAN";
+            case DATE:
+                return "DATE";
+            case DATETIME:
+                return "TIMESTAMP";
+            case TIME:
+                return "TIME";
+            case STRING:
+                return textType(field.getAttribute());
+            default:
+                return "TEXT";
+        }
+    }
+
+    private static String textType(Attribute attribute) {
+        if (attribute == null || attribute.getType() == null) {
+            return "TEXT";
+        }
+        // Un motif ou une liste de valeurs remplace le générateur du type : longueur inconnue
+        Constraints constraints = attribute.getConstraints();
+        if (constraints != null && (constraints.getPattern() != null || constraints.getPossibleValues() != null)) {
+            return "TEXT";
+        }
+        switch (attribute.getType()) {
+            case UUID:
+                return "CHAR(36)";
+            case MAC_ADDRESS:
+                return "CHAR(17)";
+            case IP_ADDRESS:
+                return "VARCHAR(45)";
+            case STRING:
+            case TEXT:
+            case DESCRIPTION:
+            case JSON:
+            case XML:
+                return "TEXT";
+            default:
+                return "VARCHAR(255)";
+        }
     }
-    
+
     /**
-     * Échappe les valeurs pour SQL.
+     * Valeurs d'une ligne au format historique : toutes entre apostrophes, {@code null} compris.
      */
-    private String escapeSqlValue(String value) {
-        if (value == null) {
-            return "";
+    private static void appendQuotedRow(StringBuilder line, RowBatch batch, int row, int columnCount,
+                                        StringBuilder value) {
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            if (appendDictionaryEntry(line, batch.column(i), row, QUOTED_FORM, SQLExporter::quoted)) {
+                continue;
+            }
+            value.setLength(0);
+            batch.column(i).appendText(row, value);
+            appendQuoted(line, value);
+        }
+    }
+
+    /**
+     * Valeurs d'une ligne en littéraux SQL : NULL, nombres et booléens sans apostrophes.
+     */
+    private static void appendLiteralRow(StringBuilder line, RowBatch batch, int row, int columnCount,
+                                         StringBuilder value) {
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            RowBatch.Column column = batch.column(i);
+            if (column.isNull(row)) {
+                line.append("NULL");
+                continue;
+            }
+            switch (column.getType()) {
+                case DOUBLE:
+                    if (!Double.isFinite(column.getDouble(row))) {
+                        // NaN et infinis : forme textuelle acceptée par les colonnes flottantes
+                        line.append('\'').append(column.getDouble(row)).append('\'');
+                        break;
+                    }
+                    column.appendText(row, line);
+                    break;
+                case INT:
+                case LONG:
+                case BOOLEAN:
+                    column.appendText(row, line);
+                    break;
+                default:
+                    if (appendDictionaryEntry(line, column, row, QUOTED_FORM, SQLExporter::quoted)) {
+                        break;
+                    }
+                    value.setLength(0);
+                    column.appendText(row, value);
+                    appendQuoted(line, value);
+            }
+        }
+    }
+
+    /**
+     * Valeurs d'une ligne au format texte de COPY : tabulations entre les valeurs,
+     * {@code \N} pour NULL, barres obliques inverses et caractères de contrôle échappés.
+     */
+    private static void appendCopyRow(StringBuilder line, RowBatch batch, int row, int columnCount,
+                                      StringBuilder value) {
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            RowBatch.Column column = batch.column(i);
+            if (column.isNull(row)) {
+                line.append("\\N");
+                continue;
+            }
+            switch (column.getType()) {
+                case STRING:
+                case OBJECT:
+                case STRUCT:
+                    if (appendDictionaryEntry(line, column, row, COPY_FORM, SQLExporter::copyEscaped)) {
+                        break;
+                    }
+                    value.setLength(0);
+                    column.appendText(row, value);
+                    appendCopyEscaped(line, value);
+                    break;
+                default:
+                    column.appendText(row, line);
+            }
+        }
+        line.append('\n');
+    }
+
+    /**
+     * Échappe une valeur pour le format texte de COPY.
+     */
+    private static void appendCopyEscaped(StringBuilder line, CharSequence value) {
+        for (int c = 0; c < value.length(); c++) {
+            char ch = value.charAt(c);
+            switch (ch) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                default:
+                    line.append(ch);
+            }
+        }
+    }
+
+    private static String copyEscaped(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        appendCopyEscaped(escaped, value);
+        return escaped.toString();
+    }
+
+    private static String quoted(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 8);
+        appendQuoted(quoted, value);
+        return quoted.toString();
+    }
+
+    /**
+     * Ajoute la valeur d'une colonne à dictionnaire sous sa forme préparée une fois par entrée.
+     * @return true si la valeur a été ajoutée, false si la colonne n'a pas de dictionnaire ou si
+     *         la valeur n'en provient pas
+     */
+    private static boolean appendDictionaryEntry(StringBuilder line, RowBatch.Column column, int row,
+                                                 String format, Function<String, String> form) {
+        Dictionary dictionary = column.getDictionary();
+        if (dictionary == null || column.getDictionaryId(row) < 0) {
+            return false;
+        }
+        line.append(dictionary.escaped(format, form)[column.getDictionaryId(row)]);
+        return true;
+    }
+
+    /**
+     * Ajoute une valeur entre apostrophes, en doublant celles qu'elle contient.
+     */
+    private static void appendQuoted(StringBuilder line, CharSequence value) {
+        line.append('\'');
+        for (int c = 0; c < value.length(); c++) {
+            char ch = value.charAt(c);
+            if (ch == '\'') {
+                line.append('\'');
+            }
+            line.append(ch);
         }
-        return value.replace("'", "''");
+        line.append('\'');
     }
-    
+
+    /**
+     * Nettoie le nom de colonne pour SQL.
+     */
+    private String sanitizeColumnName(String columnName) {
+        return INVALID_COLUMN_CHARS.matcher(columnName).replaceAll("_");
+    }
+
     /**
      * Définit le nom de la table.
      * @param tableName Le nom de la table
@@ -142,7 +563,7 @@ public class SQLExporter implements Exporter {
     public void setTableName(String tableName) {
         this.tableName = tableName;
     }
-    
+
     /**
      * Retourne le nom de la table.
      * @return Le nom de la table
@@ -150,4 +571,72 @@ public class SQLExporter implements Exporter {
     public String getTableName() {
         return tableName;
     }
+
+    /**
+     * Retourne le format des instructions produites.
+     * @return Le format, {@link Format#INSERT} par défaut
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Définit le format des instructions des sessions ouvertes ensuite.
+     * @param format Le format
+     */
+    public void setFormat(Format format) {
+        this.format = Objects.requireNonNull(format, "Le format ne peut pas être nul");
+    }
+
+    /**
+     * Retourne le nombre maximal de lignes par instruction en {@link Format#BULK_INSERT}.
+     * @return Le nombre de lignes, 1000 par défaut
+     */
+    public int getRowsPerInsert() {
+        return rowsPerInsert;
+    }
+
+    /**
+     * Définit le nombre maximal de lignes par instruction en {@link Format#BULK_INSERT}.
+     * @param rowsPerInsert Le nombre de lignes
+     */
+    public void setRowsPerInsert(int rowsPerInsert) {
+        if (rowsPerInsert <= 0) {
+            throw new IllegalArgumentException("Le nombre de lignes par INSERT doit être supérieur à 0");
+        }
+        this.rowsPerInsert = rowsPerInsert;
+    }
+
+    /**
+     * Retourne le nombre de threads d'encodage.
+     * @return Le nombre de threads, 1 par défaut
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Définit le nombre de threads d'encodage des sessions ouvertes ensuite.
+     * @param parallelism Le nombre de threads, par exemple {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = ParallelExportSession.checkParallelism(parallelism);
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres, par blocs
+     * compressés en parallèle.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
 }
@@ -0,0 +1,248 @@
+package main.java.com.dataset.generator.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sortie texte encodée en UTF-8 dans un tampon d'octets réutilisé, vidé par grands blocs
+ * dans un {@link WritableByteChannel}.
+ * <p>
+ * L'encodage est fait caractère par caractère directement dans le tampon : aucune chaîne,
+ * aucun tableau ni {@link java.nio.charset.CharsetEncoder} n'est alloué par valeur. Comme
+ * l'encodeur du JDK, un demi-caractère de substitution isolé est remplacé par {@code '?'}.
+ * Une instance n'est pas partagée entre threads.
+ */
+final class Utf8Output implements Closeable {
+    /** Taille du tampon utilisée par défaut (1 Mio). */
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    /** Taille du tampon des encodages en mémoire (64 Kio). */
+    private static final int CHUNK_BUFFER_SIZE = 1 << 16;
+    /** Nombre maximal d'octets produits par un caractère UTF-16. */
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final WritableByteChannel channel;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+    private char[] chars = new char[256];
+
+    /**
+     * Constructeur.
+     * @param channel Le canal de destination
+     * @param bufferSize La taille du tampon en octets
+     */
+    Utf8Output(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("La taille du tampon doit être d'au moins 16 octets");
+        }
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Ouvre un fichier en écriture, en le créant ou en le tronquant.
+     * @param path Le chemin du fichier
+     * @param gzip Les réglages de compression, ou {@code null} pour un fichier non compressé
+     * @return La sortie
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    static Utf8Output toFile(String path, GzipOptions gzip) throws IOException {
+        return new Utf8Output(OutputFiles.newChannel(path, gzip), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Encode un texte produit par {@code body} dans un tableau d'octets.
+     * @param body L'écriture à effectuer
+     * @return Les octets UTF-8 produits
+     * @throws IOException Si {@code body} échoue
+     */
+    static byte[] toBytes(Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Utf8Output out = new Utf8Output(Channels.newChannel(bytes), CHUNK_BUFFER_SIZE)) {
+            body.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Écriture confiée à {@link #toBytes(Body)}.
+     */
+    interface Body {
+        void writeTo(Utf8Output out) throws IOException;
+    }
+
+    /**
+     * Écrit un caractère ASCII.
+     */
+    void writeAscii(char c) throws IOException {
+        if (position == bytes.length) {
+            flushBuffer();
+        }
+        bytes[position++] = (byte) c;
+    }
+
+    /**
+     * Écrit des octets déjà encodés.
+     */
+    void write(byte[] encoded) throws IOException {
+        if (encoded.length > bytes.length - position) {
+            flushBuffer();
+            if (encoded.length > bytes.length) {
+                writeFully(ByteBuffer.wrap(encoded));
+                return;
+            }
+        }
+        System.arraycopy(encoded, 0, bytes, position, encoded.length);
+        position += encoded.length;
+    }
+
+    /**
+     * Écrit une chaîne.
+     */
+    void write(String text) throws IOException {
+        int length = text.length();
+        char[] chars = scratch(length);
+        text.getChars(0, length, chars, 0);
+        write(chars, 0, length);
+    }
+
+    /**
+     * Écrit le contenu d'un tampon de caractères.
+     */
+    void write(StringBuilder text) throws IOException {
+        int length = text.length();
+        char[] chars = scratch(length);
+        text.getChars(0, length, chars, 0);
+        write(chars, 0, length);
+    }
+
+    /**
+     * Écrit des caractères ; les suites ASCII sont copiées sans autre test que la place restante.
+     */
+    void write(char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int limit = Math.min(end, i + bytes.length - position);
+            int p = position;
+            while (i < limit) {
+                char c = chars[i];
+                if (c >= 0x80) {
+                    break;
+                }
+                bytes[p++] = (byte) c;
+                i++;
+            }
+            position = p;
+            if (i < end) {
+                if (chars[i] < 0x80) {
+                    flushBuffer();
+                } else {
+                    i = encode(chars, i, end) + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit des caractères entre deux délimiteurs, en doublant chaque délimiteur qu'ils contiennent
+     * (échappement CSV et SQL).
+     * @param quote Le délimiteur ASCII
+     */
+    void writeQuoted(char[] chars, int offset, int length, char quote) throws IOException {
+        writeAscii(quote);
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == quote) {
+                writeAscii(quote);
+                writeAscii(quote);
+            } else if (c < 0x80) {
+                writeAscii(c);
+            } else {
+                i = encode(chars, i, end);
+            }
+        }
+        writeAscii(quote);
+    }
+
+    /**
+     * Retourne un tableau de caractères réutilisable d'au moins {@code length} éléments.
+     */
+    char[] scratch(int length) {
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        return chars;
+    }
+
+    /**
+     * Encode le caractère non ASCII d'indice {@code i}, éventuellement accompagné du suivant
+     * pour une paire de substitution.
+     * @return L'indice du dernier caractère consommé
+     */
+    private int encode(char[] chars, int i, int end) throws IOException {
+        if (bytes.length - position < MAX_BYTES_PER_CHAR + 1) {
+            flushBuffer();
+        }
+        char c = chars[i];
+        if (c < 0x800) {
+            bytes[position++] = (byte) (0xC0 | (c >> 6));
+            bytes[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                int codePoint = Character.toCodePoint(c, chars[i + 1]);
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                return i + 1;
+            }
+            bytes[position++] = '?';
+        } else {
+            bytes[position++] = (byte) (0xE0 | (c >> 12));
+            bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    /**
+     * Vide le tampon dans le canal.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            buffer.clear();
+            buffer.limit(position);
+            writeFully(buffer);
+            position = 0;
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Vide le tampon puis ferme le canal.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
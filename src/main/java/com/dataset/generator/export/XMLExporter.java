@@ -1,58 +1,345 @@
 package main.java.com.dataset.generator.export;
 
-import java.io.FileWriter;
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Exportateur pour le format XML.
  * Implémente l'interface Exporter pour générer des fichiers XML.
+ * <p>
+ * Le document est écrit au fil des lots, encodé en UTF-8 directement dans un tampon
+ * d'octets ({@link Utf8Output}) : la mémoire consommée ne dépend pas du nombre de lignes.
+ * Le texte est échappé en une seule passe. Les sous-entités et les maps deviennent des
+ * éléments imbriqués, les listes une suite d'éléments {@code <item>}.
  */
 public class XMLExporter implements Exporter {
 
+    private static final String INDENT = "  ";
+    private static final byte[][] INDENTS = new byte[16][];
+    private static final byte[] AMP = "&amp;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LT = "&lt;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GT = "&gt;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUOT = "&quot;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APOS = "&apos;".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int level = 0; level < INDENTS.length; level++) {
+            INDENTS[level] = INDENT.repeat(level).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private GzipOptions compression;
+
+    /**
+     * Exporte une liste de lignes. Chaque élément {@code <record>} contient exactement les
+     * entrées de sa ligne, dans leur ordre : si les lignes n'ont pas toutes les mêmes clés,
+     * elles sont écrites une à une plutôt que par colonnes.
+     */
     @Override
     public void export(List<Map<String, Object>> data, String path) throws Exception {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("Les données ne peuvent pas être vides");
         }
-        
-        try (FileWriter writer = new FileWriter(path)) {
-            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-            writer.write("<dataset>\n");
-            
-            for (Map<String, Object> row : data) {
-                writer.write("  <record>\n");
-                
-                for (Map.Entry<String, Object> entry : row.entrySet()) {
-                    String key = escapeXml(entry.getKey());
-                    String value = escapeXml(String.valueOf(entry.getValue()));
-                    writer.write("    <" + key + ">" + value + "</" + key + ">\n");
-                }
-                
-                writer.write("  </record>\n");
-            }
-            
-            writer.write("</dataset>\n");
-        } catch (IOException e) {
-            throw new Exception("Erreur lors de l'écriture du fichier XML : " + e.getMessage(), e);
-        }
-    }
-    
+        if (!RowSchema.haveSameKeys(data)) {
+            try (XMLSession session = new XMLSession(path, compression)) {
+                session.acceptRows(data);
+            }
+            return;
+        }
+        exportBatches(Stream.of(RowBatch.fromRows(data)), path);
+    }
+
+    /**
+     * Ouvre une session qui écrit chaque lot dès sa réception, en lisant directement les colonnes.
+     * Le fichier est créé avec le premier lot non vide ; sans ligne, il contient un élément
+     * {@code <dataset>} vide.
+     */
+    @Override
+    public ExportSession open(String path) {
+        Objects.requireNonNull(path, "Le chemin de destination ne peut pas être nul");
+        return new XMLSession(path, compression);
+    }
+
+    /**
+     * Retourne les réglages de compression gzip.
+     * @return Les réglages, ou {@code null} si les fichiers ne sont pas compressés
+     */
+    public GzipOptions getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresse les fichiers des sessions ouvertes ensuite en gzip multi-membres, par blocs
+     * compressés en parallèle.
+     * @param compression Les réglages, ou {@code null} pour ne pas compresser
+     */
+    public void setCompression(GzipOptions compression) {
+        this.compression = compression;
+    }
+
+    private final class XMLSession implements ExportSession {
+        private final String path;
+        private final GzipOptions compression;
+        private final StringBuilder value = new StringBuilder();
+        private final Map<RowSchema, Tags> tags = new IdentityHashMap<>();
+        private Utf8Output out;
+        private boolean closed;
+
+        XMLSession(String path, GzipOptions compression) {
+            this.path = path;
+            this.compression = compression;
+        }
+
+        @Override
+        public void accept(RowBatch batch) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            if (batch.size() == 0) {
+                return;
+            }
+            try {
+                if (out == null) {
+                    start();
+                }
+                Tags recordTags = tagsOf(batch.getSchema());
+                for (int row = 0; row < batch.size(); row++) {
+                    out.write("  <record>\n");
+                    writeFields(batch, recordTags, row, 2);
+                    out.write("  </record>\n");
+                }
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier XML : " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Écrit des lignes une à une, avec les seules entrées de chacune.
+         */
+        void acceptRows(List<Map<String, Object>> rows) throws Exception {
+            if (closed) {
+                throw new IllegalStateException("La session d'export est fermée");
+            }
+            try {
+                if (out == null) {
+                    start();
+                }
+                for (Map<String, Object> row : rows) {
+                    out.write("  <record>\n");
+                    for (Map.Entry<String, Object> entry : row.entrySet()) {
+                        writeElement(entry.getKey(), entry.getValue(), 2);
+                    }
+                    out.write("  </record>\n");
+                }
+            } catch (IOException e) {
+                throw new Exception("Erreur lors de l'écriture du fichier XML : " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (out == null) {
+                    start();
+                }
+                try (Utf8Output toClose = out) {
+                    toClose.write("</dataset>\n");
+                }
+            } catch (IOException e) {
+                throw new IOException("Erreur lors de l'écriture du fichier XML : " + e.getMessage(), e);
+            }
+        }
+
+        private void start() throws IOException {
+            out = Utf8Output.toFile(path, compression);
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<dataset>\n");
+        }
+
+        /**
+         * Balises préparées une fois par schéma, lots imbriqués compris.
+         */
+        private Tags tagsOf(RowSchema schema) {
+            Tags cached = tags.get(schema);
+            if (cached == null) {
+                cached = new Tags(schema);
+                tags.put(schema, cached);
+            }
+            return cached;
+        }
+
+        private void writeFields(RowBatch batch, Tags fieldTags, int row, int level) throws IOException {
+            for (int i = 0; i < fieldTags.open.length; i++) {
+                RowBatch.Column column = batch.column(i);
+                writeIndent(level);
+                out.write(fieldTags.open[i]);
+                if (column.getType() == ColumnType.STRUCT) {
+                    RowBatch struct = column.getStruct();
+                    out.writeAscii('\n');
+                    writeFields(struct, tagsOf(struct.getSchema()), row, level + 1);
+                    writeIndent(level);
+                } else if (fieldTags.values[i] != null && column.getDictionaryId(row) >= 0) {
+                    out.write(fieldTags.values[i][column.getDictionaryId(row)]);
+                } else if (column.getType() == ColumnType.STRING || column.getType() == ColumnType.OBJECT) {
+                    writeObject(column.getObject(row), level);
+                } else {
+                    // Nombres, booléens, dates et heures : aucun caractère à échapper
+                    value.setLength(0);
+                    column.appendText(row, value);
+                    out.write(value);
+                }
+                out.write(fieldTags.close[i]);
+            }
+        }
+
+        /**
+         * Écrit le contenu d'un élément à partir d'une valeur quelconque.
+         */
+        @SuppressWarnings("unchecked")
+        private void writeObject(Object object, int level) throws IOException {
+            if (object instanceof Map) {
+                out.writeAscii('\n');
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    writeElement(String.valueOf(entry.getKey()), entry.getValue(), level + 1);
+                }
+                writeIndent(level);
+            } else if (object instanceof List) {
+                out.writeAscii('\n');
+                for (Object item : (List<Object>) object) {
+                    writeElement("item", item, level + 1);
+                }
+                writeIndent(level);
+            } else if (object instanceof String) {
+                writeEscaped((String) object);
+            } else {
+                writeEscaped(String.valueOf(object));
+            }
+        }
+
+        private void writeElement(String name, Object object, int level) throws IOException {
+            writeIndent(level);
+            out.writeAscii('<');
+            writeEscaped(name);
+            out.writeAscii('>');
+            writeObject(object, level);
+            out.write("</");
+            writeEscaped(name);
+            out.write(">\n");
+        }
+
+        private void writeIndent(int level) throws IOException {
+            out.write(level < INDENTS.length ? INDENTS[level] : INDENT.repeat(level).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        /**
+         * Échappe les caractères spéciaux XML en une passe, en recopiant telles quelles les
+         * portions qui n'en contiennent pas.
+         */
+        private void writeEscaped(String text) throws IOException {
+            int length = text.length();
+            char[] chars = out.scratch(length);
+            text.getChars(0, length, chars, 0);
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                byte[] entity;
+                switch (chars[i]) {
+                    case '&':
+                        entity = AMP;
+                        break;
+                    case '<':
+                        entity = LT;
+                        break;
+                    case '>':
+                        entity = GT;
+                        break;
+                    case '"':
+                        entity = QUOT;
+                        break;
+                    case '\'':
+                        entity = APOS;
+                        break;
+                    default:
+                        continue;
+                }
+                out.write(chars, start, i - start);
+                out.write(entity);
+                start = i + 1;
+            }
+            out.write(chars, start, length - start);
+        }
+    }
+
+    /**
+     * Balises ouvrantes et fermantes des champs d'un schéma, noms échappés et encodés en UTF-8,
+     * ainsi que les entrées des dictionnaires, échappées et encodées une fois par entrée.
+     */
+    private static final class Tags {
+        private final byte[][] open;
+        private final byte[][] close;
+        private final byte[][][] values;
+
+        Tags(RowSchema schema) {
+            open = new byte[schema.size()][];
+            close = new byte[schema.size()][];
+            values = new byte[schema.size()][][];
+            for (int i = 0; i < open.length; i++) {
+                String key = escapeXml(schema.field(i).getName());
+                open[i] = ("<" + key + ">").getBytes(StandardCharsets.UTF_8);
+                close[i] = ("</" + key + ">\n").getBytes(StandardCharsets.UTF_8);
+                Dictionary dictionary = schema.field(i).getDictionary();
+                if (dictionary != null) {
+                    values[i] = dictionary.encoded("xml", value -> escapeXml(value).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
     /**
      * Échappe les caractères spéciaux XML.
      * @param text Le texte à échapper
      * @return Le texte échappé
      */
-    private String escapeXml(String text) {
+    private static String escapeXml(String text) {
         if (text == null) {
             return "";
         }
-        
-        return text.replace("&", "&amp;")
-                  .replace("<", "&lt;")
-                  .replace(">", "&gt;")
-                  .replace("\"", "&quot;")
-                  .replace("'", "&apos;");
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 }
@@ -1,9 +1,14 @@
 package main.java.com.dataset.generator.generator;
 
+import main.java.com.dataset.generator.batch.RowBatch;
 import main.java.com.dataset.generator.model.Entity;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Interface pour la génération de données d'entités.
@@ -17,4 +22,65 @@ public interface DataGenerator {
      * @return Une liste de maps représentant les données générées
      */
     List<Map<String, Object>> generate(Entity entity, int size);
+
+    /**
+     * Génère les lignes d'indices [fromRow, toRow) du jeu de données.
+     * Pour un générateur reproductible, elles sont identiques aux lignes correspondantes de
+     * {@link #stream(Entity, long)}. L'implémentation par défaut produit puis ignore les lignes
+     * qui précèdent {@code fromRow}.
+     *
+     * @param entity L'entité pour laquelle générer les données
+     * @param fromRow L'indice de la première ligne, inclus
+     * @param toRow L'indice de la dernière ligne, exclu
+     * @return Une liste de maps représentant les lignes demandées
+     */
+    default List<Map<String, Object>> generate(Entity entity, long fromRow, long toRow) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        checkRange(fromRow, toRow);
+        try (Stream<Map<String, Object>> rows = stream(entity, toRow)) {
+            return rows.skip(fromRow).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Génère les données d'une entité sous forme de flux paresseux.
+     * Les lignes sont produites à la demande : la mémoire consommée ne dépend pas
+     * du nombre de lignes demandé.
+     * L'implémentation par défaut produit les lignes une à une via {@link #generate(Entity, int)}.
+     *
+     * @param entity L'entité pour laquelle générer les données
+     * @param size Le nombre d'instances à générer
+     * @return Un flux ordonné de maps représentant les données générées
+     */
+    default Stream<Map<String, Object>> stream(Entity entity, long size) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
+        }
+        return LongStream.range(0, size).mapToObj(i -> generate(entity, 1).get(0));
+    }
+
+    /**
+     * Génère les données d'une entité sous forme de flux paresseux de lots colonnes.
+     * L'implémentation par défaut regroupe les lignes de {@link #stream(Entity, long)}.
+     *
+     * @param entity L'entité pour laquelle générer les données
+     * @param size Le nombre d'instances à générer
+     * @param batchSize Le nombre maximal de lignes par lot
+     * @return Un flux ordonné de lots
+     */
+    default Stream<RowBatch> batches(Entity entity, long size, int batchSize) {
+        return RowBatch.chunk(stream(entity, size), batchSize);
+    }
+
+    /**
+     * Vérifie une plage de lignes [fromRow, toRow) destinée à une liste.
+     * @param fromRow L'indice de la première ligne, inclus
+     * @param toRow L'indice de la dernière ligne, exclu
+     */
+    private static void checkRange(long fromRow, long toRow) {
+        if (fromRow < 0 || toRow <= fromRow || toRow - fromRow > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La plage de lignes [" + fromRow + ", " + toRow + ") est invalide");
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.datasource.Vocabulary;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Libellés d'un vocabulaire en minuscules ASCII, sans accents ni séparateurs, pour les emails
+ * et les URL.
+ * <p>
+ * Un vocabulaire d'au plus {@link Dictionary#MAX_SIZE} valeurs est converti une fois, à la
+ * compilation du plan. Au-delà, chaque valeur est convertie au moment où elle est tirée : un
+ * vocabulaire de plusieurs millions de valeurs, projeté en mémoire, n'est ni parcouru ni copié
+ * sur le tas. Les instances sont immuables et peuvent être partagées entre threads.
+ */
+final class FoldedVocabulary {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    private final Vocabulary vocabulary;
+    /** Formes converties d'un vocabulaire court, ou null si elles sont calculées au tirage. */
+    private final char[][] folded;
+
+    FoldedVocabulary(Vocabulary vocabulary) {
+        this.vocabulary = vocabulary;
+        if (vocabulary.size() > Dictionary.MAX_SIZE) {
+            this.folded = null;
+        } else {
+            this.folded = new char[vocabulary.size()][];
+            for (int i = 0; i < folded.length; i++) {
+                folded[i] = fold(vocabulary.get(i));
+            }
+        }
+    }
+
+    int size() {
+        return vocabulary.size();
+    }
+
+    /**
+     * Retourne la forme ASCII d'une valeur ; le tableau ne doit pas être modifié.
+     * @param index L'indice de la valeur dans le vocabulaire
+     * @return Les caractères, jamais vides
+     */
+    char[] get(int index) {
+        return folded != null ? folded[index] : fold(vocabulary.get(index));
+    }
+
+    /**
+     * Retire les accents et tout ce qui n'est ni lettre ni chiffre, puis passe en minuscules ;
+     * une valeur sans aucun caractère conservé devient {@code x}.
+     */
+    static char[] fold(String value) {
+        if (isAscii(value)) {
+            // Ni accents ni décomposition : seuls les caractères conservés sont recopiés
+            char[] result = new char[value.length()];
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    result[length++] = (char) (c + ('a' - 'A'));
+                } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    result[length++] = c;
+                }
+            }
+            return length == 0 ? new char[] {'x'} : Arrays.copyOf(result, length);
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        String folded = NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll("");
+        return (folded.isEmpty() ? "x" : folded).toCharArray();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,173 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.datasource.DataSource;
+import main.java.com.dataset.generator.datasource.StaticDataSource;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.DataType;
+import main.java.com.dataset.generator.model.Entity;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Plan de génération compilé à partir d'une {@link Entity}.
+ * <p>
+ * La compilation parcourt une seule fois l'arbre entité / attributs / contraintes et
+ * produit, pour chaque colonne, un {@link ValueGenerator} dont les bornes et les listes
+ * sont déjà extraites, ainsi que le {@link RowSchema} des lots produits. Le plan est
+ * immuable et peut être partagé entre threads : la boucle de génération n'a plus qu'à
+ * l'exécuter.
+ */
+public final class GenerationPlan {
+    private final RowSchema schema;
+    private final ValueGenerator[] generators;
+    private final GenerationPlan[] subPlans;
+    private final IdentityGenerator identity;
+    /** Position à laquelle l'identité est tirée : sa première colonne, ou -1. */
+    private final int identityColumn;
+
+    private GenerationPlan(RowSchema schema, ValueGenerator[] generators, GenerationPlan[] subPlans,
+                           IdentityGenerator identity, int identityColumn) {
+        this.schema = schema;
+        this.generators = generators;
+        this.subPlans = subPlans;
+        this.identity = identity;
+        this.identityColumn = identityColumn;
+    }
+
+    /**
+     * Compile une entité avec les vocabulaires de {@link StaticDataSource}, dans le fuseau du système.
+     * @param entity L'entité à compiler
+     * @return Le plan de génération
+     */
+    public static GenerationPlan compile(Entity entity) {
+        return compile(entity, new StaticDataSource(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Compile une entité et ses sous-entités.
+     * Comme dans une map, un nom répété conserve la position de sa première occurrence
+     * et la définition de sa dernière.
+     * @param entity L'entité à compiler
+     * @param dataSource La source des vocabulaires (prénoms, villes, entreprises...)
+     * @param zone Le fuseau dans lequel sont résolues les bornes des dates et heures
+     * @return Le plan de génération
+     */
+    public static GenerationPlan compile(Entity entity, DataSource dataSource, ZoneId zone) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        Objects.requireNonNull(dataSource, "La source de données ne peut pas être nulle");
+        Objects.requireNonNull(zone, "Le fuseau ne peut pas être nul");
+        return compile(entity, new Vocabularies(dataSource), zone);
+    }
+
+    private static GenerationPlan compile(Entity entity, Vocabularies vocabularies, ZoneId zone) {
+        Map<String, Object> steps = new LinkedHashMap<>();
+
+        // Les attributs de l'entité
+        for (Attribute attribute : entity.getAttributes()) {
+            if (attribute != null && attribute.getName() != null) {
+                steps.put(attribute.getName(), attribute);
+            }
+        }
+
+        // Les sous-entités, générées dans des lots imbriqués
+        for (Entity subEntity : entity.getSubEntities()) {
+            if (subEntity != null && subEntity.getName() != null) {
+                steps.put(subEntity.getName(), compile(subEntity, vocabularies, zone));
+            }
+        }
+
+        // Prénom, nom, nom complet et email d'une même ligne décrivent une même personne
+        // dès que l'entité en déclare au moins deux
+        List<DataType> roles = new ArrayList<>();
+        List<Integer> identityColumns = new ArrayList<>();
+        int correlated = 0;
+        int i = 0;
+        for (Object step : steps.values()) {
+            if (step instanceof Attribute && IdentityGenerator.isIdentity((Attribute) step)) {
+                DataType role = ((Attribute) step).getType();
+                roles.add(role);
+                identityColumns.add(i);
+                if (IdentityGenerator.isCorrelated(role)) {
+                    correlated++;
+                }
+            }
+            i++;
+        }
+        IdentityGenerator identity = null;
+        if (correlated >= 2) {
+            int[] columns = new int[identityColumns.size()];
+            for (int k = 0; k < columns.length; k++) {
+                columns[k] = identityColumns.get(k);
+            }
+            identity = new IdentityGenerator(roles.toArray(new DataType[0]), columns, vocabularies);
+        }
+
+        List<RowSchema.Field> fields = new ArrayList<>(steps.size());
+        ValueGenerator[] generators = new ValueGenerator[steps.size()];
+        GenerationPlan[] subPlans = new GenerationPlan[steps.size()];
+        i = 0;
+        for (Map.Entry<String, Object> step : steps.entrySet()) {
+            if (step.getValue() instanceof GenerationPlan) {
+                subPlans[i] = (GenerationPlan) step.getValue();
+                fields.add(new RowSchema.Field(step.getKey(), subPlans[i].schema));
+            } else if (identity != null && identityColumns.contains(i)) {
+                // Colonne remplie par l'identité, sans générateur propre
+                Attribute attribute = (Attribute) step.getValue();
+                fields.add(new RowSchema.Field(step.getKey(), ColumnType.STRING, attribute,
+                                               identity.dictionary(attribute.getType())));
+            } else {
+                Attribute attribute = (Attribute) step.getValue();
+                generators[i] = ValueGenerators.forAttribute(attribute, vocabularies, zone);
+                fields.add(new RowSchema.Field(step.getKey(), generators[i].getColumnType(), attribute,
+                                               generators[i].getDictionary()));
+            }
+            i++;
+        }
+        return new GenerationPlan(new RowSchema(fields), generators, subPlans,
+                                  identity, identity != null ? identityColumns.get(0) : -1);
+    }
+
+    /**
+     * Retourne le schéma des lots produits par ce plan.
+     * @return Le schéma
+     */
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Crée un lot vide au schéma de ce plan.
+     * @param capacity Le nombre maximal de lignes
+     * @return Le lot
+     */
+    public RowBatch newBatch(int capacity) {
+        return new RowBatch(schema, capacity);
+    }
+
+    /**
+     * Génère une ligne directement dans un lot.
+     * @param batch Le lot de destination, au schéma de ce plan
+     * @param row L'indice de la ligne dans le lot
+     * @param random Le flux aléatoire du thread appelant
+     */
+    public void fill(RowBatch batch, int row, SplittableRandom random) {
+        for (int i = 0; i < generators.length; i++) {
+            if (subPlans[i] != null) {
+                subPlans[i].fill(batch.column(i).getStruct(), row, random);
+            } else if (generators[i] != null) {
+                generators[i].generate(random, batch.column(i), row);
+            } else if (i == identityColumn) {
+                identity.fill(batch, row, random);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.datasource.Vocabulary;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Générateur des colonnes d'identité d'une entité (prénom, nom, nom complet, email, téléphone),
+ * qui décrivent une même personne sur chaque ligne.
+ * <p>
+ * Le prénom et le nom sont tirés une fois par ligne, puis chaque colonne en est dérivée : le nom
+ * complet les reprend et l'email est {@code prenom.nom.suffixe@domaine}, en minuscules ASCII.
+ * Le suffixe de six caractères base 36 (plus de deux milliards de valeurs par couple prénom/nom)
+ * rend les collisions improbables même sur des dizaines de millions de lignes, sans toutefois
+ * garantir l'unicité. Chaque valeur est formatée directement dans un tableau de caractères de la
+ * bonne taille. Le générateur est sans état et peut être partagé entre threads.
+ */
+final class IdentityGenerator {
+    /** Nombre de caractères du suffixe des emails. */
+    static final int SUFFIX_LENGTH = 6;
+    private static final char[] SUFFIX_CHARS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final long SUFFIX_SPACE = pow(SUFFIX_CHARS.length, SUFFIX_LENGTH);
+
+    private final DataType[] roles;
+    private final int[] columns;
+    private final Vocabulary firstNames;
+    private final Vocabulary lastNames;
+    private final Dictionary firstNameDictionary;
+    private final Dictionary lastNameDictionary;
+    private final FoldedVocabulary emailFirstNames;
+    private final FoldedVocabulary emailLastNames;
+    private final char[][] domains;
+
+    /**
+     * Constructeur.
+     * @param roles Le type de chaque colonne d'identité
+     * @param columns L'indice de chaque colonne dans le lot, dans le même ordre
+     * @param vocabularies Les vocabulaires de la source de données
+     */
+    IdentityGenerator(DataType[] roles, int[] columns, Vocabularies vocabularies) {
+        this.roles = roles.clone();
+        this.columns = columns.clone();
+        this.firstNames = vocabularies.firstNames();
+        this.lastNames = vocabularies.lastNames();
+        this.firstNameDictionary = SpecializedGenerators.dictionaryOf(firstNames);
+        this.lastNameDictionary = SpecializedGenerators.dictionaryOf(lastNames);
+        boolean email = false;
+        for (DataType role : roles) {
+            email |= role == DataType.EMAIL;
+        }
+        // Formes ASCII préparées une fois, seulement si une colonne email les utilise
+        this.emailFirstNames = email ? new FoldedVocabulary(firstNames) : null;
+        this.emailLastNames = email ? new FoldedVocabulary(lastNames) : null;
+        this.domains = SpecializedGenerators.toChars(SpecializedGenerators.EMAIL_DOMAINS);
+    }
+
+    /**
+     * Indique si un attribut fait partie d'une identité : prénom, nom, nom complet, email ou
+     * téléphone, sans valeurs possibles ni motif, qui remplaceraient le générateur du type.
+     * @param attribute L'attribut
+     * @return true si la colonne peut être générée avec l'identité de la ligne
+     */
+    static boolean isIdentity(Attribute attribute) {
+        Constraints constraints = attribute.getConstraints();
+        if (constraints != null && (constraints.getPattern() != null ||
+            (constraints.getPossibleValues() != null && !constraints.getPossibleValues().isEmpty()))) {
+            return false;
+        }
+        return attribute.getType() == DataType.PHONE_NUMBER || isCorrelated(attribute.getType());
+    }
+
+    /**
+     * Indique si un type dépend du prénom et du nom de la personne.
+     * @param type Le type d'un attribut
+     * @return true pour un prénom, un nom, un nom complet ou un email
+     */
+    static boolean isCorrelated(DataType type) {
+        return type == DataType.FIRST_NAME || type == DataType.LAST_NAME ||
+               type == DataType.FULL_NAME || type == DataType.EMAIL;
+    }
+
+    /**
+     * Retourne le dictionnaire d'une colonne d'identité.
+     * @param role Le type de la colonne
+     * @return Le dictionnaire des prénoms ou des noms, ou null pour les autres colonnes
+     */
+    Dictionary dictionary(DataType role) {
+        switch (role) {
+            case FIRST_NAME:
+                return firstNameDictionary;
+            case LAST_NAME:
+                return lastNameDictionary;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Tire une personne et écrit toutes ses colonnes d'identité dans une ligne.
+     * @param batch Le lot de destination
+     * @param row L'indice de la ligne dans le lot
+     * @param random Le flux aléatoire de la ligne
+     */
+    void fill(RowBatch batch, int row, SplittableRandom random) {
+        int first = random.nextInt(firstNames.size());
+        int last = random.nextInt(lastNames.size());
+        for (int i = 0; i < roles.length; i++) {
+            RowBatch.Column column = batch.column(columns[i]);
+            switch (roles[i]) {
+                case FIRST_NAME:
+                    if (firstNameDictionary != null) {
+                        column.setDictionaryId(row, first);
+                    } else {
+                        column.setObject(row, firstNames.get(first));
+                    }
+                    break;
+                case LAST_NAME:
+                    if (lastNameDictionary != null) {
+                        column.setDictionaryId(row, last);
+                    } else {
+                        column.setObject(row, lastNames.get(last));
+                    }
+                    break;
+                case FULL_NAME:
+                    column.setObject(row, fullName(firstNames.get(first), lastNames.get(last)));
+                    break;
+                case EMAIL:
+                    column.setObject(row, email(emailFirstNames.get(first), emailLastNames.get(last), random));
+                    break;
+                default:
+                    column.setObject(row, SpecializedGenerators.phoneNumber(random));
+            }
+        }
+    }
+
+    private static String fullName(String first, String last) {
+        char[] buffer = new char[first.length() + 1 + last.length()];
+        first.getChars(0, first.length(), buffer, 0);
+        buffer[first.length()] = ' ';
+        last.getChars(0, last.length(), buffer, first.length() + 1);
+        return new String(buffer);
+    }
+
+    private String email(char[] first, char[] last, SplittableRandom random) {
+        char[] domain = domains[random.nextInt(domains.length)];
+        long suffix = random.nextLong(SUFFIX_SPACE);
+
+        // prenom.nom.suffixe@domaine
+        char[] buffer = new char[first.length + last.length + SUFFIX_LENGTH + domain.length + 3];
+        int position = SpecializedGenerators.copy(first, buffer, 0);
+        buffer[position++] = '.';
+        position = SpecializedGenerators.copy(last, buffer, position);
+        buffer[position++] = '.';
+        for (int i = SUFFIX_LENGTH - 1; i >= 0; i--) {
+            buffer[position + i] = SUFFIX_CHARS[(int) (suffix % SUFFIX_CHARS.length)];
+            suffix /= SUFFIX_CHARS.length;
+        }
+        position += SUFFIX_LENGTH;
+        buffer[position++] = '@';
+        SpecializedGenerators.copy(domain, buffer, position);
+        return new String(buffer);
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
@@ -1,23 +1,75 @@
 package main.java.com.dataset.generator.generator;
 
-import main.java.com.dataset.generator.model.Attribute;
-import main.java.com.dataset.generator.model.Constraints;
-import main.java.com.dataset.generator.model.DataType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.datasource.DataSource;
+import main.java.com.dataset.generator.datasource.StaticDataSource;
 import main.java.com.dataset.generator.model.Entity;
 
-import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implémentation de DataGenerator qui génère des données aléatoires.
+ * <p>
+ * Chaque ligne dispose de son propre flux {@link SplittableRandom}, dont la graine est un
+ * hachage sans état (SplitMix64) de la graine du générateur et de l'indice de la ligne.
+ * Pour une graine donnée, une ligne ne dépend donc ni du nombre de threads ni des lignes
+ * qui la précèdent : {@link #generate(Entity, long, long)} produit n'importe quelle plage
+ * en un temps proportionnel à sa taille. Le travail est réparti par tranches de
+ * {@value #SHARD_SIZE} lignes. L'entité est compilée une fois par appel en un
+ * {@link GenerationPlan} partagé par tous les threads.
  */
 public class RandomDataGenerator implements DataGenerator {
-    private final Random random = new Random();
-    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
-    private static final int DEFAULT_STRING_LENGTH = 10;
-    private static final int DEFAULT_MAX_INT = 1000;
-    private static final double DEFAULT_MAX_DOUBLE = 1000.0;
+    static final int SHARD_SIZE = 1 << 14;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final DataSource dataSource;
+    private int parallelism;
+    private ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * Constructeur avec une graine aléatoire, en mode mono-thread.
+     */
+    public RandomDataGenerator() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructeur avec une graine fixe, en mode mono-thread.
+     * @param seed La graine garantissant la reproductibilité des données
+     */
+    public RandomDataGenerator(long seed) {
+        this(seed, 1);
+    }
+
+    /**
+     * Constructeur avec les vocabulaires de {@link StaticDataSource}.
+     * @param seed La graine garantissant la reproductibilité des données
+     * @param parallelism Le nombre de threads utilisés par {@link #generate(Entity, int)}
+     */
+    public RandomDataGenerator(long seed, int parallelism) {
+        this(seed, parallelism, new StaticDataSource());
+    }
+
+    /**
+     * Constructeur complet avec une source de vocabulaires.
+     * @param seed La graine garantissant la reproductibilité des données
+     * @param parallelism Le nombre de threads utilisés par {@link #generate(Entity, int)}
+     * @param dataSource La source des prénoms, noms, villes, professions, produits et entreprises
+     */
+    public RandomDataGenerator(long seed, int parallelism, DataSource dataSource) {
+        this.seed = seed;
+        this.dataSource = Objects.requireNonNull(dataSource, "La source de données ne peut pas être nulle");
+        setParallelism(parallelism);
+    }
 
     @Override
     public List<Map<String, Object>> generate(Entity entity, int size) {
@@ -25,149 +77,328 @@ public class RandomDataGenerator implements DataGenerator {
         if (size <= 0) {
             throw new IllegalArgumentException("La taille doit être supérieure à 0");
         }
+        return generateRange(GenerationPlan.compile(entity, dataSource, zone), 0, size);
+    }
+
+    /**
+     * Génère directement les lignes [fromRow, toRow), sans produire les lignes précédentes.
+     * Le résultat est identique aux lignes correspondantes d'une génération complète.
+     */
+    @Override
+    public List<Map<String, Object>> generate(Entity entity, long fromRow, long toRow) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        checkRange(fromRow, toRow);
+        if (toRow - fromRow > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La plage de lignes [" + fromRow + ", " + toRow +
+                                               ") est trop grande pour une liste");
+        }
+        return generateRange(GenerationPlan.compile(entity, dataSource, zone), fromRow, toRow);
+    }
 
-        List<Map<String, Object>> result = new ArrayList<>(size);
-        for (int i = 0; i < size; i++) {
-            result.add(generateEntityData(entity));
+    /**
+     * Produit les lignes à la demande : aucune ligne n'est conservée par le générateur.
+     * Le flux peut être rendu parallèle ; son découpage suit les tranches, si bien que
+     * son contenu ne dépend pas du nombre de threads.
+     */
+    @Override
+    public Stream<Map<String, Object>> stream(Entity entity, long size) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
         }
-        return result;
+        return StreamSupport.stream(new RowSpliterator(GenerationPlan.compile(entity, dataSource, zone), 0, size), false);
     }
 
-    private Map<String, Object> generateEntityData(Entity entity) {
+    /**
+     * Produit les lots à la demande, remplis colonne par colonne sans boxing.
+     * Comme pour {@link #stream(Entity, long)}, le flux peut être rendu parallèle.
+     */
+    @Override
+    public Stream<RowBatch> batches(Entity entity, long size, int batchSize) {
         Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
-        Map<String, Object> data = new LinkedHashMap<>();
-        
-        // Générer les attributs de l'entité
-        if (entity.getAttributes() != null) {
-            for (Attribute attribute : entity.getAttributes()) {
-                if (attribute != null && attribute.getName() != null) {
-                    data.put(attribute.getName(), generateValue(attribute));
-                }
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
+        }
+        return batches(entity, 0, size, batchSize);
+    }
+
+    /**
+     * Produit à la demande les lots couvrant les lignes [fromRow, toRow), sans produire
+     * les lignes précédentes ; plusieurs producteurs peuvent ainsi se partager un jeu de
+     * données par plages.
+     * @param entity L'entité pour laquelle générer les données
+     * @param fromRow L'indice de la première ligne, inclus
+     * @param toRow L'indice de la dernière ligne, exclu
+     * @param batchSize Le nombre maximal de lignes par lot
+     * @return Un flux ordonné de lots
+     */
+    public Stream<RowBatch> batches(Entity entity, long fromRow, long toRow, int batchSize) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        checkRange(fromRow, toRow);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("La taille des lots doit être supérieure à 0");
+        }
+        GenerationPlan plan = GenerationPlan.compile(entity, dataSource, zone);
+        return StreamSupport.stream(new BatchSpliterator(plan, fromRow, toRow, batchSize), false);
+    }
+
+    /**
+     * Retourne la graine du générateur.
+     * @return La graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne la source des vocabulaires.
+     * @return La source de données
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Retourne le nombre de threads utilisés par {@link #generate(Entity, int)}.
+     * @return Le nombre de threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Définit le nombre de threads utilisés par {@link #generate(Entity, int)}.
+     * @param parallelism Le nombre de threads, par exemple {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Le parallélisme doit être supérieur à 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Retourne le fuseau des dates et heures générées.
+     * @return Le fuseau, celui du système par défaut
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Définit le fuseau des dates et heures générées. Il est résolu une fois par génération :
+     * les bornes (« maintenant », instants des contraintes DATETIME) y sont converties en
+     * dates et heures locales.
+     * @param zone Le fuseau, par exemple {@code ZoneOffset.UTC}
+     */
+    public void setZone(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "Le fuseau ne peut pas être nul");
+    }
+
+    private static void checkRange(long fromRow, long toRow) {
+        if (fromRow < 0 || toRow <= fromRow) {
+            throw new IllegalArgumentException("La plage de lignes [" + fromRow + ", " + toRow + ") est invalide");
+        }
+    }
+
+    private List<Map<String, Object>> generateRange(GenerationPlan plan, long fromRow, long toRow) {
+        int size = (int) (toRow - fromRow);
+        int shardCount = (int) ((size + (long) SHARD_SIZE - 1) / SHARD_SIZE);
+        if (parallelism == 1 || shardCount == 1) {
+            List<Map<String, Object>> result = new ArrayList<>(size);
+            new RowSpliterator(plan, fromRow, toRow).forEachRemaining(result::add);
+            return result;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, shardCount));
+        try {
+            List<Future<List<Map<String, Object>>>> shards = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                long from = fromRow + (long) shard * SHARD_SIZE;
+                long to = Math.min(from + SHARD_SIZE, toRow);
+                shards.add(executor.submit(() -> {
+                    List<Map<String, Object>> rows = new ArrayList<>((int) (to - from));
+                    new RowSpliterator(plan, from, to).forEachRemaining(rows::add);
+                    return rows;
+                }));
+            }
+
+            // Réassemblage dans l'ordre des tranches
+            List<Map<String, Object>> result = new ArrayList<>(size);
+            for (Future<List<Map<String, Object>>> shard : shards) {
+                result.addAll(shard.get());
             }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Génération interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors de la génération : " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
-        
-        // Gérer les sous-entités
-        if (entity.getSubEntities() != null) {
-            for (Entity subEntity : entity.getSubEntities()) {
-                if (subEntity != null && subEntity.getName() != null) {
-                    data.put(subEntity.getName(), generateEntityData(subEntity));
-                }
+    }
+
+    /**
+     * Crée le flux aléatoire propre à une ligne, par hachage de la graine et de l'indice.
+     */
+    private SplittableRandom rowRandom(long row) {
+        return new SplittableRandom(mix64(seed ^ mix64(row * GOLDEN_GAMMA + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64.
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Parcourt une plage de lignes [from, to) ; par défaut, les découpages se font aux
+     * frontières de tranches.
+     */
+    private abstract class RangeSpliterator<T> implements Spliterator<T> {
+        final GenerationPlan plan;
+        long row;
+        final long to;
+
+        RangeSpliterator(GenerationPlan plan, long from, long to) {
+            this.plan = plan;
+            this.row = from;
+            this.to = to;
+        }
+
+        /**
+         * Génère les lignes suivantes dans un nouveau lot.
+         */
+        RowBatch nextBatch(int maxRows) {
+            int count = (int) Math.min(maxRows, to - row);
+            RowBatch batch = plan.newBatch(count);
+            for (int i = 0; i < count; i++, row++) {
+                plan.fill(batch, i, rowRandom(row));
             }
+            batch.setSize(count);
+            return batch;
+        }
+
+        /**
+         * Crée le spliterator couvrant [from, mid).
+         */
+        abstract RangeSpliterator<T> prefix(long from, long mid);
+
+        /**
+         * Indique si des lignes déjà générées restent à consommer.
+         */
+        boolean hasPending() {
+            return false;
+        }
+
+        /**
+         * Retourne l'indice de ligne où couper la plage restante, au plus tard en son milieu.
+         */
+        long splitPoint() {
+            return ((row + to) >>> 1) / SHARD_SIZE * SHARD_SIZE;
         }
-        
-        return data;
-    }
-
-    private Object generateValue(Attribute attribute) {
-        Objects.requireNonNull(attribute, "L'attribut ne peut pas être nul");
-        
-        // Vérifier les valeurs possibles définies dans les contraintes
-        if (attribute.getConstraints() != null && 
-            attribute.getConstraints().getPossibleValues() != null && 
-            !attribute.getConstraints().getPossibleValues().isEmpty()) {
-            List<String> possibleValues = attribute.getConstraints().getPossibleValues();
-            return possibleValues.get(random.nextInt(possibleValues.size()));
-        }
-
-        // Générer une valeur aléatoire selon le type
-        if (attribute.getType() == null) {
-            return generateRandomString(); // Valeur par défaut si le type n'est pas défini
-        }
-        
-        switch (attribute.getType()) {
-            case STRING:
-                return generateRandomString(attribute.getConstraints());
-            case INTEGER:
-                return generateRandomInteger(attribute.getConstraints());
-            case FLOAT:
-                return generateRandomDouble(attribute.getConstraints());
-            case BOOLEAN:
-                return random.nextBoolean();
-            case DATE:
-                return generateRandomDate(attribute.getConstraints());
-            case ENUM:
-                return generateRandomEnum();
-            default:
-                return generateRandomString(); // Valeur par défaut pour les types non gérés
-        }
-    }
-    
-    private String generateRandomEnum() {
-        return "ENUM_VALUE_" + (char)('A' + random.nextInt(26));
-    }
-
-    private String generateRandomString() {
-        return generateRandomString(new Constraints());
-    }
-    
-    private String generateRandomString(Constraints constraints) {
-        int minLength = (constraints != null && constraints.getMin() != null) ? 
-                       constraints.getMin().intValue() : 1;
-        int maxLength = (constraints != null && constraints.getMax() != null) ? 
-                       constraints.getMax().intValue() : DEFAULT_STRING_LENGTH;
-        
-        int length = minLength >= maxLength ? minLength : 
-                    minLength + random.nextInt(maxLength - minLength + 1);
-        
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
-        }
-        return sb.toString();
-    }
-
-    private int generateRandomInteger(Constraints constraints) {
-        int min = (constraints != null && constraints.getMin() != null) ? 
-                 constraints.getMin().intValue() : 0;
-        int max = (constraints != null && constraints.getMax() != null) ? 
-                 constraints.getMax().intValue() : DEFAULT_MAX_INT;
-        
-        if (min >= max) {
-            return min;
-        }
-        return random.nextInt(max - min + 1) + min;
-    }
-
-    private double generateRandomDouble(Constraints constraints) {
-        double min = (constraints != null && constraints.getMin() != null) ? 
-                    constraints.getMin() : 0.0;
-        double max = (constraints != null && constraints.getMax() != null) ? 
-                    constraints.getMax() : DEFAULT_MAX_DOUBLE;
-        
-        if (min >= max) {
-            return min;
-        }
-        return min + (max - min) * random.nextDouble();
-    }
-
-    private Date generateRandomDate(Constraints constraints) {
-        LocalDate startDate = LocalDate.of(1970, 1, 1);
-        LocalDate endDate = LocalDate.now().plusYears(1);
-        
-        if (constraints != null) {
-            if (constraints.getMin() != null) {
-                startDate = LocalDate.ofEpochDay(constraints.getMin().longValue());
+
+        @Override
+        public Spliterator<T> trySplit() {
+            long mid = splitPoint();
+            if (mid <= row || hasPending()) {
+                return null;
             }
-            if (constraints.getMax() != null) {
-                endDate = LocalDate.ofEpochDay(constraints.getMax().longValue());
+            RangeSpliterator<T> prefix = prefix(row, mid);
+            this.row = mid;
+            return prefix;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Produit les lignes une à une, à partir de petits lots.
+     */
+    private final class RowSpliterator extends RangeSpliterator<Map<String, Object>> {
+        private static final int BUFFER_SIZE = 256;
+        private RowBatch buffer;
+        private int index;
+
+        RowSpliterator(GenerationPlan plan, long from, long to) {
+            super(plan, from, to);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+            if (!hasPending()) {
+                if (row >= to) {
+                    return false;
+                }
+                buffer = nextBatch(BUFFER_SIZE);
+                index = 0;
             }
+            action.accept(buffer.toRow(index++));
+            return true;
+        }
+
+        @Override
+        boolean hasPending() {
+            return buffer != null && index < buffer.size();
+        }
+
+        @Override
+        RangeSpliterator<Map<String, Object>> prefix(long from, long mid) {
+            return new RowSpliterator(plan, from, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - row + (hasPending() ? buffer.size() - index : 0);
+        }
+    }
+
+    /**
+     * Produit des lots d'au plus {@code batchSize} lignes.
+     * <p>
+     * Les découpages tombent sur des frontières de lots, comptées depuis la ligne courante :
+     * les deux moitiés produisent alors exactement les lots qu'aurait produits la plage entière,
+     * ce qu'exigent {@code SIZED} et {@code SUBSIZED}. Chaque moitié couvre au moins une tranche.
+     */
+    private final class BatchSpliterator extends RangeSpliterator<RowBatch> {
+        private final int batchSize;
+        private final long splitUnit;
+
+        BatchSpliterator(GenerationPlan plan, long from, long to, int batchSize) {
+            super(plan, from, to);
+            this.batchSize = batchSize;
+            this.splitUnit = (long) ((SHARD_SIZE + batchSize - 1) / batchSize) * batchSize;
+        }
+
+        @Override
+        long splitPoint() {
+            return row + (to - row) / 2 / splitUnit * splitUnit;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RowBatch> action) {
+            if (row >= to) {
+                return false;
+            }
+            action.accept(nextBatch(batchSize));
+            return true;
+        }
+
+        @Override
+        RangeSpliterator<RowBatch> prefix(long from, long mid) {
+            return new BatchSpliterator(plan, from, mid, batchSize);
+        }
+
+        @Override
+        public long estimateSize() {
+            return (to - row + batchSize - 1) / batchSize;
         }
-        
-        long minDay = startDate.toEpochDay();
-        long maxDay = endDate.toEpochDay();
-        
-        // Éviter les débordements
-        long range = maxDay - minDay + 1;
-        if (range <= 0) {
-            range = 1;
-        }
-        
-        long randomDay = minDay + (long)(random.nextDouble() * range);
-        
-        return Date.from(
-            LocalDate.ofEpochDay(randomDay)
-                    .atStartOfDay(ZoneId.systemDefault())
-                    .toInstant()
-        );
     }
 }
@@ -0,0 +1,403 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.datasource.Vocabulary;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Générateurs des types texte spécialisés (identités, adresses, identifiants techniques, textes).
+ * <p>
+ * Les vocabulaires sont extraits de la {@link main.java.com.dataset.generator.datasource.DataSource}
+ * lors de la compilation : les valeurs simples sont tirées directement dans le {@link Vocabulary},
+ * qui devient le {@link Dictionary} de la colonne s'il est court, et celles qui entrent dans un
+ * format (email, URL) sont déjà converties en tableaux de caractères ASCII minuscules. Chaque valeur est ensuite formatée directement dans
+ * un tableau de caractères de la bonne taille : ni {@code String.format}, ni {@code substring},
+ * ni concaténations intermédiaires.
+ */
+final class SpecializedGenerators {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] LOWER = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] SYMBOLS = "!#$%&*+-=?@_".toCharArray();
+    private static final char[] PASSWORD_CHARS = (new String(LOWER) + new String(UPPER) +
+                                                  new String(DIGITS) + new String(SYMBOLS)).toCharArray();
+    private static final int DEFAULT_PASSWORD_MIN = 12;
+    private static final int DEFAULT_PASSWORD_MAX = 16;
+
+    static final String[] EMAIL_DOMAINS = {
+        "example.com", "example.fr", "example.org", "mail.test", "exemple.fr"
+    };
+    private static final String[] TLDS = {"com", "fr", "net", "org", "io"};
+    private static final String[] COUNTRIES = {
+        "France", "Belgique", "Suisse", "Luxembourg", "Canada", "Allemagne", "Espagne", "Italie",
+        "Portugal", "Royaume-Uni", "Irlande", "Pays-Bas", "Autriche", "Suède", "Norvège", "Danemark",
+        "Finlande", "Pologne", "Grèce", "États-Unis", "Mexique", "Brésil", "Argentine", "Japon",
+        "Chine", "Inde", "Maroc", "Tunisie", "Sénégal", "Australie"
+    };
+    private static final String[] CURRENCIES = {
+        "EUR", "USD", "GBP", "CHF", "JPY", "CAD", "AUD", "CNY", "SEK", "NOK", "DKK", "PLN", "MAD", "XOF"
+    };
+    private static final String[] STREET_TYPES = {
+        "rue", "avenue", "boulevard", "place", "allée", "chemin", "impasse", "quai"
+    };
+    private static final String[] WORDS = {
+        "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+        "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "enim",
+        "ad", "minim", "veniam", "quis", "nostrud", "exercitation", "ullamco", "laboris", "nisi",
+        "aliquip", "ex", "ea", "commodo", "consequat", "duis", "aute", "irure", "in", "reprehenderit",
+        "voluptate", "velit", "esse", "cillum", "fugiat", "nulla", "pariatur", "excepteur", "sint",
+        "occaecat", "cupidatat", "non", "proident", "sunt", "culpa", "qui", "officia", "deserunt",
+        "mollit", "anim", "id", "est", "laborum"
+    };
+
+    private SpecializedGenerators() {
+    }
+
+    /**
+     * Résout le générateur d'un type texte spécialisé.
+     * @param type Le type de l'attribut
+     * @param constraints Les contraintes de l'attribut, éventuellement nulles
+     * @param vocabularies Les vocabulaires de la source de données
+     * @return Le générateur, ou null si le type n'est pas un type texte spécialisé
+     */
+    static ValueGenerator forType(DataType type, Constraints constraints, Vocabularies vocabularies) {
+        switch (type) {
+            case EMAIL:
+                return email(vocabularies);
+            case PHONE_NUMBER:
+                return ValueGenerator.ofString(SpecializedGenerators::phoneNumber);
+            case URL:
+                return url(vocabularies);
+            case UUID:
+                return ValueGenerator.ofString(SpecializedGenerators::uuid);
+            case FIRST_NAME:
+                return pick(vocabularies.firstNames());
+            case LAST_NAME:
+                return pick(vocabularies.lastNames());
+            case FULL_NAME:
+                return fullName(vocabularies);
+            case CITY:
+                return pick(vocabularies.cities());
+            case COUNTRY:
+                return pick(COUNTRIES);
+            case ADDRESS:
+                return address(vocabularies);
+            case POSTAL_CODE:
+                return ValueGenerator.ofString(SpecializedGenerators::postalCode);
+            case PROFESSION:
+                return pick(vocabularies.professions());
+            case COMPANY_NAME:
+                return pick(vocabularies.companyNames());
+            case PRODUCT_NAME:
+                return pick(vocabularies.productNames());
+            case CURRENCY:
+                return pick(CURRENCIES);
+            case TEXT:
+                return ValueGenerator.ofString(random -> sentences(random, 2, 5));
+            case DESCRIPTION:
+                return ValueGenerator.ofString(random -> sentences(random, 1, 1));
+            case TITLE:
+                return ValueGenerator.ofString(random -> words(random, 2, 6, ' ', true));
+            case SLUG:
+                return ValueGenerator.ofString(random -> words(random, 2, 5, '-', false));
+            case PASSWORD:
+                return password(constraints);
+            case IP_ADDRESS:
+                return ValueGenerator.ofString(SpecializedGenerators::ipAddress);
+            case MAC_ADDRESS:
+                return ValueGenerator.ofString(SpecializedGenerators::macAddress);
+            case JSON:
+                return ValueGenerator.ofString(SpecializedGenerators::json);
+            case XML:
+                return ValueGenerator.ofString(SpecializedGenerators::xml);
+            default:
+                return null;
+        }
+    }
+
+    private static ValueGenerator pick(String[] values) {
+        return ValueGenerators.choice(values, random -> random.nextInt(values.length));
+    }
+
+    /**
+     * Tire dans un vocabulaire ; un vocabulaire court devient le dictionnaire de la colonne.
+     */
+    private static ValueGenerator pick(Vocabulary vocabulary) {
+        Dictionary dictionary = dictionaryOf(vocabulary);
+        if (dictionary == null) {
+            return ValueGenerator.ofString(vocabulary::sample);
+        }
+        return ValueGenerator.ofDictionary(dictionary, random -> random.nextInt(dictionary.size()));
+    }
+
+    /**
+     * Construit le dictionnaire d'un vocabulaire court, dans l'ordre du vocabulaire.
+     * @return Le dictionnaire, ou null si le vocabulaire dépasse {@link Dictionary#MAX_SIZE} entrées
+     *         ou contient une valeur nulle
+     */
+    static Dictionary dictionaryOf(Vocabulary vocabulary) {
+        int size = vocabulary.size();
+        if (size > Dictionary.MAX_SIZE) {
+            return null;
+        }
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = vocabulary.get(i);
+            if (values[i] == null) {
+                return null;
+            }
+        }
+        return new Dictionary(values);
+    }
+
+    private static ValueGenerator email(Vocabularies vocabularies) {
+        FoldedVocabulary firstNames = new FoldedVocabulary(vocabularies.firstNames());
+        FoldedVocabulary lastNames = new FoldedVocabulary(vocabularies.lastNames());
+        char[][] domains = toChars(EMAIL_DOMAINS);
+        return ValueGenerator.ofString(random -> {
+            char[] first = firstNames.get(random.nextInt(firstNames.size()));
+            char[] last = lastNames.get(random.nextInt(lastNames.size()));
+            char[] domain = domains[random.nextInt(domains.length)];
+
+            // prenom.nom42@domaine
+            char[] buffer = new char[first.length + last.length + domain.length + 4];
+            int position = copy(first, buffer, 0);
+            buffer[position++] = '.';
+            position = copy(last, buffer, position);
+            position = digits(buffer, position, random.nextInt(100), 2);
+            buffer[position++] = '@';
+            copy(domain, buffer, position);
+            return new String(buffer);
+        });
+    }
+
+    static String phoneNumber(SplittableRandom random) {
+        // 0X XX XX XX XX
+        char[] buffer = new char[14];
+        buffer[0] = '0';
+        buffer[1] = (char) ('1' + random.nextInt(9));
+        int rest = random.nextInt(100_000_000);
+        for (int pair = 3; pair >= 0; pair--) {
+            int position = 3 + pair * 3;
+            buffer[position - 1] = ' ';
+            digits(buffer, position, rest % 100, 2);
+            rest /= 100;
+        }
+        return new String(buffer);
+    }
+
+    private static ValueGenerator url(Vocabularies vocabularies) {
+        FoldedVocabulary hosts = new FoldedVocabulary(vocabularies.companyNames());
+        char[][] tlds = toChars(TLDS);
+        char[][] paths = toChars(WORDS);
+        char[] scheme = "https://www.".toCharArray();
+        return ValueGenerator.ofString(random -> {
+            char[] host = hosts.get(random.nextInt(hosts.size()));
+            char[] tld = tlds[random.nextInt(tlds.length)];
+            char[] path = paths[random.nextInt(paths.length)];
+
+            char[] buffer = new char[scheme.length + host.length + tld.length + path.length + 2];
+            int position = copy(scheme, buffer, 0);
+            position = copy(host, buffer, position);
+            buffer[position++] = '.';
+            position = copy(tld, buffer, position);
+            buffer[position++] = '/';
+            copy(path, buffer, position);
+            return new String(buffer);
+        });
+    }
+
+    private static String uuid(SplittableRandom random) {
+        // UUID de version 4, variante IETF
+        long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        char[] buffer = new char[36];
+        hex(buffer, 0, high >>> 32, 8);
+        buffer[8] = '-';
+        hex(buffer, 9, high >>> 16, 4);
+        buffer[13] = '-';
+        hex(buffer, 14, high, 4);
+        buffer[18] = '-';
+        hex(buffer, 19, low >>> 48, 4);
+        buffer[23] = '-';
+        hex(buffer, 24, low, 12);
+        return new String(buffer);
+    }
+
+    private static ValueGenerator fullName(Vocabularies vocabularies) {
+        Vocabulary firstNames = vocabularies.firstNames();
+        Vocabulary lastNames = vocabularies.lastNames();
+        return ValueGenerator.ofString(random -> firstNames.sample(random) + ' ' + lastNames.sample(random));
+    }
+
+    private static ValueGenerator address(Vocabularies vocabularies) {
+        Vocabulary firstNames = vocabularies.firstNames();
+        Vocabulary lastNames = vocabularies.lastNames();
+        return ValueGenerator.ofString(random -> (1 + random.nextInt(199)) + " " +
+                                                 STREET_TYPES[random.nextInt(STREET_TYPES.length)] + ' ' +
+                                                 firstNames.sample(random) + ' ' +
+                                                 lastNames.sample(random));
+    }
+
+    private static String postalCode(SplittableRandom random) {
+        // Département 01 à 95 suivi de trois chiffres
+        char[] buffer = new char[5];
+        digits(buffer, 0, 1 + random.nextInt(95), 2);
+        digits(buffer, 2, random.nextInt(1000), 3);
+        return new String(buffer);
+    }
+
+    private static String sentences(SplittableRandom random, int minSentences, int maxSentences) {
+        int count = minSentences + random.nextInt(maxSentences - minSentences + 1);
+        StringBuilder text = new StringBuilder(count * 80);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            appendWords(text, random, 6 + random.nextInt(9), ' ', true);
+            text.append('.');
+        }
+        return text.toString();
+    }
+
+    private static String words(SplittableRandom random, int minWords, int maxWords,
+                                char separator, boolean capitalize) {
+        int count = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder(count * 8);
+        appendWords(text, random, count, separator, capitalize);
+        return text.toString();
+    }
+
+    private static void appendWords(StringBuilder text, SplittableRandom random, int count,
+                                    char separator, boolean capitalize) {
+        int start = text.length();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(separator);
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (capitalize) {
+            text.setCharAt(start, Character.toUpperCase(text.charAt(start)));
+        }
+    }
+
+    private static ValueGenerator password(Constraints constraints) {
+        int minLength = (constraints != null && constraints.getLongueurMin() != null) ?
+                       Math.max(constraints.getLongueurMin(), 4) : DEFAULT_PASSWORD_MIN;
+        int maxLength = (constraints != null && constraints.getLongueurMax() != null) ?
+                       Math.max(constraints.getLongueurMax(), minLength) : Math.max(DEFAULT_PASSWORD_MAX, minLength);
+        int lengthRange = maxLength - minLength + 1;
+        return ValueGenerator.ofString(random -> {
+            char[] buffer = new char[minLength + random.nextInt(lengthRange)];
+
+            // Au moins un caractère de chaque classe, puis mélange
+            buffer[0] = LOWER[random.nextInt(LOWER.length)];
+            buffer[1] = UPPER[random.nextInt(UPPER.length)];
+            buffer[2] = DIGITS[random.nextInt(DIGITS.length)];
+            buffer[3] = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            for (int i = 4; i < buffer.length; i++) {
+                buffer[i] = PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)];
+            }
+            for (int i = buffer.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                char swap = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = swap;
+            }
+            return new String(buffer);
+        });
+    }
+
+    private static String ipAddress(SplittableRandom random) {
+        int bits = random.nextInt();
+        char[] buffer = new char[15];
+        int position = 0;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            if (shift != 24) {
+                buffer[position++] = '.';
+            }
+            position = decimal(buffer, position, (bits >>> shift) & 0xFF);
+        }
+        return new String(buffer, 0, position);
+    }
+
+    private static String macAddress(SplittableRandom random) {
+        // Adresse unicast administrée localement
+        long bits = (random.nextLong() & ~0x0100_0000_0000L) | 0x0200_0000_0000L;
+        char[] buffer = new char[17];
+        for (int octet = 0; octet < 6; octet++) {
+            if (octet > 0) {
+                buffer[octet * 3 - 1] = ':';
+            }
+            hex(buffer, octet * 3, bits >>> (40 - octet * 8), 2);
+        }
+        return new String(buffer);
+    }
+
+    private static String json(SplittableRandom random) {
+        StringBuilder json = new StringBuilder(48);
+        json.append("{\"id\":").append(random.nextInt(1_000_000))
+            .append(",\"code\":\"").append(WORDS[random.nextInt(WORDS.length)])
+            .append("\",\"actif\":").append(random.nextBoolean())
+            .append('}');
+        return json.toString();
+    }
+
+    private static String xml(SplittableRandom random) {
+        StringBuilder xml = new StringBuilder(64);
+        xml.append("<element id=\"").append(random.nextInt(1_000_000))
+           .append("\"><code>").append(WORDS[random.nextInt(WORDS.length)])
+           .append("</code><actif>").append(random.nextBoolean())
+           .append("</actif></element>");
+        return xml.toString();
+    }
+
+    static char[][] toChars(String[] values) {
+        char[][] result = new char[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i].toCharArray();
+        }
+        return result;
+    }
+
+    static int copy(char[] source, char[] buffer, int position) {
+        System.arraycopy(source, 0, buffer, position, source.length);
+        return position + source.length;
+    }
+
+    /**
+     * Écrit un entier positif sur exactement {@code width} chiffres.
+     */
+    private static int digits(char[] buffer, int position, int value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            buffer[position + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+
+    /**
+     * Écrit un entier de 0 à 255 sans zéros non significatifs.
+     */
+    private static int decimal(char[] buffer, int position, int value) {
+        if (value >= 100) {
+            return digits(buffer, position, value, 3);
+        }
+        return digits(buffer, position, value, value >= 10 ? 2 : 1);
+    }
+
+    /**
+     * Écrit les {@code width} derniers chiffres hexadécimaux d'une valeur.
+     */
+    private static void hex(char[] buffer, int position, long value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            buffer[position + i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Générateur de valeurs pour un attribut, résolu une fois pour toutes lors de la
+ * compilation d'un {@link GenerationPlan}.
+ * Les implémentations sont sans état : elles peuvent être partagées entre threads,
+ * chacun fournissant son propre flux aléatoire.
+ */
+public interface ValueGenerator {
+    /**
+     * Retourne la représentation de la colonne produite.
+     * @return Le type de colonne
+     */
+    ColumnType getColumnType();
+
+    /**
+     * Produit la valeur suivante directement dans une colonne.
+     * @param random Le flux aléatoire du thread appelant
+     * @param column La colonne de destination, du type {@link #getColumnType()}
+     * @param row L'indice de la ligne dans le lot
+     */
+    void generate(SplittableRandom random, RowBatch.Column column, int row);
+
+    /**
+     * Retourne le dictionnaire dont sont tirées les valeurs d'une colonne STRING.
+     * @return Le dictionnaire, ou null si les valeurs ne sont pas tirées d'un dictionnaire
+     */
+    default Dictionary getDictionary() {
+        return null;
+    }
+
+    /**
+     * Crée un générateur de colonne INT.
+     */
+    static ValueGenerator ofInt(ToIntFunction<SplittableRandom> source) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.INT;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setInt(row, source.applyAsInt(random));
+            }
+        };
+    }
+
+    /**
+     * Crée un générateur de colonne stockée en {@code long} (LONG ou DATE).
+     */
+    static ValueGenerator ofLong(ColumnType type, ToLongFunction<SplittableRandom> source) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return type;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setLong(row, source.applyAsLong(random));
+            }
+        };
+    }
+
+    /**
+     * Crée un générateur de colonne DOUBLE.
+     */
+    static ValueGenerator ofDouble(ToDoubleFunction<SplittableRandom> source) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.DOUBLE;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setDouble(row, source.applyAsDouble(random));
+            }
+        };
+    }
+
+    /**
+     * Crée un générateur de colonne BOOLEAN.
+     */
+    static ValueGenerator ofBoolean(Predicate<SplittableRandom> source) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.BOOLEAN;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setBoolean(row, source.test(random));
+            }
+        };
+    }
+
+    /**
+     * Crée un générateur de colonne STRING.
+     */
+    static ValueGenerator ofString(Function<SplittableRandom, String> source) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.STRING;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setObject(row, source.apply(random));
+            }
+        };
+    }
+
+    /**
+     * Crée un générateur de colonne STRING dont les valeurs sont des entrées d'un dictionnaire ;
+     * la colonne reçoit l'indice de l'entrée en plus de la chaîne.
+     * @param dictionary Le dictionnaire, déclaré par le schéma de la colonne
+     * @param ids Le tirage de l'indice d'une entrée
+     */
+    static ValueGenerator ofDictionary(Dictionary dictionary, ToIntFunction<SplittableRandom> ids) {
+        return new ValueGenerator() {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.STRING;
+            }
+
+            @Override
+            public void generate(SplittableRandom random, RowBatch.Column column, int row) {
+                column.setDictionaryId(row, ids.applyAsInt(random));
+            }
+
+            @Override
+            public Dictionary getDictionary() {
+                return dictionary;
+            }
+        };
+    }
+}
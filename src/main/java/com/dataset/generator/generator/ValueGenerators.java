@@ -0,0 +1,333 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.Temporals;
+import main.java.com.dataset.generator.generator.distribution.AliasTable;
+import main.java.com.dataset.generator.generator.distribution.Sampler;
+import main.java.com.dataset.generator.generator.distribution.Samplers;
+import main.java.com.dataset.generator.generator.pattern.PatternGenerator;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fabrique des {@link ValueGenerator} à partir des attributs.
+ * Toutes les vérifications de contraintes sont faites ici, une seule fois par attribut ;
+ * les lois non uniformes sont résolues par {@link Samplers}, les motifs par {@link PatternGenerator}
+ * et les types texte spécialisés par {@link SpecializedGenerators}.
+ */
+final class ValueGenerators {
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int DEFAULT_STRING_LENGTH = 10;
+    private static final int DEFAULT_MAX_INT = 1000;
+    private static final int DEFAULT_MAX_MAGNITUDE = 1_000_000;
+    private static final int DEFAULT_MAX_AGE = 100;
+    private static final int DEFAULT_MIN_YEAR = 1970;
+    private static final double DEFAULT_MAX_DOUBLE = 1000.0;
+    private static final double DEFAULT_MAX_PERCENTAGE = 100.0;
+    private static final String[] ENUM_VALUES = new String[26];
+
+    static {
+        for (int i = 0; i < ENUM_VALUES.length; i++) {
+            ENUM_VALUES[i] = "ENUM_VALUE_" + (char) ('A' + i);
+        }
+    }
+
+    private ValueGenerators() {
+    }
+
+    /**
+     * Résout le générateur d'un attribut.
+     * @param attribute L'attribut
+     * @param vocabularies Les vocabulaires de la source de données
+     * @param zone Le fuseau des valeurs temporelles
+     * @return Le générateur correspondant à son type et à ses contraintes
+     */
+    static ValueGenerator forAttribute(Attribute attribute, Vocabularies vocabularies, ZoneId zone) {
+        Constraints constraints = attribute.getConstraints();
+
+        // Les valeurs possibles définies dans les contraintes priment sur le type
+        if (constraints != null && constraints.getPossibleValues() != null &&
+            !constraints.getPossibleValues().isEmpty()) {
+            return pick(constraints.getPossibleValues(), constraints.getPossibleValueWeights());
+        }
+
+        // Puis le motif, compilé une fois ; un motif invalide est refusé avant toute génération
+        if (constraints != null && constraints.getPattern() != null) {
+            if (!isTextual(attribute.getType())) {
+                throw new IllegalArgumentException("Un motif ne peut pas s'appliquer à l'attribut '" +
+                                                   attribute.getName() + "' de type " + attribute.getType());
+            }
+            return ValueGenerator.ofString(PatternGenerator.compile(constraints.getPattern())::generate);
+        }
+
+        if (attribute.getType() == null) {
+            return randomString(null); // Valeur par défaut si le type n'est pas défini
+        }
+
+        switch (attribute.getType()) {
+            case STRING:
+                return randomString(constraints);
+            case INTEGER:
+                return randomInteger(constraints, 0, DEFAULT_MAX_INT);
+            case POSITIVE_INTEGER:
+                return randomInteger(constraints, 1, DEFAULT_MAX_MAGNITUDE);
+            case NEGATIVE_INTEGER:
+                return randomInteger(constraints, -DEFAULT_MAX_MAGNITUDE, -1);
+            case AGE:
+                return randomInteger(constraints, 0, DEFAULT_MAX_AGE);
+            case YEAR:
+                return randomInteger(constraints, DEFAULT_MIN_YEAR, LocalDate.now(zone).getYear());
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+                return ValueGenerator.ofDouble(randomDouble(constraints, 0.0, DEFAULT_MAX_DOUBLE));
+            case PRICE:
+                return roundedToCents(randomDouble(constraints, 0.0, DEFAULT_MAX_DOUBLE));
+            case PERCENTAGE:
+                return roundedToCents(randomDouble(constraints, 0.0, DEFAULT_MAX_PERCENTAGE));
+            case BOOLEAN:
+                return ValueGenerator.ofBoolean(SplittableRandom::nextBoolean);
+            case DATE:
+                return randomDate(constraints, zone);
+            case DATETIME:
+                return randomDateTime(constraints, zone);
+            case TIME:
+                return randomTime(constraints);
+            case ENUM:
+                return choice(ENUM_VALUES, random -> random.nextInt(ENUM_VALUES.length));
+            default:
+                ValueGenerator specialized = SpecializedGenerators.forType(attribute.getType(), constraints, vocabularies);
+                return specialized != null ? specialized : randomString(null); // Valeur par défaut pour les types non gérés
+        }
+    }
+
+    private static boolean isTextual(DataType type) {
+        if (type == null) {
+            return true;
+        }
+        switch (type) {
+            case INTEGER:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+            case DATE:
+            case DATETIME:
+            case TIME:
+            case PERCENTAGE:
+            case POSITIVE_INTEGER:
+            case NEGATIVE_INTEGER:
+            case DECIMAL:
+            case PRICE:
+            case AGE:
+            case YEAR:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static ValueGenerator pick(List<String> possibleValues, List<Double> weights) {
+        String[] values = possibleValues.toArray(new String[0]);
+        if (weights == null) {
+            return choice(values, random -> random.nextInt(values.length));
+        }
+        if (weights.size() != values.length) {
+            throw new IllegalArgumentException("Le nombre de poids (" + weights.size() +
+                                               ") doit être égal au nombre de valeurs possibles (" + values.length + ")");
+        }
+
+        // Table d'alias construite une fois par attribut : tirage en temps constant
+        double[] table = new double[values.length];
+        for (int i = 0; i < table.length; i++) {
+            Double weight = weights.get(i);
+            table[i] = weight != null ? weight : Double.NaN;
+        }
+        AliasTable alias = new AliasTable(table);
+        return choice(values, alias::sample);
+    }
+
+    /**
+     * Crée le générateur d'un choix parmi des valeurs : les valeurs forment le dictionnaire de la
+     * colonne, sauf si l'une d'elles est nulle.
+     * @param values Les valeurs
+     * @param ids Le tirage de l'indice de la valeur
+     * @return Le générateur
+     */
+    static ValueGenerator choice(String[] values, ToIntFunction<SplittableRandom> ids) {
+        for (String value : values) {
+            if (value == null) {
+                return ValueGenerator.ofString(random -> values[ids.applyAsInt(random)]);
+            }
+        }
+        return ValueGenerator.ofDictionary(new Dictionary(values), ids);
+    }
+
+    private static ValueGenerator randomString(Constraints constraints) {
+        int minLength = (constraints != null && constraints.getMin() != null) ?
+                       constraints.getMin().intValue() : 1;
+        int maxLength = (constraints != null && constraints.getMax() != null) ?
+                       constraints.getMax().intValue() : DEFAULT_STRING_LENGTH;
+
+        if (minLength >= maxLength) {
+            return ValueGenerator.ofString(random -> randomChars(random, minLength));
+        }
+        int lengthRange = maxLength - minLength + 1;
+        return ValueGenerator.ofString(random -> randomChars(random, minLength + random.nextInt(lengthRange)));
+    }
+
+    private static String randomChars(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    private static ValueGenerator randomInteger(Constraints constraints, int defaultMin, int defaultMax) {
+        int min = (constraints != null && constraints.getMin() != null) ?
+                 constraints.getMin().intValue() : defaultMin;
+        int max = (constraints != null && constraints.getMax() != null) ?
+                 constraints.getMax().intValue() : defaultMax;
+
+        if (min >= max) {
+            return ValueGenerator.ofInt(random -> min);
+        }
+        Sampler sampler = Samplers.forConstraints(constraints, min, max, true);
+        if (sampler != null) {
+            return ValueGenerator.ofInt(random -> (int) sampler.sample(random));
+        }
+        int bound = max - min + 1;
+        return ValueGenerator.ofInt(random -> random.nextInt(bound) + min);
+    }
+
+    private static ToDoubleFunction<SplittableRandom> randomDouble(Constraints constraints,
+                                                                  double defaultMin, double defaultMax) {
+        double min = (constraints != null && constraints.getMin() != null) ?
+                    constraints.getMin() : defaultMin;
+        double max = (constraints != null && constraints.getMax() != null) ?
+                    constraints.getMax() : defaultMax;
+
+        if (min >= max) {
+            return random -> min;
+        }
+        Sampler sampler = Samplers.forConstraints(constraints, min, max, false);
+        if (sampler != null) {
+            return sampler::sample;
+        }
+        double range = max - min;
+        return random -> min + range * random.nextDouble();
+    }
+
+    private static ValueGenerator roundedToCents(ToDoubleFunction<SplittableRandom> source) {
+        return ValueGenerator.ofDouble(random -> Math.round(source.applyAsDouble(random) * 100.0) / 100.0);
+    }
+
+    /**
+     * Dates en jours depuis l'époque ; les bornes des contraintes sont exprimées dans la même unité.
+     */
+    private static ValueGenerator randomDate(Constraints constraints, ZoneId zone) {
+        long minDay = LocalDate.of(1970, 1, 1).toEpochDay();
+        long maxDay = LocalDate.now(zone).plusYears(1).toEpochDay();
+
+        if (constraints != null) {
+            if (constraints.getMin() != null) {
+                minDay = constraints.getMin().longValue();
+            }
+            if (constraints.getMax() != null) {
+                maxDay = constraints.getMax().longValue();
+            }
+        }
+
+        // Éviter les débordements
+        long range = Math.max(maxDay - minDay + 1, 1);
+        long firstDay = minDay;
+        if (range > 1) {
+            Sampler sampler = Samplers.forConstraints(constraints, minDay, maxDay, true);
+            if (sampler != null) {
+                return ValueGenerator.ofLong(ColumnType.DATE, random -> (long) sampler.sample(random));
+            }
+        }
+        return ValueGenerator.ofLong(ColumnType.DATE, random -> firstDay + (long) (random.nextDouble() * range));
+    }
+
+    /**
+     * Dates et heures à la seconde. Les bornes des contraintes sont des instants en millisecondes
+     * depuis l'époque, convertis une fois en heure locale du fuseau.
+     */
+    private static ValueGenerator randomDateTime(Constraints constraints, ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        long minInstant = LocalDate.of(1970, 1, 1).atStartOfDay(zone).toEpochSecond() * 1000L;
+        // Borne arrondie au jour, comme pour DATE : le plan ne dépend pas de l'instant de compilation
+        long maxInstant = LocalDate.now(zone).plusYears(1).atStartOfDay(zone).toEpochSecond() * 1000L;
+
+        if (constraints != null) {
+            if (constraints.getMin() != null) {
+                minInstant = constraints.getMin().longValue();
+            }
+            if (constraints.getMax() != null) {
+                maxInstant = constraints.getMax().longValue();
+            }
+        }
+
+        long minSecond = Math.floorDiv(minInstant, 1000L);
+        long maxSecond = Math.max(Math.floorDiv(maxInstant, 1000L), minSecond);
+        if (maxSecond > minSecond) {
+            Sampler sampler = Samplers.forConstraints(constraints, minInstant, maxInstant, true);
+            if (sampler != null) {
+                // Loi définie sur les instants : le décalage du fuseau est appliqué à chaque valeur
+                if (rules.isFixedOffset()) {
+                    long offset = rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+                    return ValueGenerator.ofLong(ColumnType.DATETIME,
+                            random -> Math.floorDiv((long) sampler.sample(random), 1000L) * 1000L + offset);
+                }
+                return ValueGenerator.ofLong(ColumnType.DATETIME, random -> {
+                    long second = Math.floorDiv((long) sampler.sample(random), 1000L);
+                    return (second + rules.getOffset(Instant.ofEpochSecond(second)).getTotalSeconds()) * 1000L;
+                });
+            }
+        }
+
+        // Loi uniforme : la plage est directement convertie en heure locale
+        long firstSecond = localSecond(minSecond, rules);
+        long range = Math.max(localSecond(maxSecond, rules) - firstSecond + 1, 1);
+        return ValueGenerator.ofLong(ColumnType.DATETIME,
+                random -> (firstSecond + random.nextLong(range)) * 1000L);
+    }
+
+    private static long localSecond(long epochSecond, ZoneRules rules) {
+        return epochSecond + rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    /**
+     * Heures à la seconde ; les bornes des contraintes sont des secondes depuis minuit.
+     */
+    private static ValueGenerator randomTime(Constraints constraints) {
+        long lastSecond = Temporals.MILLIS_PER_DAY / 1000L - 1;
+        long minSecond = (constraints != null && constraints.getMin() != null) ?
+                        Math.max(constraints.getMin().longValue(), 0) : 0;
+        long maxSecond = (constraints != null && constraints.getMax() != null) ?
+                        Math.min(constraints.getMax().longValue(), lastSecond) : lastSecond;
+
+        if (minSecond >= maxSecond) {
+            long millis = Math.min(minSecond, lastSecond) * 1000L;
+            return ValueGenerator.ofLong(ColumnType.TIME, random -> millis);
+        }
+        Sampler sampler = Samplers.forConstraints(constraints, minSecond, maxSecond, true);
+        if (sampler != null) {
+            return ValueGenerator.ofLong(ColumnType.TIME, random -> (long) sampler.sample(random) * 1000L);
+        }
+        long range = maxSecond - minSecond + 1;
+        return ValueGenerator.ofLong(ColumnType.TIME, random -> (minSecond + random.nextLong(range)) * 1000L);
+    }
+}
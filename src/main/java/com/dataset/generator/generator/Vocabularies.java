@@ -0,0 +1,77 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.datasource.DataSource;
+import main.java.com.dataset.generator.datasource.Vocabulary;
+
+/**
+ * Vocabulaires d'une {@link DataSource}, extraits lors de la compilation d'un plan.
+ * <p>
+ * Chaque vocabulaire est obtenu une seule fois par {@link DataSource#getVocabulary} et conservé
+ * tel quel : les générateurs tirent directement dans le vocabulaire de la source, sans le copier,
+ * si bien qu'un vocabulaire adossé à un fichier projeté en mémoire n'est jamais chargé sur le
+ * tas. L'ordre des valeurs est celui, déterministe, de la source, ce qui garde les données
+ * reproductibles pour une graine donnée. Seuls les vocabulaires utilisés par le plan sont chargés.
+ */
+final class Vocabularies {
+    private final DataSource dataSource;
+    private Vocabulary firstNames;
+    private Vocabulary lastNames;
+    private Vocabulary cities;
+    private Vocabulary professions;
+    private Vocabulary productNames;
+    private Vocabulary companyNames;
+
+    Vocabularies(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    Vocabulary firstNames() {
+        if (firstNames == null) {
+            firstNames = require(Vocabulary.Category.FIRST_NAMES, "aucun prénom");
+        }
+        return firstNames;
+    }
+
+    Vocabulary lastNames() {
+        if (lastNames == null) {
+            lastNames = require(Vocabulary.Category.LAST_NAMES, "aucun nom de famille");
+        }
+        return lastNames;
+    }
+
+    Vocabulary cities() {
+        if (cities == null) {
+            cities = require(Vocabulary.Category.CITIES, "aucune ville");
+        }
+        return cities;
+    }
+
+    Vocabulary professions() {
+        if (professions == null) {
+            professions = require(Vocabulary.Category.PROFESSIONS, "aucune profession");
+        }
+        return professions;
+    }
+
+    Vocabulary productNames() {
+        if (productNames == null) {
+            productNames = require(Vocabulary.Category.PRODUCT_NAMES, "aucun nom de produit");
+        }
+        return productNames;
+    }
+
+    Vocabulary companyNames() {
+        if (companyNames == null) {
+            companyNames = require(Vocabulary.Category.COMPANY_NAMES, "aucune entreprise");
+        }
+        return companyNames;
+    }
+
+    private Vocabulary require(Vocabulary.Category category, String missing) {
+        Vocabulary vocabulary = dataSource.getVocabulary(category);
+        if (vocabulary == null || vocabulary.size() == 0) {
+            throw new IllegalStateException("La source de données ne fournit " + missing);
+        }
+        return vocabulary;
+    }
+}
@@ -0,0 +1,100 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Table d'alias de Walker, construite par la méthode de Vose.
+ * <p>
+ * Chacune des n colonnes contient une valeur, un seuil et un alias : un tirage choisit
+ * une colonne puis compare la partie fractionnaire au seuil. Le coût est constant quel
+ * que soit le nombre de valeurs, pour une construction en O(n). La table est immuable
+ * et peut être partagée entre threads.
+ */
+public final class AliasTable {
+    private final double[] threshold;
+    private final int[] alias;
+
+    /**
+     * Constructeur.
+     * @param weights Les poids des valeurs 0..n-1, positifs ou nuls et non tous nuls
+     * @throws IllegalArgumentException Si un poids est négatif ou non fini, ou si leur somme est nulle
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("La table d'alias nécessite au moins un poids");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Les poids doivent être positifs ou nuls et finis : " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("La somme des poids doit être strictement positive et finie");
+        }
+
+        threshold = new double[n];
+        alias = new int[n];
+
+        // Probabilités mises à l'échelle : la moyenne vaut 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Les colonnes restantes sont pleines, aux erreurs d'arrondi près
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            threshold[more] = 1.0;
+            alias[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            threshold[less] = 1.0;
+            alias[less] = less;
+        }
+    }
+
+    /**
+     * Tire un indice selon les poids, avec un seul nombre aléatoire.
+     * @param random Le flux aléatoire du thread appelant
+     * @return Un indice de 0 à n-1
+     */
+    public int sample(SplittableRandom random) {
+        double u = random.nextDouble() * threshold.length;
+        int column = (int) u;
+        return u - column < threshold[column] ? column : alias[column];
+    }
+
+    /**
+     * Retourne le nombre de valeurs.
+     * @return Le nombre de valeurs
+     */
+    public int size() {
+        return threshold.length;
+    }
+}
@@ -0,0 +1,107 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loi binomiale décalée.
+ * <p>
+ * Lorsque la moyenne {@code n·min(p, 1-p)} est faible, la loi est tabulée une fois et
+ * tirée par table guide. Sinon le tirage utilise l'algorithme BTRS de Hörmann
+ * (rejet transformé avec compression), de coût constant quel que soit {@code n}.
+ */
+public final class BinomialSampler implements Sampler {
+    private static final double TABLE_LIMIT = 16;
+    private static final double TAIL_EPSILON = 1e-16;
+
+    private final double location;
+    private final long trials;
+    private final boolean flipped;
+    private final double p;
+    private final DiscreteTable table;
+
+    // Constantes de BTRS
+    private final double b;
+    private final double a;
+    private final double c;
+    private final double vr;
+    private final double alpha;
+    private final double logOdds;
+    private final double mode;
+    private final double h;
+
+    /**
+     * Constructeur.
+     * @param location La plus petite valeur possible
+     * @param trials Le nombre d'épreuves
+     * @param probability La probabilité de succès de chaque épreuve
+     */
+    public BinomialSampler(double location, long trials, double probability) {
+        if (!Double.isFinite(location) || trials < 0 || !(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("Paramètres de loi binomiale invalides : origine=" + location +
+                                               ", n=" + trials + ", p=" + probability);
+        }
+        this.location = location;
+        this.trials = trials;
+        // Par symétrie, on se ramène à p <= 0.5
+        this.flipped = probability > 0.5;
+        this.p = flipped ? 1 - probability : probability;
+        double q = 1 - p;
+        double spq = Math.sqrt(trials * p * q);
+        this.b = 1.15 + 2.53 * spq;
+        this.a = -0.0873 + 0.0248 * b + 0.01 * p;
+        this.c = trials * p + 0.5;
+        this.vr = 0.92 - 4.2 / b;
+        this.alpha = (2.83 + 5.1 / b) * spq;
+        this.logOdds = Math.log(p / q);
+        this.mode = Math.floor((trials + 1) * p);
+        this.h = DiscreteTable.logFactorial(mode) + DiscreteTable.logFactorial(trials - mode);
+        this.table = trials * p < TABLE_LIMIT ? tabulate(trials, p) : null;
+    }
+
+    private static DiscreteTable tabulate(long trials, double p) {
+        if (p == 0) {
+            return new DiscreteTable(new double[] {1});
+        }
+        List<Double> probabilities = new ArrayList<>();
+        double odds = p / (1 - p);
+        double probability = Math.exp(trials * Math.log1p(-p));
+        // Au-delà du mode, on s'arrête dès que les probabilités deviennent négligeables
+        double mean = trials * p;
+        for (long k = 0; k <= trials && (k <= mean || probability > TAIL_EPSILON); k++) {
+            probabilities.add(probability);
+            probability *= odds * (trials - k) / (k + 1);
+        }
+        double[] values = new double[probabilities.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = probabilities.get(i);
+        }
+        return new DiscreteTable(values);
+    }
+
+    @Override
+    public double sample(SplittableRandom random) {
+        double k = table != null ? table.sample(random) : btrs(random);
+        return location + (flipped ? trials - k : k);
+    }
+
+    private double btrs(SplittableRandom random) {
+        while (true) {
+            double u = random.nextDouble() - 0.5;
+            double v = NormalSampler.openUniform(random);
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > trials) {
+                continue;
+            }
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            v = Math.log(v * alpha / (a / (us * us) + b));
+            if (v <= h - DiscreteTable.logFactorial(k) - DiscreteTable.logFactorial(trials - k) + (k - mode) * logOdds) {
+                return k;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Inversion d'une loi discrète à support fini par table guide (Chen et Asau).
+ * Le tirage coûte un nombre aléatoire et, en moyenne, moins de deux comparaisons.
+ */
+final class DiscreteTable {
+    private final double[] cumulative;
+    private final int[] guide;
+
+    /**
+     * Constructeur.
+     * @param probabilities Les probabilités des valeurs 0..n-1, éventuellement non normalisées
+     */
+    DiscreteTable(double[] probabilities) {
+        int n = probabilities.length;
+        cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += probabilities[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+        cumulative[n - 1] = 1.0;
+
+        guide = new int[n];
+        int k = 0;
+        for (int g = 0; g < n; g++) {
+            while (cumulative[k] <= (double) g / n) {
+                k++;
+            }
+            guide[g] = k;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        double u = random.nextDouble();
+        int k = guide[(int) (u * guide.length)];
+        while (cumulative[k] <= u) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Logarithme de k!, exact par table pour les petites valeurs et par la série de Stirling au-delà.
+     */
+    static double logFactorial(double k) {
+        if (k < LOG_FACTORIALS.length) {
+            return LOG_FACTORIALS[(int) k];
+        }
+        double x = k + 1;
+        double inverse = 1 / x;
+        double inverse2 = inverse * inverse;
+        return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI) +
+               inverse * (1.0 / 12 - inverse2 * (1.0 / 360 - inverse2 / 1260));
+    }
+
+    private static final double[] LOG_FACTORIALS = new double[256];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+            LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Loi exponentielle décalée, tirée par inversion de la fonction de répartition :
+ * un seul nombre aléatoire et un logarithme par tirage, sans rejet.
+ */
+public final class ExponentialSampler implements Sampler {
+    private final double location;
+    private final double scale;
+
+    /**
+     * Constructeur.
+     * @param location La plus petite valeur possible
+     * @param mean La moyenne, strictement supérieure à {@code location}
+     */
+    public ExponentialSampler(double location, double mean) {
+        if (!Double.isFinite(location) || !(mean > location) || Double.isInfinite(mean)) {
+            throw new IllegalArgumentException("Paramètres de loi exponentielle invalides : origine=" + location +
+                                               ", moyenne=" + mean);
+        }
+        this.location = location;
+        this.scale = mean - location;
+    }
+
+    @Override
+    public double sample(SplittableRandom random) {
+        return location - scale * Math.log(NormalSampler.openUniform(random));
+    }
+}
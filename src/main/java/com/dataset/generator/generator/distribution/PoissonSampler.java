@@ -0,0 +1,88 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loi de Poisson décalée.
+ * <p>
+ * Pour une moyenne modérée, la loi est tabulée une fois et tirée par table guide.
+ * Au-delà, le tirage utilise l'algorithme PTRS de Hörmann (rejet transformé avec
+ * compression), dont le coût est constant quelle que soit la moyenne.
+ */
+public final class PoissonSampler implements Sampler {
+    private static final double TABLE_LIMIT = 64;
+    private static final double TAIL_EPSILON = 1e-16;
+
+    private final double location;
+    private final double lambda;
+    private final DiscreteTable table;
+
+    // Constantes de PTRS
+    private final double logLambda;
+    private final double b;
+    private final double a;
+    private final double logInverseAlpha;
+    private final double vr;
+
+    /**
+     * Constructeur.
+     * @param location La plus petite valeur possible
+     * @param lambda La moyenne de la loi de Poisson, strictement positive
+     */
+    public PoissonSampler(double location, double lambda) {
+        if (!Double.isFinite(location) || !(lambda > 0) || Double.isInfinite(lambda)) {
+            throw new IllegalArgumentException("Paramètres de loi de Poisson invalides : origine=" + location +
+                                               ", lambda=" + lambda);
+        }
+        this.location = location;
+        this.lambda = lambda;
+        this.logLambda = Math.log(lambda);
+        double sqrtLambda = Math.sqrt(lambda);
+        this.b = 0.931 + 2.53 * sqrtLambda;
+        this.a = -0.059 + 0.02483 * b;
+        this.logInverseAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+        this.vr = 0.9277 - 3.6224 / (b - 2);
+        this.table = lambda < TABLE_LIMIT ? tabulate(lambda) : null;
+    }
+
+    private static DiscreteTable tabulate(double lambda) {
+        List<Double> probabilities = new ArrayList<>();
+        double p = Math.exp(-lambda);
+        // Au-delà du mode, on s'arrête dès que les probabilités deviennent négligeables
+        for (int k = 0; k <= lambda || p > TAIL_EPSILON; k++) {
+            probabilities.add(p);
+            p *= lambda / (k + 1);
+        }
+        double[] values = new double[probabilities.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = probabilities.get(i);
+        }
+        return new DiscreteTable(values);
+    }
+
+    @Override
+    public double sample(SplittableRandom random) {
+        return location + (table != null ? table.sample(random) : ptrs(random));
+    }
+
+    private double ptrs(SplittableRandom random) {
+        while (true) {
+            double u = random.nextDouble() - 0.5;
+            double v = NormalSampler.openUniform(random);
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2 * a / us + b) * u + lambda + 0.43);
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            if (k < 0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v) + logInverseAlpha - Math.log(a / (us * us) + b) <=
+                -lambda + k * logLambda - DiscreteTable.logFactorial(k)) {
+                return k;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Échantillonneur d'une loi de probabilité réelle.
+ * Les implémentations sont immuables : leurs tables sont calculées à la construction
+ * et elles peuvent être partagées entre threads.
+ */
+@FunctionalInterface
+public interface Sampler {
+    /**
+     * Tire une valeur.
+     * @param random Le flux aléatoire du thread appelant
+     * @return La valeur tirée
+     */
+    double sample(SplittableRandom random);
+}
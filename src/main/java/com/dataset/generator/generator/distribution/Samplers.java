@@ -0,0 +1,89 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import main.java.com.dataset.generator.model.Constraints;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fabrique des échantillonneurs à partir des contraintes d'un attribut.
+ * <p>
+ * Les paramètres de chaque loi sont déduits une seule fois de {@code moyenne},
+ * {@code mediane} et {@code ecartType}, à défaut du milieu et de la largeur de
+ * l'intervalle [min, max]. Les tirages sont tronqués à cet intervalle par rejet ;
+ * si la loi en sort trop souvent, la valeur est ramenée à la borne la plus proche.
+ */
+public final class Samplers {
+    private static final int MAX_REJECTIONS = 64;
+
+    private Samplers() {
+    }
+
+    /**
+     * Résout l'échantillonneur décrit par les contraintes.
+     * @param constraints Les contraintes de l'attribut, éventuellement nulles
+     * @param min La borne inférieure, strictement inférieure à {@code max}
+     * @param max La borne supérieure
+     * @param integral true si les valeurs doivent être entières
+     * @return L'échantillonneur borné, ou null si la distribution est uniforme
+     * @throws IllegalArgumentException Si les paramètres ne définissent pas une loi valide
+     */
+    public static Sampler forConstraints(Constraints constraints, double min, double max, boolean integral) {
+        if (constraints == null || constraints.getDistributionType() == null ||
+            constraints.getDistributionType() == Constraints.DistributionType.UNIFORME) {
+            return null;
+        }
+        return bounded(create(constraints, min, max), min, max, integral);
+    }
+
+    private static Sampler create(Constraints constraints, double min, double max) {
+        Double moyenne = constraints.getMoyenne();
+        Double mediane = constraints.getMediane();
+        Double ecartType = constraints.getEcartType();
+        double center = moyenne != null ? moyenne : mediane != null ? mediane : (min + max) / 2;
+
+        switch (constraints.getDistributionType()) {
+            case NORMALE:
+                return new NormalSampler(center, ecartType != null ? ecartType : (max - min) / 6);
+            case EXPONENTIELLE:
+                // Pour une loi exponentielle, médiane = ln 2 × moyenne et écart-type = moyenne
+                double mean = moyenne != null ? moyenne
+                        : mediane != null ? min + (mediane - min) / Math.log(2)
+                        : ecartType != null ? min + ecartType
+                        : center;
+                return new ExponentialSampler(min, mean);
+            case POISSON:
+                // Pour une loi de Poisson, la variance est égale à la moyenne
+                double lambda = moyenne == null && mediane == null && ecartType != null
+                        ? ecartType * ecartType
+                        : center - min;
+                return new PoissonSampler(min, lambda);
+            case BINOMIALE:
+                long trials = (long) Math.floor(max - min);
+                if (trials < 1) {
+                    throw new IllegalArgumentException("La loi binomiale nécessite un intervalle [min, max] d'au moins 1");
+                }
+                return new BinomialSampler(min, trials, (center - min) / trials);
+            default:
+                throw new IllegalArgumentException("Distribution non supportée : " + constraints.getDistributionType());
+        }
+    }
+
+    private static Sampler bounded(Sampler sampler, double min, double max, boolean integral) {
+        return new Sampler() {
+            @Override
+            public double sample(SplittableRandom random) {
+                double value = 0;
+                for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+                    value = sampler.sample(random);
+                    if (integral) {
+                        value = Math.floor(value + 0.5);
+                    }
+                    if (value >= min && value <= max) {
+                        return value;
+                    }
+                }
+                return Math.max(min, Math.min(max, value));
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package main.java.com.dataset.generator.generator.pattern;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Générateur de chaînes correspondant à une expression régulière.
+ * <p>
+ * L'expression est compilée une seule fois en un programme de génération (séquences,
+ * alternatives, répétitions et ensembles de caractères) : produire une chaîne ne
+ * demande ni retour arrière ni objet {@link java.util.regex.Pattern}, seulement un
+ * tirage par choix. Les programmes sont immuables et mis en cache par motif.
+ * <p>
+ * Syntaxe reconnue : caractères littéraux et échappés, {@code .}, classes
+ * {@code [a-z0-9_]} et {@code [^...]}, raccourcis {@code \d \w \s} et leurs négations,
+ * groupes {@code (...)} et {@code (?:...)}, alternatives {@code |}, quantificateurs
+ * {@code ? * + {n} {n,} {n,m}}, ancres {@code ^} et {@code $} aux extrémités.
+ * Les constructions qui ne décrivent pas un ensemble de chaînes générable (références
+ * arrière, assertions, limites de mot, options, propriétés Unicode) sont refusées
+ * dès la compilation.
+ */
+public final class PatternGenerator {
+    private static final int CACHE_LIMIT = 256;
+    private static final Map<String, PatternGenerator> CACHE = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final PatternNode program;
+    private final int maxLength;
+
+    private PatternGenerator(String pattern, PatternNode program) {
+        this.pattern = pattern;
+        this.program = program;
+        this.maxLength = program.maxLength();
+    }
+
+    /**
+     * Compile un motif, ou le retrouve dans le cache.
+     * @param pattern L'expression régulière
+     * @return Le générateur correspondant
+     * @throws IllegalArgumentException Si le motif est invalide ou non générable
+     */
+    public static PatternGenerator compile(String pattern) {
+        Objects.requireNonNull(pattern, "Le motif ne peut pas être nul");
+        PatternGenerator generator = CACHE.get(pattern);
+        if (generator == null) {
+            generator = new PatternGenerator(pattern, new PatternParser(pattern).parse());
+            if (CACHE.size() >= CACHE_LIMIT) {
+                CACHE.clear();
+            }
+            CACHE.put(pattern, generator);
+        }
+        return generator;
+    }
+
+    /**
+     * Produit une chaîne correspondant au motif.
+     * @param random Le flux aléatoire du thread appelant
+     * @return La chaîne générée
+     */
+    public String generate(SplittableRandom random) {
+        char[] buffer = new char[maxLength];
+        int length = program.generate(random, buffer, 0);
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Retourne la longueur maximale des chaînes produites.
+     * @return La longueur maximale
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return "PatternGenerator{" +
+                "pattern='" + pattern + '\'' +
+                ", maxLength=" + maxLength +
+                '}';
+    }
+}
@@ -0,0 +1,154 @@
+package main.java.com.dataset.generator.generator.pattern;
+
+import java.util.SplittableRandom;
+
+/**
+ * Instruction d'un programme de génération compilé à partir d'un motif.
+ * Chaque nœud écrit sa production dans un tampon dimensionné par {@link #maxLength()}.
+ */
+abstract class PatternNode {
+
+    /**
+     * Écrit une production du nœud.
+     * @param random Le flux aléatoire
+     * @param buffer Le tampon de destination
+     * @param position La position d'écriture
+     * @return La position après la production
+     */
+    abstract int generate(SplittableRandom random, char[] buffer, int position);
+
+    /**
+     * Retourne la longueur maximale d'une production.
+     */
+    abstract int maxLength();
+
+    /**
+     * Suite fixe de caractères.
+     */
+    static final class Literal extends PatternNode {
+        private final char[] chars;
+
+        Literal(char[] chars) {
+            this.chars = chars;
+        }
+
+        char[] chars() {
+            return chars;
+        }
+
+        @Override
+        int generate(SplittableRandom random, char[] buffer, int position) {
+            System.arraycopy(chars, 0, buffer, position, chars.length);
+            return position + chars.length;
+        }
+
+        @Override
+        int maxLength() {
+            return chars.length;
+        }
+    }
+
+    /**
+     * Un caractère tiré uniformément dans un ensemble.
+     */
+    static final class CharSet extends PatternNode {
+        private final char[] chars;
+
+        CharSet(char[] chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        int generate(SplittableRandom random, char[] buffer, int position) {
+            buffer[position] = chars[random.nextInt(chars.length)];
+            return position + 1;
+        }
+
+        @Override
+        int maxLength() {
+            return 1;
+        }
+    }
+
+    /**
+     * Concaténation de nœuds.
+     */
+    static final class Sequence extends PatternNode {
+        private final PatternNode[] nodes;
+
+        Sequence(PatternNode[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int generate(SplittableRandom random, char[] buffer, int position) {
+            for (PatternNode node : nodes) {
+                position = node.generate(random, buffer, position);
+            }
+            return position;
+        }
+
+        @Override
+        int maxLength() {
+            int length = 0;
+            for (PatternNode node : nodes) {
+                length = Math.addExact(length, node.maxLength());
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Choix uniforme entre plusieurs alternatives.
+     */
+    static final class Alternation extends PatternNode {
+        private final PatternNode[] alternatives;
+
+        Alternation(PatternNode[] alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        int generate(SplittableRandom random, char[] buffer, int position) {
+            return alternatives[random.nextInt(alternatives.length)].generate(random, buffer, position);
+        }
+
+        @Override
+        int maxLength() {
+            int length = 0;
+            for (PatternNode alternative : alternatives) {
+                length = Math.max(length, alternative.maxLength());
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Répétition d'un nœud entre {@code min} et {@code max} fois.
+     */
+    static final class Repeat extends PatternNode {
+        private final PatternNode node;
+        private final int min;
+        private final int range;
+
+        Repeat(PatternNode node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.range = max - min + 1;
+        }
+
+        @Override
+        int generate(SplittableRandom random, char[] buffer, int position) {
+            int count = range == 1 ? min : min + random.nextInt(range);
+            for (int i = 0; i < count; i++) {
+                position = node.generate(random, buffer, position);
+            }
+            return position;
+        }
+
+        @Override
+        int maxLength() {
+            return Math.multiplyExact(node.maxLength(), min + range - 1);
+        }
+    }
+}
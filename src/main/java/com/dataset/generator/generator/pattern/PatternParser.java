@@ -0,0 +1,360 @@
+package main.java.com.dataset.generator.generator.pattern;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Analyseur descendant récursif qui traduit un motif en programme de génération.
+ */
+final class PatternParser {
+    /** Répétitions ajoutées au minimum pour les quantificateurs non bornés ({@code * + {n,}}). */
+    private static final int UNBOUNDED_EXTRA = 8;
+    private static final int MAX_LENGTH = 1 << 16;
+    private static final char FIRST_PRINTABLE = ' ';
+    private static final char LAST_PRINTABLE = '~';
+
+    private final String pattern;
+    private int position;
+    private int end;
+
+    PatternParser(String pattern) {
+        this.pattern = pattern;
+    }
+
+    PatternNode parse() {
+        end = pattern.length();
+        if (pattern.startsWith("^")) {
+            position = 1;
+        }
+        if (end > position && pattern.charAt(end - 1) == '$' && !isEscaped(end - 1)) {
+            end--;
+        }
+
+        PatternNode program = alternation();
+        if (position < end) {
+            throw error("parenthèse fermante sans ouvrante");
+        }
+        try {
+            if (program.maxLength() > MAX_LENGTH) {
+                throw error("chaînes de plus de " + MAX_LENGTH + " caractères");
+            }
+        } catch (ArithmeticException e) {
+            throw error("chaînes de plus de " + MAX_LENGTH + " caractères");
+        }
+        return program;
+    }
+
+    private boolean isEscaped(int index) {
+        int backslashes = 0;
+        while (index - backslashes - 1 >= 0 && pattern.charAt(index - backslashes - 1) == '\\') {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    private PatternNode alternation() {
+        List<PatternNode> alternatives = new ArrayList<>();
+        alternatives.add(sequence());
+        while (position < end && pattern.charAt(position) == '|') {
+            position++;
+            alternatives.add(sequence());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0)
+                : new PatternNode.Alternation(alternatives.toArray(new PatternNode[0]));
+    }
+
+    private PatternNode sequence() {
+        List<PatternNode> nodes = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        while (position < end && pattern.charAt(position) != '|' && pattern.charAt(position) != ')') {
+            PatternNode atom = atom();
+            PatternNode node = quantifier(atom);
+            if (node == atom && atom instanceof PatternNode.Literal) {
+                // Les littéraux consécutifs sont fusionnés en une seule copie
+                literal.append(((PatternNode.Literal) atom).chars());
+                continue;
+            }
+            flush(literal, nodes);
+            nodes.add(node);
+        }
+        flush(literal, nodes);
+        if (nodes.isEmpty()) {
+            return new PatternNode.Literal(new char[0]);
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new PatternNode.Sequence(nodes.toArray(new PatternNode[0]));
+    }
+
+    private static void flush(StringBuilder literal, List<PatternNode> nodes) {
+        if (literal.length() > 0) {
+            nodes.add(new PatternNode.Literal(literal.toString().toCharArray()));
+            literal.setLength(0);
+        }
+    }
+
+    private PatternNode atom() {
+        char c = pattern.charAt(position++);
+        switch (c) {
+            case '(':
+                return group();
+            case '[':
+                return charClass();
+            case '.':
+                BitSet any = printable();
+                any.clear('\n');
+                return charSet(any);
+            case '\\':
+                return escape();
+            case '^':
+            case '$':
+                throw error("ancre au milieu du motif");
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("quantificateur sans élément à répéter");
+            default:
+                return new PatternNode.Literal(new char[] {c});
+        }
+    }
+
+    private PatternNode group() {
+        if (position < end && pattern.charAt(position) == '?') {
+            if (position + 1 < end && pattern.charAt(position + 1) == ':') {
+                position += 2;
+            } else if (position + 2 < end && pattern.charAt(position + 1) == '<' &&
+                       Character.isLetter(pattern.charAt(position + 2))) {
+                // Groupe nommé : le nom est ignoré
+                int close = pattern.indexOf('>', position);
+                if (close < 0 || close >= end) {
+                    throw error("nom de groupe non terminé");
+                }
+                position = close + 1;
+            } else {
+                throw error("assertions et options non générables");
+            }
+        }
+        PatternNode node = alternation();
+        if (position >= end || pattern.charAt(position) != ')') {
+            throw error("parenthèse non fermée");
+        }
+        position++;
+        return node;
+    }
+
+    private PatternNode quantifier(PatternNode atom) {
+        if (position >= end) {
+            return atom;
+        }
+        int min;
+        int max;
+        char c = pattern.charAt(position);
+        switch (c) {
+            case '?':
+                min = 0;
+                max = 1;
+                position++;
+                break;
+            case '*':
+                min = 0;
+                max = UNBOUNDED_EXTRA;
+                position++;
+                break;
+            case '+':
+                min = 1;
+                max = 1 + UNBOUNDED_EXTRA;
+                position++;
+                break;
+            case '{':
+                int close = pattern.indexOf('}', position);
+                if (close < 0 || close >= end) {
+                    throw error("quantificateur non terminé");
+                }
+                String[] bounds = pattern.substring(position + 1, close).split(",", -1);
+                try {
+                    min = Integer.parseInt(bounds[0].trim());
+                    if (bounds.length == 1) {
+                        max = min;
+                    } else if (bounds.length == 2 && bounds[1].trim().isEmpty()) {
+                        max = min + UNBOUNDED_EXTRA;
+                    } else if (bounds.length == 2) {
+                        max = Integer.parseInt(bounds[1].trim());
+                    } else {
+                        throw error("quantificateur invalide");
+                    }
+                } catch (NumberFormatException e) {
+                    throw error("quantificateur invalide");
+                }
+                if (min < 0 || max < min) {
+                    throw error("quantificateur invalide");
+                }
+                position = close + 1;
+                break;
+            default:
+                return atom;
+        }
+        // Les variantes paresseuses et possessives produisent les mêmes chaînes
+        if (position < end && (pattern.charAt(position) == '?' || pattern.charAt(position) == '+')) {
+            position++;
+        }
+        if (min == 1 && max == 1) {
+            return atom;
+        }
+        return new PatternNode.Repeat(atom, min, max);
+    }
+
+    private PatternNode escape() {
+        if (position >= end) {
+            throw error("échappement non terminé");
+        }
+        BitSet set = shorthand(pattern.charAt(position));
+        if (set != null) {
+            position++;
+            return charSet(set);
+        }
+        return new PatternNode.Literal(new char[] {escapedChar()});
+    }
+
+    /**
+     * Lit un caractère échappé littéral ; la barre oblique inverse a déjà été consommée.
+     */
+    private char escapedChar() {
+        char c = pattern.charAt(position++);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'x':
+                return hex(2);
+            case 'u':
+                return hex(4);
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw error("échappement \\" + c + " non générable");
+                }
+                return c;
+        }
+    }
+
+    private char hex(int digits) {
+        if (position + digits > end) {
+            throw error("séquence hexadécimale incomplète");
+        }
+        try {
+            char c = (char) Integer.parseInt(pattern.substring(position, position + digits), 16);
+            position += digits;
+            return c;
+        } catch (NumberFormatException e) {
+            throw error("séquence hexadécimale invalide");
+        }
+    }
+
+    private static BitSet shorthand(char c) {
+        BitSet set = new BitSet();
+        switch (Character.toLowerCase(c)) {
+            case 'd':
+                set.set('0', '9' + 1);
+                break;
+            case 'w':
+                set.set('a', 'z' + 1);
+                set.set('A', 'Z' + 1);
+                set.set('0', '9' + 1);
+                set.set('_');
+                break;
+            case 's':
+                set.set(' ');
+                set.set('\t');
+                break;
+            default:
+                return null;
+        }
+        if (Character.isUpperCase(c)) {
+            BitSet complement = printable();
+            complement.andNot(set);
+            return complement;
+        }
+        return set;
+    }
+
+    private PatternNode charClass() {
+        BitSet set = new BitSet();
+        boolean negated = position < end && pattern.charAt(position) == '^';
+        if (negated) {
+            position++;
+        }
+        boolean first = true;
+        while (true) {
+            if (position >= end) {
+                throw error("classe de caractères non fermée");
+            }
+            char c = pattern.charAt(position++);
+            if (c == ']' && !first) {
+                break;
+            }
+            first = false;
+            if (c == '[' || (c == '&' && position < end && pattern.charAt(position) == '&')) {
+                throw error("classes imbriquées ou intersections non supportées");
+            }
+            if (c == '\\') {
+                if (position >= end) {
+                    throw error("échappement non terminé");
+                }
+                BitSet shorthand = shorthand(pattern.charAt(position));
+                if (shorthand != null) {
+                    position++;
+                    set.or(shorthand);
+                    continue;
+                }
+                c = escapedChar();
+            }
+            // Intervalle a-z, sauf si le tiret termine la classe
+            if (position + 1 < end && pattern.charAt(position) == '-' && pattern.charAt(position + 1) != ']') {
+                position++;
+                char last = pattern.charAt(position++);
+                if (last == '\\') {
+                    last = escapedChar();
+                }
+                if (last < c) {
+                    throw error("intervalle inversé");
+                }
+                set.set(c, last + 1);
+            } else {
+                set.set(c);
+            }
+        }
+        if (negated) {
+            BitSet complement = printable();
+            complement.andNot(set);
+            set = complement;
+        }
+        return charSet(set);
+    }
+
+    private PatternNode charSet(BitSet set) {
+        if (set.isEmpty()) {
+            throw error("classe de caractères vide");
+        }
+        char[] chars = new char[set.cardinality()];
+        int i = 0;
+        for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1)) {
+            chars[i++] = (char) c;
+        }
+        return chars.length == 1 ? new PatternNode.Literal(chars) : new PatternNode.CharSet(chars);
+    }
+
+    private static BitSet printable() {
+        BitSet set = new BitSet();
+        set.set(FIRST_PRINTABLE, LAST_PRINTABLE + 1);
+        return set;
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException("Motif non générable '" + pattern + "' : " + reason +
+                                            " (position " + position + ")");
+    }
+}
@@ -15,6 +15,7 @@ public class Constraints {
     private DistributionType distributionType;
     private String distribution; // Maintenu pour compatibilité
     private List<String> possibleValues;
+    private List<Double> possibleValueWeights; // Poids relatifs, dans l'ordre de possibleValues
     private Integer longueurMin;
     private Integer longueurMax;
     private String pattern; // Expression régulière pour les chaînes
@@ -72,6 +73,14 @@ public class Constraints {
         this.possibleValues = possibleValues;
     }
 
+    public List<Double> getPossibleValueWeights() {
+        return possibleValueWeights;
+    }
+
+    public void setPossibleValueWeights(List<Double> possibleValueWeights) {
+        this.possibleValueWeights = possibleValueWeights;
+    }
+
     // Nouveaux getters et setters
     public Double getMoyenne() {
         return moyenne;
@@ -153,6 +162,21 @@ public class Constraints {
                 return false;
             }
         }
+        if (possibleValueWeights != null) {
+            if (possibleValues == null || possibleValues.size() != possibleValueWeights.size()) {
+                return false;
+            }
+            double total = 0;
+            for (Double weight : possibleValueWeights) {
+                if (weight == null || !(weight >= 0) || weight.isInfinite()) {
+                    return false;
+                }
+                total += weight;
+            }
+            if (!(total > 0)) {
+                return false;
+            }
+        }
         return true;
     }
 
@@ -167,6 +191,7 @@ public class Constraints {
                 ", distributionType=" + distributionType +
                 ", distribution='" + distribution + '\'' +
                 ", possibleValues=" + possibleValues +
+                ", possibleValueWeights=" + possibleValueWeights +
                 ", longueurMin=" + longueurMin +
                 ", longueurMax=" + longueurMax +
                 ", pattern='" + pattern + '\'' +
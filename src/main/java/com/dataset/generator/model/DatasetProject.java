@@ -1,13 +1,17 @@
 package main.java.com.dataset.generator.model;
 
+import main.java.com.dataset.generator.batch.RowBatch;
 import main.java.com.dataset.generator.export.Exporter;
+import main.java.com.dataset.generator.export.FanOutSession;
 import main.java.com.dataset.generator.generator.DataGenerator;
 import main.java.com.dataset.generator.generator.RandomDataGenerator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Classe représentant un projet de dataset avec génération et exportation de données.
@@ -74,6 +78,100 @@ public class DatasetProject implements DataGenerator, Exporter {
         exporter.export(data, path);
     }
     
+    @Override
+    public List<Map<String, Object>> generate(Entity entity, long fromRow, long toRow) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        
+        return dataGenerator.generate(entity, fromRow, toRow);
+    }
+    
+    @Override
+    public Stream<Map<String, Object>> stream(Entity entity, long size) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
+        }
+        
+        return dataGenerator.stream(entity, size);
+    }
+    
+    @Override
+    public Stream<RowBatch> batches(Entity entity, long size, int batchSize) {
+        Objects.requireNonNull(entity, "L'entité ne peut pas être nulle");
+        if (size <= 0) {
+            throw new IllegalArgumentException("La taille doit être supérieure à 0");
+        }
+        
+        return dataGenerator.batches(entity, size, batchSize);
+    }
+    
+    @Override
+    public void exportStream(Stream<Map<String, Object>> rows, String path) throws Exception {
+        Objects.requireNonNull(rows, "Les données ne peuvent pas être nulles");
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le chemin de destination ne peut pas être vide");
+        }
+        
+        if (exporter == null) {
+            throw new IllegalStateException("Aucun exportateur n'a été défini pour ce projet");
+        }
+        
+        exporter.exportStream(rows, path);
+    }
+    
+    @Override
+    public void exportBatches(Stream<RowBatch> batches, String path) throws Exception {
+        Objects.requireNonNull(batches, "Les données ne peuvent pas être nulles");
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le chemin de destination ne peut pas être vide");
+        }
+        
+        if (exporter == null) {
+            throw new IllegalStateException("Aucun exportateur n'a été défini pour ce projet");
+        }
+        
+        exporter.exportBatches(batches, path);
+    }
+    
+    /**
+     * Génère les données d'une entité et les transmet directement à l'exportateur,
+     * lot colonne par lot colonne, sans jamais matérialiser le jeu de données complet.
+     * @param entity L'entité pour laquelle générer les données
+     * @param size Le nombre d'instances à générer
+     * @param path Le chemin du fichier de sortie
+     * @throws Exception Si une erreur survient lors de l'export
+     */
+    public void generateAndExport(Entity entity, long size, String path) throws Exception {
+        try (Stream<RowBatch> batches = batches(entity, size, RowBatch.DEFAULT_CAPACITY)) {
+            exportBatches(batches, path);
+        }
+    }
+    
+    /**
+     * Génère les données d'une entité une seule fois et les exporte simultanément vers
+     * plusieurs fichiers : chaque lot est transmis à tous les exportateurs, chacun écrivant
+     * sur son propre thread au travers d'une file bornée (voir {@link FanOutSession}).
+     * L'exportateur du projet n'est pas utilisé.
+     * @param entity L'entité pour laquelle générer les données
+     * @param size Le nombre d'instances à générer
+     * @param targets Les exportateurs, par chemin du fichier de sortie
+     * @throws Exception Si une erreur survient lors de l'un des exports
+     */
+    public void generateAndExport(Entity entity, long size, Map<String, ? extends Exporter> targets) throws Exception {
+        Objects.requireNonNull(targets, "Les exportateurs ne peuvent pas être nuls");
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Aucun exportateur n'a été fourni");
+        }
+        
+        try (Stream<RowBatch> batches = batches(entity, size, RowBatch.DEFAULT_CAPACITY);
+             FanOutSession session = FanOutSession.open(targets, FanOutSession.DEFAULT_QUEUE_CAPACITY)) {
+            Iterator<RowBatch> iterator = batches.iterator();
+            while (iterator.hasNext()) {
+                session.accept(iterator.next());
+            }
+        }
+    }
+    
     /**
      * Ajoute une entité au projet.
      * @param entity L'entité à ajouter
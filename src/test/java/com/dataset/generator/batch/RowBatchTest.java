@@ -0,0 +1,63 @@
+package main.java.com.dataset.generator.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RowBatchTest {
+
+    @Test
+    void laterChunksFollowTheSchemaOfTheFirst() {
+        List<Map<String, Object>> rows = IntStream.range(0, 25)
+            .mapToObj(i -> i < 20 ? row("a", i, "b", "x" + i) : row("b", "y" + i, "a", i))
+            .collect(Collectors.toList());
+
+        List<RowBatch> batches = RowBatch.chunk(rows.stream(), 10).collect(Collectors.toList());
+
+        assertEquals(3, batches.size());
+        for (RowBatch batch : batches) {
+            assertEquals(batches.get(0).getSchema(), batch.getSchema());
+        }
+        assertEquals(List.of("a", "b"), List.copyOf(batches.get(2).toRow(4).keySet()));
+        assertEquals(24, batches.get(2).toRow(4).get("a"));
+        assertEquals("y24", batches.get(2).toRow(4).get("b"));
+    }
+
+    @Test
+    void unknownKeysInLaterChunksAreRejected() {
+        Stream<Map<String, Object>> rows = Stream.of(row("a", 1, "b", "x"), row("a", 2, "c", "y"));
+        assertThrows(IllegalArgumentException.class, () -> RowBatch.chunk(rows, 1).collect(Collectors.toList()));
+    }
+
+    @Test
+    void valuesOfAnotherTypeInLaterChunksAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RowBatch.chunk(
+            Stream.of(row("a", 1, "b", "x"), row("a", "deux", "b", "y")), 1).collect(Collectors.toList()));
+        assertThrows(IllegalArgumentException.class, () -> RowBatch.chunk(
+            Stream.of(row("a", 1, "b", "x"), row("a", null, "b", "y")), 1).collect(Collectors.toList()));
+    }
+
+    @Test
+    void missingKeysOfReferenceColumnsAreNull() {
+        RowSchema schema = new RowSchema(List.of(new RowSchema.Field("a", ColumnType.INT),
+                                                 new RowSchema.Field("b", ColumnType.STRING)));
+        RowBatch batch = RowBatch.fromRows(schema, List.of(row("a", 1)));
+        assertEquals(row("a", 1, "b", null), batch.toRow(0));
+    }
+
+    private static Map<String, Object> row(Object... entries) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            row.put((String) entries[i], entries[i + 1]);
+        }
+        return row;
+    }
+}
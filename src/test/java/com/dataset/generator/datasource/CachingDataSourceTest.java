@@ -0,0 +1,129 @@
+package main.java.com.dataset.generator.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingDataSourceTest {
+
+    /**
+     * Source dont la demande des prénoms reste bloquée jusqu'à {@link #release}.
+     */
+    private static final class SlowDataSource extends StaticDataSource {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger firstNameRequests = new AtomicInteger();
+
+        @Override
+        public Vocabulary getVocabulary(Vocabulary.Category category) {
+            if (category == Vocabulary.Category.FIRST_NAMES) {
+                firstNameRequests.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.getVocabulary(category);
+        }
+    }
+
+    /**
+     * Source dont les demandes de villes échouent sur le thread de préchargement tant que
+     * {@link #failing} est vrai.
+     */
+    private static final class FailingPrefetchSource extends StaticDataSource {
+        final AssertionError error = new AssertionError("échec du préchargement");
+        final AtomicInteger prefetches = new AtomicInteger();
+        volatile boolean failing = true;
+
+        @Override
+        public List<String> getCities(int count) {
+            if (Thread.currentThread().getName().equals("datasource-prefetch")) {
+                prefetches.incrementAndGet();
+                if (failing) {
+                    throw error;
+                }
+            }
+            return super.getCities(count);
+        }
+    }
+
+    @Test
+    void failedPrefetchIsReportedThenRetried() {
+        FailingPrefetchSource source = new FailingPrefetchSource();
+        try (CachingDataSource caching = new CachingDataSource(source, 4, CachingDataSource.DEFAULT_MAX_VOCABULARY_WEIGHT)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                AssertionError reported = null;
+                while (reported == null) {
+                    try {
+                        caching.getCities(1);
+                        Thread.sleep(5);
+                    } catch (AssertionError e) {
+                        reported = e;
+                    }
+                }
+                assertSame(source.error, reported);
+
+                // Une erreur ne bloque pas les préchargements suivants
+                source.failing = false;
+                int attempts = source.prefetches.get();
+                while (source.prefetches.get() == attempts) {
+                    assertEquals(1, caching.getCities(1).size());
+                    Thread.sleep(5);
+                }
+            });
+        }
+    }
+
+    @Test
+    void slowFetchDoesNotBlockCachedCategories() throws Exception {
+        SlowDataSource slow = new SlowDataSource();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (CachingDataSource caching = new CachingDataSource(slow)) {
+            Vocabulary cities = caching.getVocabulary(Vocabulary.Category.CITIES);
+            Future<Vocabulary> first = executor.submit(() -> caching.getVocabulary(Vocabulary.Category.FIRST_NAMES));
+            Future<Vocabulary> second = executor.submit(() -> caching.getVocabulary(Vocabulary.Category.FIRST_NAMES));
+            assertTrue(slow.started.await(10, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertSame(cities, caching.getVocabulary(Vocabulary.Category.CITIES)));
+
+            slow.release.countDown();
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, slow.firstNameRequests.get());
+            assertEquals(2, caching.getFetchCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedVocabularyIsEvicted() {
+        StaticDataSource source = new StaticDataSource();
+        long cities = source.getVocabulary(Vocabulary.Category.CITIES).size();
+        long professions = source.getVocabulary(Vocabulary.Category.PROFESSIONS).size();
+        try (CachingDataSource caching = new CachingDataSource(source, 16, Math.max(cities, professions))) {
+            caching.getVocabulary(Vocabulary.Category.CITIES);
+            caching.getVocabulary(Vocabulary.Category.PROFESSIONS);
+            caching.getVocabulary(Vocabulary.Category.PROFESSIONS);
+
+            assertEquals(1, caching.getEvictionCount());
+            assertEquals(1, caching.getHitCount());
+            assertEquals(2, caching.getMissCount());
+        }
+    }
+}
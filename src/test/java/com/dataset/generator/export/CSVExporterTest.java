@@ -0,0 +1,135 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSVExporterTest {
+    private static final String[] SEPARATORS = {",", ";", "||", "\t"};
+    private static final String ALPHABET = "ab ,;|\"\n\r\té€";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void cellsAreQuotedLikeTheLineByLineExporter() throws Exception {
+        List<Map<String, Object>> rows = randomRows(2000);
+        for (String separator : SEPARATORS) {
+            Path path = directory.resolve("a.csv");
+            new CSVExporter(separator).export(rows, path.toString());
+            assertEquals(reference(rows, separator), read(path), "séparateur " + separator);
+        }
+    }
+
+    @Test
+    void streamedRowsAreWrittenByColumnNameWhateverTheirKeyOrder() throws Exception {
+        // La dernière ligne arrive dans un second lot, clés dans l'autre ordre
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < RowBatch.DEFAULT_CAPACITY; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("a", i);
+            row.put("b", "v" + i);
+            rows.add(row);
+        }
+        Map<String, Object> last = new LinkedHashMap<>();
+        last.put("b", "LAST");
+        last.put("a", RowBatch.DEFAULT_CAPACITY);
+        rows.add(last);
+
+        Path csv = directory.resolve("a.csv");
+        new CSVExporter().exportStream(rows.stream(), csv.toString());
+        String[] lines = read(csv).split("\n");
+        assertEquals("a,b", lines[0]);
+        assertEquals(RowBatch.DEFAULT_CAPACITY + ",LAST", lines[lines.length - 1]);
+
+        Path sql = directory.resolve("a.sql");
+        new SQLExporter("t").exportStream(rows.stream(), sql.toString());
+        assertTrue(read(sql).endsWith("VALUES ('" + RowBatch.DEFAULT_CAPACITY + "', 'LAST');\n"));
+    }
+
+    @Test
+    void dictionaryCellsAreQuotedLikePlainCells() throws Exception {
+        String[] values = {"simple", "a,b", "a;b", "dit \"oui\"", "deux\nlignes", "a||b", "tab\tulé"};
+        Dictionary dictionary = new Dictionary(values);
+        RowSchema schema = new RowSchema(List.of(new RowSchema.Field("valeur", ColumnType.STRING, null, dictionary)));
+        RowBatch batch = new RowBatch(schema, values.length);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            batch.column(0).setDictionaryId(i, i);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("valeur", values[i]);
+            rows.add(row);
+        }
+        batch.setSize(values.length);
+
+        for (String separator : SEPARATORS) {
+            Path path = directory.resolve("d.csv");
+            try (ExportSession session = new CSVExporter(separator).open(path.toString())) {
+                session.accept(batch);
+            }
+            assertEquals(reference(rows, separator), read(path), "séparateur " + separator);
+        }
+    }
+
+    private static List<Map<String, Object>> randomRows(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("texte", randomText(random));
+            row.put("autre", random.nextInt(10) == 0 ? null : randomText(random));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static String randomText(SplittableRandom random) {
+        char[] chars = new char[random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Fichier tel que l'écrivait l'exportateur ligne à ligne d'origine.
+     */
+    private static String reference(List<Map<String, Object>> rows, String separator) {
+        StringBuilder csv = new StringBuilder(String.join(separator, rows.get(0).keySet())).append('\n');
+        for (Map<String, Object> row : rows) {
+            List<String> cells = new ArrayList<>();
+            for (Object value : row.values()) {
+                cells.add(escapeCsv(value == null ? "" : value.toString(), separator));
+            }
+            csv.append(String.join(separator, cells)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String escapeCsv(String input, String separator) {
+        if (input.contains(separator) || input.contains("\"") || input.contains("\n") || input.contains("\r")) {
+            return "\"" + input.replace("\"", "\"\"") + "\"";
+        }
+        return input;
+    }
+
+    private static String read(Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnarExporterTest {
+    private static final int SIZE = 2500;
+    private static final String[] COUNTRIES = {"France", "Belgique", "Suisse", "Canada", "Sénégal"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readerReturnsTheExportedRows() throws Exception {
+        List<Map<String, Object>> rows = rows();
+        Path path = directory.resolve("a.col");
+        ColumnarExporter exporter = new ColumnarExporter();
+        exporter.setRowGroupSize(1000);
+        write(exporter, rows, path);
+
+        try (ColumnarReader reader = new ColumnarReader(path.toString())) {
+            assertEquals(rows, reader.readAll());
+        }
+    }
+
+    @Test
+    void eachEncodingIsUsedAndReadBack() throws Exception {
+        List<Map<String, Object>> rows = rows();
+        Path path = directory.resolve("a.col");
+        ColumnarExporter exporter = new ColumnarExporter();
+        exporter.setRowGroupSize(SIZE);
+        write(exporter, rows, path);
+
+        try (ColumnarReader reader = new ColumnarReader(path.toString())) {
+            ColumnarReader.RowGroup group = reader.nextRowGroup();
+            assertEquals(ColumnarExporter.Encoding.PLAIN, encoding(group, "id"));
+            assertEquals(ColumnarExporter.Encoding.RLE, encoding(group, "statut"));
+            assertEquals(ColumnarExporter.Encoding.RLE, encoding(group, "score"));
+            assertEquals(ColumnarExporter.Encoding.DICTIONARY, encoding(group, "pays"));
+            assertEquals(ColumnarExporter.Encoding.DICTIONARY, encoding(group, "region"));
+            assertEquals(ColumnarExporter.Encoding.BIT_PACKED, encoding(group, "actif"));
+            assertEquals(ColumnarExporter.Encoding.RLE, encoding(group, "verifie"));
+            assertEquals(rows, group.getBatch().toRows());
+            assertNull(reader.nextRowGroup());
+        }
+    }
+
+    @Test
+    void compressedFileIsReadBack() throws Exception {
+        List<Map<String, Object>> rows = rows();
+        Path path = directory.resolve("a.col.gz");
+        ColumnarExporter exporter = new ColumnarExporter();
+        exporter.setCompression(new GzipOptions(ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, Deflater.BEST_SPEED, 2));
+        write(exporter, rows, path);
+
+        try (ColumnarReader reader = new ColumnarReader(path.toString())) {
+            assertEquals(rows, reader.readAll());
+        }
+    }
+
+    private static ColumnarExporter.Encoding encoding(ColumnarReader.RowGroup group, String column) {
+        return group.getStatistics(column).getEncoding();
+    }
+
+    /**
+     * Écrit les lignes par lots de tailles inégales, pour que les groupes de lignes ne
+     * coïncident pas avec les lots.
+     */
+    private static void write(ColumnarExporter exporter, List<Map<String, Object>> rows, Path path) throws Exception {
+        try (ExportSession session = exporter.open(path.toString())) {
+            for (int from = 0; from < rows.size(); from += 700) {
+                session.accept(RowBatch.fromRows(rows.subList(from, Math.min(rows.size(), from + 700))));
+            }
+        }
+    }
+
+    /**
+     * Colonnes choisies pour déclencher chaque encodage : identifiants distincts (simple),
+     * longues plages de nombres et de booléens (RLE), peu de libellés distincts, en plages ou
+     * non (dictionnaire, indices en plages ou compactés), booléens aléatoires (bits).
+     */
+    private static List<Map<String, Object>> rows() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", 1_000_000L * i + random.nextInt(1000));
+            row.put("statut", (long) (i / 500));
+            row.put("score", i < SIZE / 2 ? 1.5 : -0.25);
+            row.put("pays", random.nextInt(10) == 0 ? null : COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            row.put("region", COUNTRIES[i / 800]);
+            row.put("actif", random.nextBoolean());
+            row.put("verifie", i % 1000 < 600);
+            row.put("naissance", LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20000)));
+            Map<String, Object> address = new LinkedHashMap<>();
+            address.put("ville", COUNTRIES[random.nextInt(2)]);
+            address.put("numero", (long) random.nextInt(200));
+            row.put("adresse", address);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
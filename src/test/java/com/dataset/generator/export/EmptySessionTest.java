@@ -0,0 +1,62 @@
+package main.java.com.dataset.generator.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmptySessionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void closingSessionsWithoutRowsDoesNotFail() throws Exception {
+        SQLExporter parallelSql = new SQLExporter("t");
+        parallelSql.setParallelism(4);
+        Map<String, Exporter> exporters = new LinkedHashMap<>();
+        exporters.put("a.csv", new CSVExporter());
+        exporters.put("a.sql", new SQLExporter("t"));
+        exporters.put("b.sql", parallelSql);
+        exporters.put("a.col", new ColumnarExporter());
+        exporters.put("a.txt", new FixedWidthExporter());
+
+        for (Map.Entry<String, Exporter> exporter : exporters.entrySet()) {
+            Path path = directory.resolve(exporter.getKey());
+            exporter.getValue().open(path.toString()).close();
+            assertFalse(Files.exists(path), exporter.getKey());
+        }
+    }
+
+    @Test
+    void emptyXmlSessionWritesAnEmptyDocument() throws Exception {
+        Path path = directory.resolve("a.xml");
+        new XMLExporter().open(path.toString()).close();
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<dataset>\n</dataset>\n",
+                     new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyJsonSessionWritesAnEmptyArray() throws Exception {
+        Path path = directory.resolve("a.json");
+        new JSONExporter().open(path.toString()).close();
+        assertEquals("[]", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void fanOutWithoutRowsClosesEverySession() throws Exception {
+        Map<String, Exporter> targets = new LinkedHashMap<>();
+        targets.put(directory.resolve("f.xml").toString(), new XMLExporter());
+        targets.put(directory.resolve("f.sql").toString(), new SQLExporter("t"));
+        FanOutSession.open(targets, 2).close();
+        assertTrue(Files.exists(directory.resolve("f.xml")));
+    }
+}
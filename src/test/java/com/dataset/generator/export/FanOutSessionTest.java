@@ -0,0 +1,64 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FanOutSessionTest {
+
+    @Test
+    void errorInSessionIsReportedInsteadOfBlockingTheProducer() {
+        AssertionError error = new AssertionError("échec de la session");
+        ExportSession failing = new ExportSession() {
+            @Override
+            public void accept(RowBatch batch) {
+                throw error;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        RowBatch batch = RowBatch.fromRows(List.of(Map.of("id", 1)));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            FanOutSession session = new FanOutSession(List.of(failing), 1);
+            Exception thrown = assertThrows(Exception.class, () -> {
+                for (int i = 0; i < 100; i++) {
+                    session.accept(batch);
+                }
+            });
+            assertSame(error, thrown.getCause());
+            session.close();
+        });
+    }
+
+    @Test
+    void errorInCloseIsRaisedByClose() {
+        ExportSession failing = new ExportSession() {
+            @Override
+            public void accept(RowBatch batch) {
+            }
+
+            @Override
+            public void close() {
+                throw new StackOverflowError();
+            }
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            FanOutSession session = new FanOutSession(List.of(failing), 1);
+            session.accept(RowBatch.fromRows(List.of(Map.of("id", 1))));
+            Exception thrown = assertThrows(Exception.class, session::close);
+            assertTrue(thrown.getCause() instanceof StackOverflowError);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.ColumnType;
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.batch.RowSchema;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedWidthExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void yearWidthFollowsASingleBound() {
+        assertEquals(4, widthOf(DataType.YEAR, null, null));
+        assertEquals(5, widthOf(DataType.YEAR, null, 12000.0));
+        assertEquals(5, widthOf(DataType.YEAR, -1000.0, null));
+        assertEquals(5, widthOf(DataType.AGE, -1000.0, null));
+        assertEquals(2, widthOf(DataType.AGE, 18.0, 65.0));
+    }
+
+    @Test
+    void numericValueWiderThanItsColumnIsRejected() throws Exception {
+        RowSchema schema = new RowSchema(List.of(new RowSchema.Field("annee", ColumnType.INT, year(null, null))));
+        RowBatch batch = new RowBatch(schema, 1);
+        batch.column(0).setInt(0, 12000);
+        batch.setSize(1);
+
+        try (ExportSession session = new FixedWidthExporter().open(directory.resolve("a.txt").toString())) {
+            assertThrows(IllegalArgumentException.class, () -> session.accept(batch));
+        }
+    }
+
+    private static int widthOf(DataType type, Double min, Double max) {
+        Attribute attribute = year(min, max);
+        attribute.setType(type);
+        RowSchema schema = new RowSchema(List.of(new RowSchema.Field("valeur", ColumnType.INT, attribute)));
+        return FixedWidthExporter.layout(schema).getWidth(0);
+    }
+
+    private static Attribute year(Double min, Double max) {
+        Attribute attribute = new Attribute("annee", DataType.YEAR);
+        Constraints constraints = new Constraints();
+        constraints.setMin(min);
+        constraints.setMax(max);
+        attribute.setConstraints(constraints);
+        return attribute;
+    }
+}
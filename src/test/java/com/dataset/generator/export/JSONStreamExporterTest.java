@@ -0,0 +1,37 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JSONStreamExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapKeysThatAreNotStringsAreWrittenAsText() throws Exception {
+        Map<Object, Object> value = new LinkedHashMap<>();
+        value.put(1, "un");
+        value.put(null, 2);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("valeur", value);
+        Path path = directory.resolve("a.jsonl");
+
+        try (ExportSession session = new JSONStreamExporter().open(path.toString())) {
+            session.accept(RowBatch.fromRows(List.of(row)));
+        }
+
+        assertEquals("{\"valeur\":{\"1\":\"un\",\"null\":2}}\n",
+                     new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package main.java.com.dataset.generator.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Les exports de listes écrivent chaque ligne telle qu'elle est, même quand les lignes
+ * n'ont pas toutes les mêmes clés.
+ */
+class ListExportTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jsonObjectsHoldOnlyTheEntriesOfTheirRow() throws Exception {
+        String expected = "[\n" +
+                "  {\n" +
+                "    \"a\": 1,\n" +
+                "    \"b\": \"x\",\n" +
+                "    \"n\": {\n" +
+                "      \"x\": 1\n" +
+                "    }\n" +
+                "  },\n" +
+                "  {\n" +
+                "    \"b\": \"y\",\n" +
+                "    \"a\": 2,\n" +
+                "    \"c\": null,\n" +
+                "    \"n\": {\n" +
+                "      \"y\": \"z\",\n" +
+                "      \"x\": 2\n" +
+                "    }\n" +
+                "  },\n" +
+                "  {\n" +
+                "    \"a\": 3\n" +
+                "  }\n" +
+                "]";
+        Path path = directory.resolve("a.json");
+        JSONExporter exporter = new JSONExporter();
+        exporter.export(rows(), path.toString());
+        assertEquals(expected, read(path));
+        assertEquals(expected, exporter.toJsonString(rows()));
+
+        exporter.setParallelism(3);
+        exporter.export(rows(), path.toString());
+        assertEquals(expected, read(path));
+    }
+
+    @Test
+    void xmlRecordsHoldOnlyTheEntriesOfTheirRow() throws Exception {
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<dataset>\n" +
+                "  <record>\n" +
+                "    <a>1</a>\n" +
+                "    <b>x</b>\n" +
+                "    <n>\n" +
+                "      <x>1</x>\n" +
+                "    </n>\n" +
+                "  </record>\n" +
+                "  <record>\n" +
+                "    <b>y</b>\n" +
+                "    <a>2</a>\n" +
+                "    <c>null</c>\n" +
+                "    <n>\n" +
+                "      <y>z</y>\n" +
+                "      <x>2</x>\n" +
+                "    </n>\n" +
+                "  </record>\n" +
+                "  <record>\n" +
+                "    <a>3</a>\n" +
+                "  </record>\n" +
+                "</dataset>\n";
+        Path path = directory.resolve("a.xml");
+        new XMLExporter().export(rows(), path.toString());
+        assertEquals(expected, read(path));
+    }
+
+    @Test
+    void csvHeaderIsTheFirstRowKeys() throws Exception {
+        Path path = directory.resolve("a.csv");
+        new CSVExporter().export(rows(), path.toString());
+        assertEquals("a,b,n\n1,x,{x=1}\n2,y,\"{y=z, x=2}\"\n3,,\n", read(path));
+    }
+
+    /**
+     * Clés dans un autre ordre, clé en plus ou en moins, sous-entités aux clés différentes.
+     */
+    private static List<Map<String, Object>> rows() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", "x");
+        first.put("n", map("x", 1));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("b", "y");
+        second.put("a", 2);
+        second.put("c", null);
+        second.put("n", map("y", "z", "x", 2));
+        return List.of(first, second, map("a", 3));
+    }
+
+    private static Map<String, Object> map(Object... entries) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((String) entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    private static String read(Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
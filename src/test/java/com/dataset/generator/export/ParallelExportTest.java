@@ -0,0 +1,99 @@
+package main.java.com.dataset.generator.export;
+
+import main.java.com.dataset.generator.generator.RandomDataGenerator;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+import main.java.com.dataset.generator.model.Entity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ParallelExportTest {
+    /** Plusieurs morceaux d'encodage, dont un incomplet, répartis sur des lots de tailles différentes. */
+    private static final int SIZE = 3 * ParallelExportSession.CHUNK_ROWS + 321;
+    private static final int[] PARALLELISMS = {2, 3, 8};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parallelCsvIsIdenticalToSequentialCsv() throws Exception {
+        assertSameOutput("csv", parallelism -> {
+            CSVExporter exporter = new CSVExporter(";");
+            exporter.setParallelism(parallelism);
+            return exporter;
+        });
+    }
+
+    @Test
+    void parallelJsonIsIdenticalToSequentialJson() throws Exception {
+        assertSameOutput("json", parallelism -> {
+            JSONExporter exporter = new JSONExporter();
+            exporter.setParallelism(parallelism);
+            return exporter;
+        });
+    }
+
+    @Test
+    void parallelSqlIsIdenticalToSequentialSqlInEveryFormat() throws Exception {
+        for (SQLExporter.Format format : SQLExporter.Format.values()) {
+            assertSameOutput("sql", parallelism -> {
+                SQLExporter exporter = new SQLExporter("personnes");
+                exporter.setFormat(format);
+                exporter.setRowsPerInsert(100);
+                exporter.setParallelism(parallelism);
+                return exporter;
+            });
+        }
+    }
+
+    private void assertSameOutput(String extension, IntFunction<Exporter> exporters) throws Exception {
+        Entity entity = entity();
+        RandomDataGenerator generator = new RandomDataGenerator(11);
+        Path sequential = directory.resolve("sequentiel." + extension);
+        exporters.apply(1).exportBatches(generator.batches(entity, SIZE, 1000), sequential.toString());
+        byte[] expected = Files.readAllBytes(sequential);
+
+        for (int parallelism : PARALLELISMS) {
+            Path parallel = directory.resolve("parallele-" + parallelism + "." + extension);
+            exporters.apply(parallelism).exportBatches(generator.batches(entity, SIZE, 1000), parallel.toString());
+            assertArrayEquals(expected, Files.readAllBytes(parallel), extension + ", parallélisme " + parallelism);
+        }
+    }
+
+    private static Entity entity() {
+        Entity entity = new Entity("personne");
+        entity.addAttribute(new Attribute("id", DataType.INTEGER));
+        entity.addAttribute(new Attribute("nom", DataType.FULL_NAME));
+        entity.addAttribute(new Attribute("email", DataType.EMAIL));
+        entity.addAttribute(new Attribute("solde", DataType.PRICE));
+        entity.addAttribute(new Attribute("naissance", DataType.DATE));
+        entity.addAttribute(new Attribute("inscription", DataType.DATETIME));
+        entity.addAttribute(new Attribute("actif", DataType.BOOLEAN));
+
+        Attribute note = new Attribute("note", DataType.STRING);
+        Constraints nullable = new Constraints();
+        nullable.setNullable(true);
+        note.setConstraints(nullable);
+        entity.addAttribute(note);
+
+        Attribute status = new Attribute("statut", DataType.STRING);
+        Constraints values = new Constraints();
+        values.setPossibleValues(List.of("actif", "en pause", "l'ancien", "a,b", "dit \"non\""));
+        status.setConstraints(values);
+        entity.addAttribute(status);
+
+        Entity address = new Entity("adresse");
+        address.addAttribute(new Attribute("ville", DataType.CITY));
+        address.addAttribute(new Attribute("rue", DataType.ADDRESS));
+        entity.addSubEntity(address);
+        return entity;
+    }
+}
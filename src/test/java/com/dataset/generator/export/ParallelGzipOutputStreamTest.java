@@ -0,0 +1,128 @@
+package main.java.com.dataset.generator.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelGzipOutputStreamTest {
+    private static final int BLOCK_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void multiMemberOutputIsReadByGzipInputStream() throws IOException {
+        for (int length : new int[] {1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 25 * BLOCK_SIZE + 17}) {
+            byte[] data = randomText(length);
+            byte[] compressed = compress(data);
+
+            assertArrayEquals(data, gunzip(compressed), "longueur " + length);
+            assertTrue(memberCount(compressed) >= (length + BLOCK_SIZE - 1) / BLOCK_SIZE, "longueur " + length);
+        }
+    }
+
+    @Test
+    void emptyStreamIsAValidGzipFile() throws IOException {
+        byte[] compressed = compress(new byte[0]);
+
+        assertTrue(compressed.length > 0);
+        assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    void byteWritesAndFlushesKeepTheContent() throws IOException {
+        byte[] data = randomText(5 * BLOCK_SIZE + 3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(bytes, BLOCK_SIZE, Deflater.BEST_SPEED, 3)) {
+            for (int i = 0; i < data.length; i++) {
+                gzip.write(data[i]);
+                if (i % 777 == 0) {
+                    gzip.flush();
+                }
+            }
+        }
+        assertArrayEquals(data, gunzip(bytes.toByteArray()));
+    }
+
+    @Test
+    void compressedExportMatchesTheUncompressedFile() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(Map.of("id", i, "nom", i % 2 == 0 ? "Zoé" : "Noé"));
+        }
+        Path plain = directory.resolve("a.json");
+        Path compressed = directory.resolve("a.json.gz");
+        new JSONExporter().export(rows, plain.toString());
+        JSONExporter gzip = new JSONExporter();
+        gzip.setCompression(new GzipOptions(BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, 2));
+        gzip.export(rows, compressed.toString());
+
+        assertArrayEquals(Files.readAllBytes(plain), gunzip(Files.readAllBytes(compressed)));
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(bytes, BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, 4)) {
+            gzip.write(data, 0, data.length);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Compte les membres gzip en inflatant chacun séparément ; les en-têtes écrits n'ont aucun
+     * champ optionnel et font donc 10 octets, la fin de membre 8.
+     */
+    private static int memberCount(byte[] compressed) throws IOException {
+        int count = 0;
+        int offset = 0;
+        byte[] sink = new byte[4096];
+        while (offset < compressed.length) {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(compressed, offset + 10, compressed.length - offset - 10);
+                while (!inflater.finished()) {
+                    inflater.inflate(sink);
+                }
+                offset = compressed.length - inflater.getRemaining() + 8;
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            } finally {
+                inflater.end();
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static byte[] randomText(int length) {
+        SplittableRandom random = new SplittableRandom(length);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(6));
+        }
+        return data;
+    }
+}
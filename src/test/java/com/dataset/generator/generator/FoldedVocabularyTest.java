@@ -0,0 +1,78 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.Dictionary;
+import main.java.com.dataset.generator.datasource.Vocabulary;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FoldedVocabularyTest {
+
+    @Test
+    void foldMatchesNormalizedLowerCaseForm() {
+        List<String> values = List.of("Zoé", "Jean-Pierre", "O'Connor", "Ærø", "Łukasz", "İstanbul", "ßeta",
+                                      "Müller & Fils", "  ", "", "日本", "Renée42", "CAFÉ", "áb");
+        for (String value : values) {
+            assertArrayEquals(reference(value), FoldedVocabulary.fold(value), value);
+        }
+    }
+
+    @Test
+    void largeVocabularyIsFoldedOnlyWhenDrawn() {
+        AtomicInteger reads = new AtomicInteger();
+        Vocabulary large = new Vocabulary() {
+            @Override
+            public int size() {
+                return Dictionary.MAX_SIZE * 1000;
+            }
+
+            @Override
+            public String get(int index) {
+                reads.incrementAndGet();
+                return "Élise" + index;
+            }
+        };
+
+        FoldedVocabulary folded = new FoldedVocabulary(large);
+        assertEquals(0, reads.get());
+        assertArrayEquals("elise7".toCharArray(), folded.get(7));
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void shortVocabularyIsFoldedOnce() {
+        AtomicInteger reads = new AtomicInteger();
+        Vocabulary names = new Vocabulary() {
+            @Override
+            public int size() {
+                return 2;
+            }
+
+            @Override
+            public String get(int index) {
+                reads.incrementAndGet();
+                return index == 0 ? "Anaïs" : "Noé";
+            }
+        };
+
+        FoldedVocabulary folded = new FoldedVocabulary(names);
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals("noe".toCharArray(), folded.get(1));
+        }
+        assertEquals(2, reads.get());
+    }
+
+    private static char[] reference(String value) {
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]", "");
+        return (folded.isEmpty() ? "x" : folded).toCharArray();
+    }
+}
@@ -0,0 +1,147 @@
+package main.java.com.dataset.generator.generator;
+
+import main.java.com.dataset.generator.batch.RowBatch;
+import main.java.com.dataset.generator.model.Attribute;
+import main.java.com.dataset.generator.model.Constraints;
+import main.java.com.dataset.generator.model.DataType;
+import main.java.com.dataset.generator.model.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RandomDataGeneratorTest {
+    private static final long SEED = 42;
+    private static final int SIZE = 2 * RandomDataGenerator.SHARD_SIZE + 1234;
+
+    @Test
+    void rowsDoNotDependOnTheNumberOfThreads() {
+        Entity entity = entity();
+        List<Map<String, Object>> expected = new RandomDataGenerator(SEED, 1).generate(entity, SIZE);
+
+        for (int parallelism : new int[] {2, 3, 8}) {
+            assertEquals(expected, new RandomDataGenerator(SEED, parallelism).generate(entity, SIZE),
+                         "parallélisme " + parallelism);
+        }
+    }
+
+    @Test
+    void parallelStreamYieldsTheRowsOfASequentialRun() {
+        Entity entity = entity();
+        List<Map<String, Object>> expected = new RandomDataGenerator(SEED).generate(entity, SIZE);
+
+        assertEquals(expected, new RandomDataGenerator(SEED).stream(entity, SIZE).collect(Collectors.toList()));
+        assertEquals(expected, new RandomDataGenerator(SEED).stream(entity, SIZE).parallel()
+                                                             .collect(Collectors.toList()));
+    }
+
+    @Test
+    void anyRangeMatchesTheSameRowsOfAFullRun() {
+        Entity entity = entity();
+        RandomDataGenerator generator = new RandomDataGenerator(SEED, 4);
+        List<Map<String, Object>> expected = generator.generate(entity, SIZE);
+
+        long[][] ranges = {
+            {0, 1}, {17, 18}, {RandomDataGenerator.SHARD_SIZE - 5, RandomDataGenerator.SHARD_SIZE + 5},
+            {1000, 2 * RandomDataGenerator.SHARD_SIZE + 7}, {SIZE - 3, SIZE}
+        };
+        for (long[] range : ranges) {
+            assertEquals(expected.subList((int) range[0], (int) range[1]),
+                         generator.generate(entity, range[0], range[1]),
+                         "plage [" + range[0] + ", " + range[1] + ")");
+        }
+    }
+
+    @Test
+    void batchesOfAnySplitYieldTheRowsOfAFullRun() {
+        Entity entity = entity();
+        RandomDataGenerator generator = new RandomDataGenerator(SEED);
+        List<Map<String, Object>> expected = generator.generate(entity, SIZE);
+
+        for (int batchSize : new int[] {1000, 4096, RandomDataGenerator.SHARD_SIZE + 1}) {
+            assertEquals(expected, rows(generator.batches(entity, SIZE, batchSize)), "lots de " + batchSize);
+            assertEquals(expected, rows(generator.batches(entity, SIZE, batchSize).parallel()),
+                         "lots parallèles de " + batchSize);
+        }
+
+        // Deux producteurs qui se partagent le jeu de données à une frontière arbitraire
+        int split = 12345;
+        List<Map<String, Object>> sharded = new ArrayList<>(rows(generator.batches(entity, 0, split, 777)));
+        sharded.addAll(rows(generator.batches(entity, split, SIZE, 777)));
+        assertEquals(expected, sharded);
+    }
+
+    @Test
+    void parallelBatchArraysHaveTheSizeOfASequentialRun() {
+        Entity entity = entity();
+        RandomDataGenerator generator = new RandomDataGenerator(SEED);
+        List<Map<String, Object>> expected = generator.generate(entity, SIZE);
+
+        // Des lots qui ne divisent pas les tranches : un découpage par tranche fausserait le décompte
+        for (int batchSize : new int[] {7, 1000, 10_000, RandomDataGenerator.SHARD_SIZE - 1}) {
+            RowBatch[] batches = generator.batches(entity, SIZE, batchSize).parallel().toArray(RowBatch[]::new);
+            assertEquals((SIZE + batchSize - 1) / batchSize, batches.length, "lots de " + batchSize);
+            for (int i = 0; i < batches.length - 1; i++) {
+                assertEquals(batchSize, batches[i].size(), "lots de " + batchSize);
+            }
+            assertEquals(expected, rows(Arrays.stream(batches)), "lots de " + batchSize);
+        }
+    }
+
+    @Test
+    void differentSeedsYieldDifferentRows() {
+        Entity entity = entity();
+        assertNotEquals(new RandomDataGenerator(1).generate(entity, 100),
+                        new RandomDataGenerator(2).generate(entity, 100));
+    }
+
+    private static List<Map<String, Object>> rows(Stream<RowBatch> batches) {
+        return batches.flatMap(batch -> batch.toRows().stream()).collect(Collectors.toList());
+    }
+
+    /**
+     * Entité couvrant les principaux générateurs : bornes, valeurs pondérées, motifs,
+     * vocabulaires, identités corrélées et sous-entité.
+     */
+    static Entity entity() {
+        Entity entity = new Entity("personne");
+        Attribute id = new Attribute("id", DataType.INTEGER);
+        Constraints bounds = new Constraints();
+        bounds.setMin(1.0);
+        bounds.setMax(1_000_000.0);
+        id.setConstraints(bounds);
+        entity.addAttribute(id);
+
+        Attribute status = new Attribute("statut", DataType.STRING);
+        Constraints weighted = new Constraints();
+        weighted.setPossibleValues(List.of("actif", "inactif", "suspendu"));
+        weighted.setPossibleValueWeights(List.of(5.0, 2.0, 1.0));
+        status.setConstraints(weighted);
+        entity.addAttribute(status);
+
+        Attribute code = new Attribute("code", DataType.STRING);
+        Constraints pattern = new Constraints();
+        pattern.setPattern("[A-Z]{3}-\\d{4}");
+        code.setConstraints(pattern);
+        entity.addAttribute(code);
+
+        entity.addAttribute(new Attribute("prenom", DataType.FIRST_NAME));
+        entity.addAttribute(new Attribute("email", DataType.EMAIL));
+        entity.addAttribute(new Attribute("score", DataType.FLOAT));
+        entity.addAttribute(new Attribute("naissance", DataType.DATE));
+        entity.addAttribute(new Attribute("actif", DataType.BOOLEAN));
+
+        Entity address = new Entity("adresse");
+        address.addAttribute(new Attribute("ville", DataType.CITY));
+        address.addAttribute(new Attribute("codePostal", DataType.POSTAL_CODE));
+        entity.addSubEntity(address);
+        return entity;
+    }
+}
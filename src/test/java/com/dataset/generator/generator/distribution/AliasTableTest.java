@@ -0,0 +1,86 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasTableTest {
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    void frequenciesFollowTheWeights() {
+        double[] weights = {1, 2, 3, 0.5, 10, 0.25, 7};
+        int[] counts = draw(new AliasTable(weights), DRAWS);
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double expected = weights[i] / total;
+            // Cinq écarts-types de la loi binomiale
+            double tolerance = 5 * Math.sqrt(expected * (1 - expected) / DRAWS);
+            assertEquals(expected, (double) counts[i] / DRAWS, tolerance, "indice " + i);
+        }
+    }
+
+    @Test
+    void zeroWeightsAreNeverDrawn() {
+        double[][] cases = {
+            {0, 1, 0, 0, 2, 0},
+            {0, 0, 0, 1},
+            {1e-300, 0, 1, 0, 1e300},
+            {0.1, 0.2, 0.3, 0, 0.4, 0, 0.7, 0.1, 0, 0.3},
+            {1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1, 0, 1}
+        };
+        for (double[] weights : cases) {
+            int[] counts = draw(new AliasTable(weights), DRAWS / 10);
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] == 0) {
+                    assertEquals(0, counts[i], "indice " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void manyWeightsWithZerosKeepOnlyPositiveOnes() {
+        SplittableRandom weightsRandom = new SplittableRandom(17);
+        double[] weights = new double[10_000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = i % 3 == 0 ? 0 : weightsRandom.nextDouble();
+        }
+        int[] counts = draw(new AliasTable(weights), DRAWS);
+        for (int i = 0; i < weights.length; i += 3) {
+            assertEquals(0, counts[i], "indice " + i);
+        }
+    }
+
+    @Test
+    void singleValueIsAlwaysDrawn() {
+        int[] counts = draw(new AliasTable(new double[] {0.3}), 1000);
+        assertEquals(1000, counts[0]);
+    }
+
+    @Test
+    void invalidWeightsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, Double.POSITIVE_INFINITY}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {Double.MAX_VALUE, Double.MAX_VALUE}));
+    }
+
+    private static int[] draw(AliasTable table, int draws) {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,109 @@
+package main.java.com.dataset.generator.generator.distribution;
+
+import main.java.com.dataset.generator.model.Constraints;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplersTest {
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void samplersHaveTheExpectedMean() {
+        assertMean(new NormalSampler(50, 10), 50, 10);
+        assertMean(new ExponentialSampler(5, 25), 25, 20);
+        // Table pour une petite moyenne, PTRS au-delà
+        assertMean(new PoissonSampler(0, 3.5), 3.5, Math.sqrt(3.5));
+        assertMean(new PoissonSampler(10, 500), 510, Math.sqrt(500));
+        assertMean(new BinomialSampler(0, 20, 0.3), 6, Math.sqrt(20 * 0.3 * 0.7));
+        assertMean(new BinomialSampler(100, 1000, 0.4), 500, Math.sqrt(1000 * 0.4 * 0.6));
+        assertMean(new BinomialSampler(0, 1000, 0.9), 900, Math.sqrt(1000 * 0.9 * 0.1));
+    }
+
+    @Test
+    void boundedDrawsStayInsideTheInterval() {
+        for (Constraints.DistributionType type : new Constraints.DistributionType[] {
+                Constraints.DistributionType.NORMALE, Constraints.DistributionType.EXPONENTIELLE,
+                Constraints.DistributionType.POISSON, Constraints.DistributionType.BINOMIALE}) {
+            for (boolean integral : new boolean[] {false, true}) {
+                // Moyenne près de la borne basse : la troncature et le repli sur les bornes servent
+                Constraints constraints = constraints(type, 12.0, 8.0);
+                Sampler sampler = Samplers.forConstraints(constraints, 10, 40, integral);
+                SplittableRandom random = new SplittableRandom(2);
+                double sum = 0;
+                for (int i = 0; i < DRAWS; i++) {
+                    double value = sampler.sample(random);
+                    assertTrue(value >= 10 && value <= 40, type + " : " + value);
+                    if (integral) {
+                        assertEquals(Math.rint(value), value, type + " : " + value);
+                    }
+                    sum += value;
+                }
+                double mean = sum / DRAWS;
+                assertTrue(mean >= 10 && mean <= 40, type + " : moyenne " + mean);
+            }
+        }
+    }
+
+    @Test
+    void boundedMeanFollowsTheConstraintsWhenTruncationIsNegligible() {
+        assertBoundedMean(constraints(Constraints.DistributionType.NORMALE, 100.0, 5.0), 0, 200, 100, 5);
+        assertBoundedMean(constraints(Constraints.DistributionType.EXPONENTIELLE, 20.0, null), 10, 1000, 20, 10);
+        assertBoundedMean(constraints(Constraints.DistributionType.POISSON, 30.0, null), 10, 100, 30, Math.sqrt(20));
+        assertBoundedMean(constraints(Constraints.DistributionType.BINOMIALE, 40.0, null), 0, 100, 40,
+                          Math.sqrt(100 * 0.4 * 0.6));
+    }
+
+    @Test
+    void uniformOrMissingConstraintsGiveNoSampler() {
+        assertNull(Samplers.forConstraints(null, 0, 1, false));
+        assertNull(Samplers.forConstraints(new Constraints(), 0, 1, false));
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new NormalSampler(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialSampler(5, 5));
+        assertThrows(IllegalArgumentException.class, () -> new PoissonSampler(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BinomialSampler(0, 10, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> Samplers.forConstraints(
+                constraints(Constraints.DistributionType.BINOMIALE, null, null), 0, 0.5, true));
+    }
+
+    private static Constraints constraints(Constraints.DistributionType type, Double moyenne, Double ecartType) {
+        Constraints constraints = new Constraints();
+        constraints.setDistributionType(type);
+        constraints.setMoyenne(moyenne);
+        constraints.setEcartType(ecartType);
+        return constraints;
+    }
+
+    private static void assertBoundedMean(Constraints constraints, double min, double max,
+                                          double expected, double standardDeviation) {
+        Sampler sampler = Samplers.forConstraints(constraints, min, max, true);
+        SplittableRandom random = new SplittableRandom(4);
+        double sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            double value = sampler.sample(random);
+            assertTrue(value >= min && value <= max, constraints.getDistributionType() + " : " + value);
+            sum += value;
+        }
+        // L'arrondi à l'entier le plus proche ne décale pas la moyenne au-delà de la tolérance
+        assertEquals(expected, sum / DRAWS, 6 * standardDeviation / Math.sqrt(DRAWS) + 0.01,
+                     constraints.getDistributionType().name());
+    }
+
+    private static void assertMean(Sampler sampler, double expected, double standardDeviation) {
+        SplittableRandom random = new SplittableRandom(3);
+        double sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sum += sampler.sample(random);
+        }
+        assertEquals(expected, sum / DRAWS, 6 * standardDeviation / Math.sqrt(DRAWS), sampler.getClass().getSimpleName());
+    }
+}
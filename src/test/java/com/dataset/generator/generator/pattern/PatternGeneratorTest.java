@@ -0,0 +1,88 @@
+package main.java.com.dataset.generator.generator.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatternGeneratorTest {
+    private static final int DRAWS = 2000;
+
+    @Test
+    void generatedStringsMatchThePattern() {
+        List<String> patterns = List.of(
+                "[A-Z]{2}-\\d{3}",
+                "^[a-z0-9_]{3,10}$",
+                "0[67](\\d{2}){4}",
+                "(?:chat|chien|oiseau)s?",
+                "\\w+@[a-z]+\\.(fr|com|org)",
+                "[^a-z]{5}",
+                "a*b+c?",
+                "\\s\\S\\D\\W",
+                "x{2,}y{0,3}",
+                ".{1,4}",
+                "\\x41\\u00e9\\.\\[\\]",
+                "((ab|c)d){1,3}|e");
+        SplittableRandom random = new SplittableRandom(3);
+        for (String pattern : patterns) {
+            PatternGenerator generator = PatternGenerator.compile(pattern);
+            for (int i = 0; i < DRAWS; i++) {
+                String value = generator.generate(random);
+                assertTrue(value.matches(pattern), () -> "'" + value + "' ne correspond pas à " + pattern);
+                assertTrue(value.length() <= generator.getMaxLength(), pattern);
+            }
+        }
+    }
+
+    @Test
+    void everyAlternativeIsProduced() {
+        PatternGenerator generator = PatternGenerator.compile("(rouge|vert|bleu)");
+        SplittableRandom random = new SplittableRandom(5);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < DRAWS; i++) {
+            seen.add(generator.generate(random));
+        }
+        assertEquals(Set.of("rouge", "vert", "bleu"), seen);
+    }
+
+    @Test
+    void sameSeedGivesSameStrings() {
+        PatternGenerator generator = PatternGenerator.compile("[A-Z][a-z]{2,8}\\d*");
+        SplittableRandom first = new SplittableRandom(11);
+        SplittableRandom second = new SplittableRandom(11);
+        for (int i = 0; i < DRAWS; i++) {
+            assertEquals(generator.generate(first), generator.generate(second));
+        }
+    }
+
+    @Test
+    void ungeneratableConstructsAreRejectedAtCompile() {
+        List<String> patterns = List.of(
+                "\\bmot\\b",
+                "\\Bx",
+                "(a)\\1",
+                "(?<nom>a)\\k<nom>",
+                "a(?=b)",
+                "a(?!b)",
+                "(?<=a)b",
+                "(?<!a)b",
+                "(?i)abc",
+                "\\p{L}+",
+                "a^b",
+                "[a-z",
+                "(ab",
+                "ab)",
+                "*a",
+                "a{3,1}",
+                "[z-a]");
+        for (String pattern : patterns) {
+            assertThrows(IllegalArgumentException.class, () -> PatternGenerator.compile(pattern), pattern);
+        }
+    }
+}